@@ -0,0 +1,119 @@
+package io.github.joabsonlg.sigac_api.reservation.pricing;
+
+import io.github.joabsonlg.sigac_api.dailyRate.cache.RateTimeline;
+import io.github.joabsonlg.sigac_api.dailyRate.model.DailyRate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the reservation pricing engine on in-memory rate timelines:
+ * single quotes (with and without the per-plate timeline lookup) and batches of quotes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final long MICROS_PER_DAY = 86_400_000_000L;
+
+    @Param({"1000"})
+    int plates;
+
+    @Param({"4", "52"})
+    int rateChangesPerYear;
+
+    @Param({"30"})
+    int maxRentalDays;
+
+    private Map<String, RateTimeline> timelinesByPlate;
+    private String[] quotePlates;
+    private RateTimeline[] quoteTimelines;
+    private long[] starts;
+    private long[] ends;
+    private long[] discounts;
+    private long[] results;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime origin = LocalDateTime.of(2024, 1, 1, 0, 0);
+        timelinesByPlate = new HashMap<>();
+        List<String> plateList = new ArrayList<>(plates);
+        for (int p = 0; p < plates; p++) {
+            String plate = String.format("BEN%04d", p);
+            List<DailyRate> rates = new ArrayList<>();
+            int changes = rateChangesPerYear * 2;
+            for (int c = 0; c < changes; c++) {
+                LocalDateTime at = origin.plusMinutes((long) c * (2 * 365 * 24 * 60) / changes);
+                rates.add(new DailyRate((long) c, 80.0 + random.nextInt(0, 40000) / 100.0, at, plate));
+            }
+            timelinesByPlate.put(plate, RateTimeline.of(plate, rates));
+            plateList.add(plate);
+        }
+
+        quotePlates = new String[BATCH_SIZE];
+        quoteTimelines = new RateTimeline[BATCH_SIZE];
+        starts = new long[BATCH_SIZE];
+        ends = new long[BATCH_SIZE];
+        discounts = new long[BATCH_SIZE];
+        results = new long[BATCH_SIZE];
+        long originMicros = RateTimeline.toMicros(origin);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            quotePlates[i] = plateList.get(random.nextInt(plates));
+            quoteTimelines[i] = timelinesByPlate.get(quotePlates[i]);
+            starts[i] = originMicros + random.nextLong(0, 700 * MICROS_PER_DAY);
+            ends[i] = starts[i] + random.nextLong(3_600_000_000L, maxRentalDays * MICROS_PER_DAY);
+            discounts[i] = random.nextInt(4) == 0 ? 1500 : 0;
+        }
+    }
+
+    @Benchmark
+    public long singleQuote() {
+        int i = next();
+        return PricingEngine.price(quoteTimelines[i], starts[i], ends[i], discounts[i]);
+    }
+
+    @Benchmark
+    public long singleQuoteWithTimelineLookup() {
+        int i = next();
+        return PricingEngine.price(timelinesByPlate.get(quotePlates[i]), starts[i], ends[i], discounts[i]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void batchQuote(Blackhole blackhole) {
+        PricingEngine.priceAll(quoteTimelines, starts, ends, discounts, results);
+        blackhole.consume(results);
+    }
+
+    private int next() {
+        int i = next;
+        next = i + 1 == BATCH_SIZE ? 0 : i + 1;
+        return i;
+    }
+}
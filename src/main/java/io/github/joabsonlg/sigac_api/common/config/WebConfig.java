@@ -1,5 +1,6 @@
 package io.github.joabsonlg.sigac_api.common.config;
 
+import io.github.joabsonlg.sigac_api.common.idempotency.IdempotencyFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -62,6 +63,8 @@ public class WebConfig implements WebFluxConfigurer {
         corsConfig.addExposedHeader("Authorization");
         corsConfig.addExposedHeader("Set-Cookie");
         corsConfig.addExposedHeader("Access-Control-Allow-Credentials");
+        corsConfig.addExposedHeader(IdempotencyFilter.REPLAYED_HEADER);
+        corsConfig.addExposedHeader("ETag");
         
         // Set max age for preflight requests
         corsConfig.setMaxAge(3600L);
@@ -0,0 +1,15 @@
+package io.github.joabsonlg.sigac_api.common.exception;
+
+/**
+ * Exception thrown when the authenticated user may not act on a resource,
+ * e.g. releasing another client's hold.
+ * Returns HTTP 403 status code.
+ */
+public class ForbiddenException extends BusinessException {
+
+    private static final String ERROR_CODE = "FORBIDDEN";
+
+    public ForbiddenException(String message) {
+        super(message, ERROR_CODE);
+    }
+}
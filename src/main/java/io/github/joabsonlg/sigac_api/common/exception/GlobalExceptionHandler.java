@@ -76,6 +76,42 @@ public class GlobalExceptionHandler {
         return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse));
     }
     
+    /**
+     * Handles ForbiddenException and returns 403 status.
+     */
+    @ExceptionHandler(ForbiddenException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleForbidden(ForbiddenException ex) {
+        logger.warn("Forbidden: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.FORBIDDEN.value())
+                .error(HttpStatus.FORBIDDEN.getReasonPhrase())
+                .message(ex.getMessage())
+                .errorCode(ex.getErrorCode())
+                .build();
+        
+        return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse));
+    }
+    
+    /**
+     * Handles PreconditionFailedException and returns 412 status.
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handlePreconditionFailed(PreconditionFailedException ex) {
+        logger.warn("Precondition failed: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.PRECONDITION_FAILED.value())
+                .error(HttpStatus.PRECONDITION_FAILED.getReasonPhrase())
+                .message(ex.getMessage())
+                .errorCode(ex.getErrorCode())
+                .build();
+        
+        return Mono.just(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(errorResponse));
+    }
+    
     /**
      * Handles validation errors from @Valid annotations.
      */
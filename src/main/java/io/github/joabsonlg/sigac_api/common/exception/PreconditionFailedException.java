@@ -0,0 +1,19 @@
+package io.github.joabsonlg.sigac_api.common.exception;
+
+/**
+ * Exception thrown when a conditional request does not match the current state of a resource,
+ * e.g. an If-Match version that is no longer current.
+ * Returns HTTP 412 status code.
+ */
+public class PreconditionFailedException extends BusinessException {
+
+    private static final String ERROR_CODE = "PRECONDITION_FAILED";
+
+    public PreconditionFailedException(String message) {
+        super(message, ERROR_CODE);
+    }
+
+    public PreconditionFailedException(String resourceType, Object identifier) {
+        super(String.format("%s with identifier '%s' was modified by another request", resourceType, identifier), ERROR_CODE);
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.joabsonlg.sigac_api.common.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.joabsonlg.sigac_api.common.exception.ConflictException;
+import io.github.joabsonlg.sigac_api.common.response.ErrorResponse;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Makes resource creation safe to retry.
+ * A POST to one of the covered endpoints carrying an Idempotency-Key header runs once per
+ * key, principal and endpoint: the response is captured and stored, and later requests with
+ * the same key get that response replayed (marked with Idempotent-Replayed: true) without
+ * reaching the handler. A retry that arrives while the original is still running gets 409.
+ * A request cancelled by a client disconnect releases its key (or stores the response it
+ * already wrote), and a key left claimed by a crashed instance is taken over after its lease.
+ */
+@Component
+public class IdempotencyFilter implements WebFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Set<String> COVERED_PATHS = Set.of("/api/reservations", "/api/reservations/batch", "/api/payments");
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyFilter(IdempotencyStore idempotencyStore, ObjectMapper objectMapper) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String key = exchange.getRequest().getHeaders().getFirst(IDEMPOTENCY_KEY_HEADER);
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (key == null || !HttpMethod.POST.equals(exchange.getRequest().getMethod()) || !COVERED_PATHS.contains(path)) {
+            return chain.filter(exchange);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return writeError(exchange.getResponse(), HttpStatus.BAD_REQUEST, "VALIDATION_ERROR",
+                    IDEMPOTENCY_KEY_HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty("anonymous")
+                .map(principal -> new IdempotencyScope(principal, HttpMethod.POST.name(), path, key))
+                .flatMap(scope -> idempotencyStore.begin(scope)
+                        .onErrorResume(ConflictException.class, error -> writeError(exchange.getResponse(),
+                                HttpStatus.CONFLICT, error.getErrorCode(), error.getMessage()).then(Mono.<Optional<IdempotentResponse>>empty()))
+                        .flatMap(stored -> stored
+                                .map(response -> replay(exchange.getResponse(), response))
+                                .orElseGet(() -> execute(exchange, chain, scope))));
+    }
+
+    /**
+     * Runs the request, capturing the response so it can be stored under the key.
+     */
+    private Mono<Void> execute(ServerWebExchange exchange, WebFilterChain chain, IdempotencyScope scope) {
+        CapturingResponse response = new CapturingResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().response(response).build())
+                .then(Mono.defer(() -> idempotencyStore.complete(scope, response.captured())))
+                .onErrorResume(error -> idempotencyStore.abandon(scope).then(Mono.error(error)))
+                .doOnCancel(() -> idempotencyStore.cancel(scope, response.written() ? response.captured() : null));
+    }
+
+    private Mono<Void> replay(ServerHttpResponse response, IdempotentResponse stored) {
+        response.setStatusCode(HttpStatusCode.valueOf(stored.statusCode()));
+        if (stored.contentType() != null) {
+            response.getHeaders().set("Content-Type", stored.contentType());
+        }
+        response.getHeaders().set(REPLAYED_HEADER, "true");
+        byte[] body = stored.body() != null ? stored.body() : new byte[0];
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private Mono<Void> writeError(ServerHttpResponse response, HttpStatus status, String errorCode, String message) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .errorCode(errorCode)
+                .build();
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(errorResponse);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * Response decorator that keeps a copy of the body written by the handler.
+     */
+    private static final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private byte[] body = new byte[0];
+        private volatile boolean written;
+
+        CapturingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(Flux.from(body))
+                    .flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+                        this.body = bytes;
+                        this.written = true;
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).flatMapSequential(Flux::from));
+        }
+
+        boolean written() {
+            return written;
+        }
+
+        IdempotentResponse captured() {
+            HttpStatusCode status = getStatusCode();
+            MediaType contentType = getHeaders().getContentType();
+            return new IdempotentResponse(
+                    status != null ? status.value() : HttpStatus.OK.value(),
+                    contentType != null ? contentType.toString() : null,
+                    body);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.joabsonlg.sigac_api.common.idempotency;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository for the idempotency_key table, the durable side of IdempotencyStore.
+ */
+@Repository
+public class IdempotencyRepository {
+
+    private static final String SCOPE_CONDITION = """
+        principal = :principal AND method = :method AND path = :path AND idempotency_key = :key
+    """;
+
+    private final DatabaseClient databaseClient;
+
+    public IdempotencyRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Claims a key for a request about to run. An expired row for the same key is taken over,
+     * including the claim of a request whose in-progress lease ran out (its owner died or hung).
+     *
+     * @param expiresAt end of the in-progress lease; complete extends it to the response TTL
+     * @return true if the key was claimed, false if another request holds or completed it
+     */
+    public Mono<Boolean> claim(IdempotencyScope scope, LocalDateTime now, LocalDateTime expiresAt) {
+        return bindScope(databaseClient.sql("""
+            INSERT INTO idempotency_key (principal, method, path, idempotency_key, expires_at)
+            VALUES (:principal, :method, :path, :key, :expires_at)
+            ON CONFLICT (principal, method, path, idempotency_key) DO UPDATE
+            SET status_code = NULL, content_type = NULL, response_body = NULL,
+                created_at = now(), expires_at = EXCLUDED.expires_at
+            WHERE idempotency_key.expires_at <= :now
+        """), scope)
+        .bind("now", now)
+        .bind("expires_at", expiresAt)
+        .fetch()
+        .rowsUpdated()
+        .map(rows -> rows > 0);
+    }
+
+    /**
+     * Finds the live row of a key.
+     *
+     * @return empty when there is no live row; an empty Optional while the original request is still running
+     */
+    public Mono<Optional<IdempotentResponse>> find(IdempotencyScope scope, LocalDateTime now) {
+        return bindScope(databaseClient.sql("""
+            SELECT status_code, content_type, response_body
+            FROM idempotency_key
+            WHERE %s AND expires_at > :now
+        """.formatted(SCOPE_CONDITION)), scope)
+        .bind("now", now)
+        .map(row -> {
+            Integer statusCode = row.get("status_code", Integer.class);
+            if (statusCode == null) {
+                return Optional.<IdempotentResponse>empty();
+            }
+            return Optional.of(new IdempotentResponse(
+                statusCode,
+                row.get("content_type", String.class),
+                row.get("response_body", byte[].class)));
+        })
+        .one();
+    }
+
+    /**
+     * Stores the response of a claimed key and keeps it until expiresAt.
+     */
+    public Mono<Void> complete(IdempotencyScope scope, IdempotentResponse response, LocalDateTime expiresAt) {
+        DatabaseClient.GenericExecuteSpec spec = bindScope(databaseClient.sql("""
+            UPDATE idempotency_key
+            SET status_code = :status_code, content_type = :content_type, response_body = :response_body,
+                expires_at = :expires_at
+            WHERE %s
+        """.formatted(SCOPE_CONDITION)), scope)
+        .bind("status_code", response.statusCode())
+        .bind("expires_at", expiresAt)
+        .bind("response_body", response.body());
+        spec = response.contentType() != null
+            ? spec.bind("content_type", response.contentType())
+            : spec.bindNull("content_type", String.class);
+        return spec.then();
+    }
+
+    /**
+     * Removes a key, so the request can be retried from scratch.
+     */
+    public Mono<Void> delete(IdempotencyScope scope) {
+        return bindScope(databaseClient.sql("DELETE FROM idempotency_key WHERE " + SCOPE_CONDITION), scope)
+            .then();
+    }
+
+    /**
+     * Removes every key that expired at or before the given instant.
+     */
+    public Mono<Long> deleteExpired(LocalDateTime now) {
+        return databaseClient.sql("DELETE FROM idempotency_key WHERE expires_at <= :now")
+            .bind("now", now)
+            .fetch()
+            .rowsUpdated();
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindScope(DatabaseClient.GenericExecuteSpec spec, IdempotencyScope scope) {
+        return spec.bind("principal", scope.principal())
+            .bind("method", scope.method())
+            .bind("path", scope.path())
+            .bind("key", scope.key());
+    }
+}
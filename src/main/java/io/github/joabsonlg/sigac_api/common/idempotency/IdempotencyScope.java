@@ -0,0 +1,12 @@
+package io.github.joabsonlg.sigac_api.common.idempotency;
+
+/**
+ * Identifies an idempotency key: the same key sent by another principal
+ * or to another endpoint is a different request.
+ */
+public record IdempotencyScope(
+        String principal,
+        String method,
+        String path,
+        String key
+) {}
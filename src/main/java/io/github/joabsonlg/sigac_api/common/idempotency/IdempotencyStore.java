@@ -0,0 +1,164 @@
+package io.github.joabsonlg.sigac_api.common.idempotency;
+
+import io.github.joabsonlg.sigac_api.common.exception.ConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Two-level store of idempotent responses: a bounded in-memory LRU in front of the
+ * idempotency_key table. Repeated keys are answered from memory without touching the
+ * database; the table makes keys survive restarts and be shared between instances.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Map<IdempotencyScope, CachedResponse> responses;
+    // Keys running on this instance, with the end of their in-progress lease
+    private final Map<IdempotencyScope, LocalDateTime> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(IdempotencyRepository idempotencyRepository,
+                            @Value("${sigac.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${sigac.idempotency.lease:PT1M}") Duration lease,
+                            @Value("${sigac.idempotency.cache-size:10000}") int cacheSize) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.responses = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<IdempotencyScope, CachedResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Starts a request under an idempotency key.
+     * The key is claimed with a short in-progress lease, extended to the TTL once the response is
+     * stored, so a claim whose owner died (crash, lost connection) can be taken over after the lease.
+     *
+     * @return the stored response to replay, or an empty Optional when the key was claimed
+     *         and the request must run; fails with ConflictException while the original
+     *         request is still in progress
+     */
+    public Mono<Optional<IdempotentResponse>> begin(IdempotencyScope scope) {
+        return Mono.defer(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            CachedResponse cached = responses.get(scope);
+            if (cached != null && cached.expiresAt().isAfter(now)) {
+                return Mono.just(Optional.of(cached.response()));
+            }
+            if (!claimLocally(scope, now)) {
+                return Mono.error(inProgress());
+            }
+            return idempotencyRepository.claim(scope, now, now.plus(lease))
+                    .flatMap(claimed -> claimed
+                            ? Mono.just(Optional.<IdempotentResponse>empty())
+                            : replayStored(scope, now))
+                    .doOnNext(outcome -> {
+                        if (outcome.isPresent()) {
+                            inFlight.remove(scope);
+                        }
+                    })
+                    .doOnError(error -> inFlight.remove(scope));
+        });
+    }
+
+    private Mono<Optional<IdempotentResponse>> replayStored(IdempotencyScope scope, LocalDateTime now) {
+        return idempotencyRepository.find(scope, now)
+                .flatMap(stored -> stored
+                        .map(response -> {
+                            responses.put(scope, new CachedResponse(response, now.plus(ttl)));
+                            return Mono.just(Optional.of(response));
+                        })
+                        .orElseGet(() -> Mono.error(inProgress())))
+                // The row expired between the claim and the lookup: claim it again
+                .switchIfEmpty(Mono.defer(() -> idempotencyRepository.claim(scope, now, now.plus(lease))
+                        .flatMap(claimed -> claimed
+                                ? Mono.just(Optional.<IdempotentResponse>empty())
+                                : Mono.error(inProgress()))));
+    }
+
+    /**
+     * Stores the response of a claimed key. Server errors are not stored, so the request can be retried.
+     */
+    public Mono<Void> complete(IdempotencyScope scope, IdempotentResponse response) {
+        if (response.statusCode() >= 500) {
+            return abandon(scope);
+        }
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        responses.put(scope, new CachedResponse(response, expiresAt));
+        return idempotencyRepository.complete(scope, response, expiresAt)
+                .doFinally(signal -> inFlight.remove(scope));
+    }
+
+    /**
+     * Drops a claimed key whose request failed before producing a response.
+     */
+    public Mono<Void> abandon(IdempotencyScope scope) {
+        return idempotencyRepository.delete(scope)
+                .doFinally(signal -> inFlight.remove(scope));
+    }
+
+    /**
+     * Releases a claimed key whose request was cancelled (the client disconnected). A response the
+     * handler already wrote is stored, since its changes may be committed; otherwise the key is dropped
+     * so a retry can run. Runs detached, the cancelled request no longer has a subscriber.
+     *
+     * @param written response written before the cancel, or null
+     */
+    public void cancel(IdempotencyScope scope, IdempotentResponse written) {
+        (written != null ? complete(scope, written) : abandon(scope))
+                .subscribe(null, error -> logger.warn("Could not release idempotency key {}: {}",
+                        scope.key(), error.getMessage()));
+    }
+
+    /**
+     * Marks a key as running on this instance, unless another local request holds it within its lease.
+     */
+    private boolean claimLocally(IdempotencyScope scope, LocalDateTime now) {
+        LocalDateTime leaseEnd = now.plus(lease);
+        LocalDateTime held = inFlight.putIfAbsent(scope, leaseEnd);
+        return held == null || (!held.isAfter(now) && inFlight.replace(scope, held, leaseEnd));
+    }
+
+    /**
+     * Purges expired keys from the table
+     */
+    @Scheduled(fixedDelayString = "${sigac.idempotency.purge-interval:PT1H}",
+               initialDelayString = "${sigac.idempotency.purge-interval:PT1H}")
+    public Mono<Void> purgeExpired() {
+        return idempotencyRepository.deleteExpired(LocalDateTime.now())
+                .doOnNext(count -> logger.debug("Purged {} expired idempotency keys", count))
+                .then()
+                .onErrorResume(error -> {
+                    logger.warn("Could not purge idempotency keys: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static ConflictException inProgress() {
+        return new ConflictException("A request with this Idempotency-Key is still being processed");
+    }
+
+    /**
+     * Response kept in memory until it expires.
+     */
+    private record CachedResponse(IdempotentResponse response, LocalDateTime expiresAt) {}
+}
@@ -0,0 +1,14 @@
+package io.github.joabsonlg.sigac_api.common.idempotency;
+
+/**
+ * Response captured for an idempotency key, replayed as-is on retries.
+ *
+ * @param statusCode  HTTP status of the original response
+ * @param contentType Content-Type of the original response, may be null
+ * @param body        raw response body
+ */
+public record IdempotentResponse(
+        int statusCode,
+        String contentType,
+        byte[] body
+) {}
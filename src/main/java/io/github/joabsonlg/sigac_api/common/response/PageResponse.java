@@ -1,10 +1,15 @@
 package io.github.joabsonlg.sigac_api.common.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 /**
  * Paginated response wrapper for list endpoints.
  * Provides pagination metadata along with the data.
+ * In cursor (keyset) mode, nextCursor carries the opaque position of the next page.
+ * In count-free mode totalElements and totalPages are null; when they come from an
+ * estimate instead of an exact count, totalEstimated is true.
  *
  * @param <T> the type of items in the page
  */
@@ -12,12 +17,24 @@ public record PageResponse<T>(
         List<T> content,
         int page,
         int size,
-        long totalElements,
-        int totalPages,
+        Long totalElements,
+        Integer totalPages,
         boolean hasNext,
-        boolean hasPrevious
+        boolean hasPrevious,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Boolean totalEstimated,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String nextCursor
 ) {
-    
+
+    /**
+     * Creates a PageResponse with an exact total and no cursor (offset pagination).
+     */
+    public PageResponse(List<T> content, int page, int size, long totalElements, int totalPages,
+                        boolean hasNext, boolean hasPrevious) {
+        this(content, page, size, totalElements, totalPages, hasNext, hasPrevious, null, null);
+    }
+
     /**
      * Creates a PageResponse with pagination metadata.
      */
@@ -25,7 +42,7 @@ public record PageResponse<T>(
         int totalPages = (int) Math.ceil((double) totalElements / size);
         boolean hasNext = page < totalPages - 1;
         boolean hasPrevious = page > 0;
-        
+
         return new PageResponse<>(
                 content,
                 page,
@@ -36,7 +53,7 @@ public record PageResponse<T>(
                 hasPrevious
         );
     }
-    
+
     /**
      * Creates a PageResponse for simple list responses (no pagination).
      */
@@ -51,4 +68,52 @@ public record PageResponse<T>(
                 false
         );
     }
+
+    /**
+     * Creates a PageResponse whose hasNext was derived from fetching one extra row.
+     *
+     * @param total     total number of elements, or null when it was not computed
+     * @param estimated whether total is an estimate rather than an exact count
+     */
+    public static <T> PageResponse<T> ofSlice(List<T> content, int page, int size, boolean hasNext,
+                                              Long total, boolean estimated) {
+        return new PageResponse<>(
+                content,
+                page,
+                size,
+                total,
+                totalPages(total, size),
+                hasNext,
+                page > 0,
+                total != null && estimated ? Boolean.TRUE : null,
+                null
+        );
+    }
+
+    /**
+     * Creates a PageResponse for cursor (keyset) pagination.
+     * The page number is always 0 because positions are expressed by cursors.
+     *
+     * @param total      total number of elements, or null when it was not computed
+     * @param estimated  whether total is an estimate rather than an exact count
+     * @param nextCursor cursor of the following page, or null when this is the last page
+     */
+    public static <T> PageResponse<T> ofCursor(List<T> content, int size, Long total, boolean estimated,
+                                               boolean hasPrevious, String nextCursor) {
+        return new PageResponse<>(
+                content,
+                0,
+                size,
+                total,
+                totalPages(total, size),
+                nextCursor != null,
+                hasPrevious,
+                total != null && estimated ? Boolean.TRUE : null,
+                nextCursor
+        );
+    }
+
+    private static Integer totalPages(Long total, int size) {
+        return total != null ? (int) Math.ceil((double) total / size) : null;
+    }
 }
@@ -0,0 +1,57 @@
+package io.github.joabsonlg.sigac_api.common.util;
+
+import io.github.joabsonlg.sigac_api.common.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Utility class for opaque keyset pagination cursors.
+ * A cursor encodes the sort key (timestamp, id) of the last row of a page
+ * as URL-safe Base64, so clients can pass it back without interpreting it.
+ */
+public class CursorUtil {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Sort key of the last row returned in a page.
+     */
+    public record Keyset(LocalDateTime timestamp, int id) {}
+
+    /**
+     * Encodes a keyset position as an opaque cursor.
+     */
+    public static String encode(LocalDateTime timestamp, int id) {
+        String raw = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(LocalDateTime, int)}.
+     *
+     * @param cursor the cursor, or null/blank for the first page
+     * @return the keyset position, or null when the cursor is null or blank
+     * @throws ValidationException if the cursor is malformed
+     */
+    public static Keyset decode(String cursor) {
+        if (StringUtil.isNullOrEmpty(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new ValidationException("Invalid pagination cursor");
+            }
+            return new Keyset(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.parseInt(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid pagination cursor");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.joabsonlg.sigac_api.common.util;
+
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Wrapped;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+
+/**
+ * Utility class for R2DBC connections.
+ */
+public class R2dbcUtil {
+
+    /**
+     * Unwraps a pooled or proxied connection down to the PostgreSQL driver connection,
+     * for driver features outside the SPI (LISTEN/NOTIFY, COPY).
+     *
+     * @throws IllegalStateException when the connection is not a PostgreSQL connection
+     */
+    public static PostgresqlConnection unwrapPostgres(Connection connection) {
+        Connection current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?> wrapped
+                && wrapped.unwrap() instanceof Connection inner) {
+            current = inner;
+        }
+        if (current instanceof PostgresqlConnection postgresqlConnection) {
+            return postgresqlConnection;
+        }
+        throw new IllegalStateException("A PostgreSQL connection is required");
+    }
+
+    /**
+     * Connection factory outside the pool, for long-lived connections such as LISTEN.
+     */
+    public static ConnectionFactory dedicatedConnectionFactory(R2dbcProperties properties) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate();
+        if (properties.getUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, properties.getUsername());
+        }
+        if (properties.getPassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+        }
+        return ConnectionFactories.get(options.build());
+    }
+}
@@ -104,6 +104,19 @@ public class StringUtil {
         return str.substring(0, maxLength);
     }
     
+    /**
+     * Escapes the LIKE wildcards (% and _) and the escape character itself,
+     * so the string matches literally inside a LIKE/ILIKE pattern declared with ESCAPE '\'.
+     */
+    public static String escapeLike(String str) {
+        if (str == null) {
+            return null;
+        }
+        return str.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+    
     /**
      * Masks sensitive data (e.g., email, CPF) for logging.
      */
@@ -0,0 +1,146 @@
+package io.github.joabsonlg.sigac_api.dailyRate.cache;
+
+import io.github.joabsonlg.sigac_api.dailyRate.model.DailyRate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Histórico de diárias de um veículo em arrays primitivos, ordenado por (date_time, id).
+ * As datas são guardadas em microssegundos (a precisão do TIMESTAMP do PostgreSQL) e a
+ * diária vigente em um instante é encontrada por busca binária. Imutável.
+ */
+public final class RateTimeline {
+
+    private final String vehiclePlate;
+    private final long[] instants;
+    private final double[] amounts;
+    private final long[] ids;
+
+    private RateTimeline(String vehiclePlate, long[] instants, double[] amounts, long[] ids) {
+        this.vehiclePlate = vehiclePlate;
+        this.instants = instants;
+        this.amounts = amounts;
+        this.ids = ids;
+    }
+
+    /**
+     * Monta o histórico a partir das diárias do veículo já ordenadas por (date_time, id).
+     * Diárias sem data são ignoradas, como na consulta por data ({@code date_time <= :date}).
+     *
+     * @param vehiclePlate placa do veículo
+     * @param rates diárias ordenadas
+     * @return histórico do veículo
+     */
+    public static RateTimeline of(String vehiclePlate, List<DailyRate> rates) {
+        long[] instants = new long[rates.size()];
+        double[] amounts = new double[rates.size()];
+        long[] ids = new long[rates.size()];
+        int size = 0;
+        for (DailyRate rate : rates) {
+            if (rate.dateTime() == null) {
+                continue;
+            }
+            instants[size] = toMicros(rate.dateTime());
+            amounts[size] = rate.amount() != null ? rate.amount() : Double.NaN;
+            ids[size] = rate.id() != null ? rate.id() : 0L;
+            size++;
+        }
+        return new RateTimeline(vehiclePlate,
+                Arrays.copyOf(instants, size), Arrays.copyOf(amounts, size), Arrays.copyOf(ids, size));
+    }
+
+    public String vehiclePlate() {
+        return vehiclePlate;
+    }
+
+    public int size() {
+        return instants.length;
+    }
+
+    /**
+     * Índice da diária vigente no instante: a última com data em ou antes dele.
+     *
+     * @param at instante de referência
+     * @return índice da diária, ou -1 se não houver diária até o instante
+     */
+    public int floorIndex(LocalDateTime at) {
+        return floorIndex(toMicros(at));
+    }
+
+    /**
+     * Índice da diária vigente no instante, em microssegundos desde a época.
+     *
+     * @param key instante de referência em microssegundos
+     * @return índice da diária, ou -1 se não houver diária até o instante
+     */
+    public int floorIndex(long key) {
+        int index = Arrays.binarySearch(instants, key);
+        if (index < 0) {
+            return -index - 2;
+        }
+        // Datas repetidas: vale a de maior id, como na ordenação do histórico
+        while (index + 1 < instants.length && instants[index + 1] == key) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Diária vigente no instante informado.
+     *
+     * @param at instante de referência
+     * @return diária vigente, ou null se não houver diária até o instante
+     */
+    public DailyRate rateAt(LocalDateTime at) {
+        int index = floorIndex(at);
+        return index >= 0 ? rate(index) : null;
+    }
+
+    /**
+     * Diária mais recente do histórico.
+     *
+     * @return diária mais recente, ou null se o veículo não tiver diárias
+     */
+    public DailyRate latest() {
+        return instants.length > 0 ? rate(instants.length - 1) : null;
+    }
+
+    /**
+     * Valor da diária em uma posição do histórico, sem criar objetos.
+     */
+    public double amountAt(int index) {
+        return amounts[index];
+    }
+
+    /**
+     * Data, em microssegundos desde a época, da diária em uma posição do histórico.
+     */
+    public long instantAt(int index) {
+        return instants[index];
+    }
+
+    private DailyRate rate(int index) {
+        double amount = amounts[index];
+        return new DailyRate(
+                ids[index],
+                Double.isNaN(amount) ? null : amount,
+                fromMicros(instants[index]),
+                vehiclePlate
+        );
+    }
+
+    /**
+     * Converte uma data para microssegundos desde a época, sem fuso, como no TIMESTAMP do banco.
+     */
+    public static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,210 @@
+package io.github.joabsonlg.sigac_api.dailyRate.cache;
+
+import io.github.joabsonlg.sigac_api.dailyRate.dto.RateCacheMetricsDTO;
+import io.github.joabsonlg.sigac_api.dailyRate.model.DailyRate;
+import io.github.joabsonlg.sigac_api.dailyRate.repository.DailyRateRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache em memória do histórico de diárias por placa.
+ * O histórico de um veículo é carregado por inteiro na primeira consulta e as consultas
+ * seguintes (diária vigente em uma data, diária mais recente) são resolvidas em memória.
+ * Placas ausentes em uma consulta em lote são carregadas com um único SELECT.
+ *
+ * O DailyRateHandler invalida a placa a cada escrita. Escritas feitas por outras instâncias
+ * chegam pelo PriceChangeListener (NOTIFY no commit); o TTL limita por quanto tempo um
+ * histórico desatualizado é servido se uma notificação se perder.
+ */
+@Component
+public class RateTimelineCache {
+
+    private final DailyRateRepository dailyRateRepository;
+    private final long ttlNanos;
+    private final Map<String, CachedTimeline> timelines;
+
+    // Incrementado a cada invalidação; fonte das versões abaixo
+    private final AtomicLong generation = new AtomicLong();
+    // Geração da última invalidação de cada placa, e de todas as placas
+    private final Map<String, Long> plateVersions = new ConcurrentHashMap<>();
+    private volatile long allVersion;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RateTimelineCache(DailyRateRepository dailyRateRepository,
+                             @Value("${sigac.daily-rate-cache.ttl:PT5M}") Duration ttl,
+                             @Value("${sigac.daily-rate-cache.max-plates:10000}") int maxPlates) {
+        this.dailyRateRepository = dailyRateRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.timelines = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedTimeline> eldest) {
+                if (size() > maxPlates) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Histórico de diárias de uma placa, carregado do banco se não estiver em cache.
+     *
+     * @param plate placa do veículo
+     * @return histórico, vazio se o veículo não tiver diárias
+     */
+    public Mono<RateTimeline> get(String plate) {
+        return getAll(List.of(plate)).map(loaded -> loaded.get(plate));
+    }
+
+    /**
+     * Históricos de diárias de várias placas. As placas que não estão em cache são
+     * carregadas juntas em uma única consulta.
+     *
+     * @param plates placas dos veículos
+     * @return mapa da placa para o seu histórico, com uma entrada para cada placa informada
+     */
+    public Mono<Map<String, RateTimeline>> getAll(Collection<String> plates) {
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+            Map<String, RateTimeline> result = new HashMap<>();
+            Set<String> missing = new LinkedHashSet<>();
+            for (String plate : plates) {
+                CachedTimeline cached = timelines.get(plate);
+                if (cached != null && cached.expiresAt() - now > 0) {
+                    result.put(plate, cached.timeline());
+                } else {
+                    missing.add(plate);
+                }
+            }
+            hits.add(result.size());
+            if (missing.isEmpty()) {
+                return Mono.just(result);
+            }
+            misses.add(missing.size());
+            return load(missing).map(loaded -> {
+                result.putAll(loaded);
+                return result;
+            });
+        });
+    }
+
+    /**
+     * Carrega as placas do banco. Uma placa só é guardada se a sua versão não mudou durante a
+     * carga: a invalidação de outra placa não descarta o resultado das demais.
+     */
+    private Mono<Map<String, RateTimeline>> load(Set<String> plates) {
+        Map<String, Long> loadVersions = new HashMap<>();
+        for (String plate : plates) {
+            loadVersions.put(plate, version(plate));
+        }
+        loads.increment();
+        return dailyRateRepository.findTimelinesByVehiclePlates(plates)
+                .collectList()
+                .map(rates -> {
+                    Map<String, List<DailyRate>> byPlate = new HashMap<>();
+                    for (DailyRate rate : rates) {
+                        byPlate.computeIfAbsent(rate.vehiclePlate(), plate -> new ArrayList<>()).add(rate);
+                    }
+                    Map<String, RateTimeline> loaded = new HashMap<>();
+                    long expiresAt = System.nanoTime() + ttlNanos;
+                    synchronized (timelines) {
+                        for (String plate : plates) {
+                            RateTimeline timeline = RateTimeline.of(plate, byPlate.getOrDefault(plate, List.of()));
+                            loaded.put(plate, timeline);
+                            if (version(plate) == loadVersions.get(plate)) {
+                                timelines.put(plate, new CachedTimeline(timeline, expiresAt));
+                            }
+                        }
+                    }
+                    return loaded;
+                });
+    }
+
+    /**
+     * Descarta o histórico de uma placa; a próxima consulta o recarrega do banco.
+     *
+     * @param plate placa do veículo
+     */
+    public void invalidate(String plate) {
+        synchronized (timelines) {
+            long version = generation.incrementAndGet();
+            if (plate != null) {
+                timelines.remove(plate);
+                plateVersions.put(plate, version);
+            }
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * Descarta todos os históricos em cache.
+     */
+    public void invalidateAll() {
+        synchronized (timelines) {
+            allVersion = generation.incrementAndGet();
+            timelines.clear();
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * Versão das diárias de uma placa: muda a cada invalidação da placa.
+     * Permite guardar valores calculados a partir das diárias sem servi-los após uma alteração.
+     *
+     * @param plate placa do veículo
+     * @return versão atual das diárias da placa
+     */
+    public long version(String plate) {
+        return Math.max(plateVersions.getOrDefault(plate, 0L), allVersion);
+    }
+
+    /**
+     * Métricas do cache desde a inicialização.
+     *
+     * @return acertos, falhas, cargas, invalidações e ocupação do cache
+     */
+    public RateCacheMetricsDTO metrics() {
+        long rates;
+        int plates;
+        synchronized (timelines) {
+            plates = timelines.size();
+            rates = timelines.values().stream().mapToLong(cached -> cached.timeline().size()).sum();
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return new RateCacheMetricsDTO(
+                hitCount,
+                missCount,
+                lookups > 0 ? (double) hitCount / lookups : 0.0,
+                loads.sum(),
+                invalidations.sum(),
+                evictions.sum(),
+                plates,
+                rates
+        );
+    }
+
+    private record CachedTimeline(RateTimeline timeline, long expiresAt) {}
+}
@@ -2,14 +2,22 @@ package io.github.joabsonlg.sigac_api.dailyRate.controller;
 
 import io.github.joabsonlg.sigac_api.common.base.BaseController;
 import io.github.joabsonlg.sigac_api.common.response.ApiResponse;
+import io.github.joabsonlg.sigac_api.dailyRate.dto.BulkRateImportReportDTO;
 import io.github.joabsonlg.sigac_api.dailyRate.dto.DailyRateDTO;
 import io.github.joabsonlg.sigac_api.dailyRate.dto.DailyRateInputDTO;
+import io.github.joabsonlg.sigac_api.dailyRate.dto.PlateInstant;
+import io.github.joabsonlg.sigac_api.dailyRate.dto.RateCacheMetricsDTO;
+import io.github.joabsonlg.sigac_api.dailyRate.dto.RateLookupDTO;
 import io.github.joabsonlg.sigac_api.dailyRate.handler.DailyRateHandler;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /**
  * Controller REST para gerenciamento de DailyRates.
  * Segue padrão semelhante ao VehicleController.
@@ -90,4 +98,51 @@ public class DailyRateController extends BaseController<DailyRateDTO, Integer> {
     public Mono<ResponseEntity<ApiResponse<DailyRateDTO>>> getCurrentDailyRateByVehicle(@PathVariable String plate) {
         return ok(dailyRateHandler.getMostRecentByVehiclePlate(plate));
     }
-}
\ No newline at end of file
+
+    /**
+     * Importa diárias em lote de um arquivo CSV (colunas vehicle_plate, amount, date_time,
+     * com cabeçalho opcional).
+     *
+     * @param lines linhas do arquivo
+     * @return ResponseEntity com o relatório da importação
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public Mono<ResponseEntity<ApiResponse<BulkRateImportReportDTO>>> importDailyRatesCsv(@RequestBody Flux<String> lines) {
+        return ok(dailyRateHandler.importCsv(lines));
+    }
+
+    /**
+     * Importa diárias em lote de um fluxo NDJSON, uma diária por linha.
+     * Linhas com JSON inválido são relatadas individualmente.
+     *
+     * @param lines linhas recebidas
+     * @return ResponseEntity com o relatório da importação
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<ApiResponse<BulkRateImportReportDTO>>> importDailyRatesNdjson(@RequestBody Flux<String> lines) {
+        return ok(dailyRateHandler.importNdjson(lines));
+    }
+
+    /**
+     * Consulta em lote a diária vigente de vários veículos, cada um em uma data.
+     *
+     * @param keys pares (placa, data) a consultar
+     * @return ResponseEntity com a diária vigente de cada par, na ordem informada
+     */
+    @PostMapping("/lookup")
+    public Mono<ResponseEntity<ApiResponse<List<RateLookupDTO>>>> lookupDailyRates(@RequestBody List<PlateInstant> keys) {
+        return dailyRateHandler.lookup(keys)
+                .collectList()
+                .map(list -> ResponseEntity.ok(ApiResponse.success(list)));
+    }
+
+    /**
+     * Retorna as métricas do cache de histórico de diárias.
+     *
+     * @return ResponseEntity com acertos, falhas, cargas e invalidações do cache
+     */
+    @GetMapping("/cache/metrics")
+    public Mono<ResponseEntity<ApiResponse<RateCacheMetricsDTO>>> getCacheMetrics() {
+        return ok(dailyRateHandler.getCacheMetrics());
+    }
+}
@@ -0,0 +1,9 @@
+package io.github.joabsonlg.sigac_api.dailyRate.dto;
+
+/**
+ * DTO de uma linha rejeitada na importação de diárias em lote.
+ */
+public record BulkRateErrorDTO(
+        long line,
+        String message
+) {}
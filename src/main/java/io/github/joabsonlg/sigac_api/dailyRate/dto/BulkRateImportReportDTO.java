@@ -0,0 +1,16 @@
+package io.github.joabsonlg.sigac_api.dailyRate.dto;
+
+import java.util.List;
+
+/**
+ * DTO com o resultado de uma importação de diárias em lote.
+ * Apenas os primeiros erros são listados; rejected traz o total de linhas rejeitadas.
+ */
+public record BulkRateImportReportDTO(
+        long received,
+        long imported,
+        long rejected,
+        List<BulkRateErrorDTO> errors,
+        long elapsedMillis,
+        double rowsPerSecond
+) {}
@@ -0,0 +1,14 @@
+package io.github.joabsonlg.sigac_api.dailyRate.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Par (placa, instante) usado para consultar a diária vigente de vários veículos em lote.
+ */
+public record PlateInstant(
+        String vehiclePlate,
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        LocalDateTime at
+) {}
@@ -0,0 +1,15 @@
+package io.github.joabsonlg.sigac_api.dailyRate.dto;
+
+/**
+ * DTO com as métricas do cache de histórico de diárias.
+ */
+public record RateCacheMetricsDTO(
+        long hits,
+        long misses,
+        double hitRatio,
+        long loads,
+        long invalidations,
+        long evictions,
+        int cachedPlates,
+        long cachedRates
+) {}
@@ -0,0 +1,16 @@
+package io.github.joabsonlg.sigac_api.dailyRate.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de retorno da consulta em lote: a diária vigente de um veículo em uma data.
+ * A diária é nula quando o veículo não tinha diária cadastrada até a data.
+ */
+public record RateLookupDTO(
+        String vehiclePlate,
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        LocalDateTime at,
+        DailyRateDTO rate
+) {}
@@ -1,22 +1,41 @@
 package io.github.joabsonlg.sigac_api.dailyRate.handler;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.joabsonlg.sigac_api.common.base.BaseHandler;
 import io.github.joabsonlg.sigac_api.common.exception.ResourceNotFoundException;
 import io.github.joabsonlg.sigac_api.common.exception.ValidationException;
 import io.github.joabsonlg.sigac_api.common.response.PageResponse;
+import io.github.joabsonlg.sigac_api.dailyRate.cache.RateTimeline;
+import io.github.joabsonlg.sigac_api.dailyRate.cache.RateTimelineCache;
+import io.github.joabsonlg.sigac_api.dailyRate.dto.BulkRateErrorDTO;
+import io.github.joabsonlg.sigac_api.dailyRate.dto.BulkRateImportReportDTO;
 import io.github.joabsonlg.sigac_api.dailyRate.dto.DailyRateDTO;
 import io.github.joabsonlg.sigac_api.dailyRate.dto.DailyRateInputDTO;
+import io.github.joabsonlg.sigac_api.dailyRate.dto.PlateInstant;
+import io.github.joabsonlg.sigac_api.dailyRate.dto.RateCacheMetricsDTO;
+import io.github.joabsonlg.sigac_api.dailyRate.dto.RateLookupDTO;
 import io.github.joabsonlg.sigac_api.dailyRate.model.DailyRate;
 import io.github.joabsonlg.sigac_api.dailyRate.repository.DailyRateRepository;
 import io.github.joabsonlg.sigac_api.dailyRate.validator.DailyRateValidator;
 import io.github.joabsonlg.sigac_api.vehicle.repository.VehicleRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-
-import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Handler responsável pela lógica de negócio da entidade DailyRate.
@@ -24,14 +43,28 @@ import java.time.LocalDateTime;
 @Service
 public class DailyRateHandler extends BaseHandler<DailyRate, DailyRateDTO, Integer> {
 
+    private static final int MAX_LOOKUP_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
     private final DailyRateRepository dailyRateRepository;
     private final DailyRateValidator dailyRateValidator;
     private final VehicleRepository vehicleRepository;
+    private final RateTimelineCache rateTimelineCache;
+    private final TransactionalOperator transactionalOperator;
+    private final ObjectMapper objectMapper;
+    private final int importChunkSize;
 
-    public DailyRateHandler(DailyRateRepository dailyRateRepository, DailyRateValidator dailyRateValidator, VehicleRepository vehicleRepository) {
+    public DailyRateHandler(DailyRateRepository dailyRateRepository, DailyRateValidator dailyRateValidator,
+                            VehicleRepository vehicleRepository, RateTimelineCache rateTimelineCache,
+                            TransactionalOperator transactionalOperator, ObjectMapper objectMapper,
+                            @Value("${sigac.daily-rate-import.chunk-size:5000}") int importChunkSize) {
         this.dailyRateRepository = dailyRateRepository;
         this.dailyRateValidator = dailyRateValidator;
         this.vehicleRepository = vehicleRepository;
+        this.rateTimelineCache = rateTimelineCache;
+        this.transactionalOperator = transactionalOperator;
+        this.objectMapper = objectMapper;
+        this.importChunkSize = importChunkSize;
     }
 
     @Override
@@ -78,7 +111,8 @@ public class DailyRateHandler extends BaseHandler<DailyRate, DailyRateDTO, Integ
                         return Mono.error(new ValidationException("Veículo com placa " + dto.vehiclePlate() + " não cadastrado."));
                     }
                     DailyRate dailyRate = new DailyRate(null, dto.amount(), dto.dateTime(), dto.vehiclePlate());
-                    return dailyRateRepository.save(dailyRate);
+                    return dailyRateRepository.save(dailyRate)
+                            .doOnSuccess(saved -> rateTimelineCache.invalidate(dto.vehiclePlate()));
                 })
                 .map(this::toDto);
     }
@@ -99,7 +133,11 @@ public class DailyRateHandler extends BaseHandler<DailyRate, DailyRateDTO, Integ
                                         dto.dateTime() != null ? dto.dateTime() : existing.dateTime(),
                                         dto.vehiclePlate() != null ? dto.vehiclePlate() : existing.vehiclePlate()
                                 );
-                                return dailyRateRepository.update(updated);
+                                return dailyRateRepository.update(updated)
+                                        .doOnSuccess(saved -> {
+                                            rateTimelineCache.invalidate(existing.vehiclePlate());
+                                            rateTimelineCache.invalidate(updated.vehiclePlate());
+                                        });
                             });
                 })
                 .map(this::toDto);
@@ -108,7 +146,8 @@ public class DailyRateHandler extends BaseHandler<DailyRate, DailyRateDTO, Integ
     public Mono<Void> delete(Long id) {
         return dailyRateRepository.findById(id)
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("Diária", id)))
-                .flatMap(existing -> dailyRateRepository.deleteById(String.valueOf(existing.id())));
+                .flatMap(existing -> dailyRateRepository.deleteById(String.valueOf(existing.id()))
+                        .doOnSuccess(deleted -> rateTimelineCache.invalidate(existing.vehiclePlate())));
     }
     /**
      * Busca todas as diárias de um veículo.
@@ -130,21 +169,341 @@ public class DailyRateHandler extends BaseHandler<DailyRate, DailyRateDTO, Integ
      */
     public Mono<DailyRateDTO> getMostRecentByVehiclePlate(String plate) {
         return dailyRateValidator.validatePlate(plate)
-                .flatMap(validPlate -> dailyRateRepository.findMostRecentByVehiclePlate(validPlate)
-                        .map(this::toDto));
+                .flatMap(rateTimelineCache::get)
+                .flatMap(timeline -> Mono.justOrEmpty(timeline.latest()))
+                .map(this::toDto);
     }
 
     /**
-     * Busca a diária mais recente de um veículo em ou antes de uma data específica.
+     * Busca a diária vigente para cada par (placa, data) em uma única chamada.
+     * Os pares são resolvidos no cache de histórico; as placas fora do cache são carregadas
+     * juntas em uma única consulta. Pares sem diária cadastrada até a data não aparecem no mapa.
+     *
+     * @param keys pares (placa, data) a consultar
+     * @return mapa do par consultado para a diária vigente
+     */
+    public Mono<Map<PlateInstant, DailyRateDTO>> getRatesAt(Collection<PlateInstant> keys) {
+        if (keys.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        Set<String> plates = new LinkedHashSet<>();
+        keys.forEach(key -> plates.add(key.vehiclePlate()));
+        return rateTimelineCache.getAll(plates)
+                .map(timelines -> {
+                    Map<PlateInstant, DailyRateDTO> rates = new HashMap<>();
+                    for (PlateInstant key : keys) {
+                        RateTimeline timeline = timelines.get(key.vehiclePlate());
+                        DailyRate rate = timeline != null ? timeline.rateAt(key.at()) : null;
+                        if (rate != null) {
+                            rates.put(key, toDto(rate));
+                        }
+                    }
+                    return rates;
+                });
+    }
+
+    /**
+     * Histórico de diárias de cada veículo informado, a partir do cache.
+     * Usado pelo cálculo de valores, que percorre as diárias vigentes ao longo do período.
+     *
+     * @param plates placas dos veículos
+     * @return mapa da placa para o histórico, vazio para veículos sem diárias
+     */
+    public Mono<Map<String, RateTimeline>> getRateTimelines(Collection<String> plates) {
+        if (plates.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return rateTimelineCache.getAll(plates);
+    }
+
+    /**
+     * Versão das diárias de um veículo, alterada a cada criação, atualização ou remoção de diária,
+     * feita por esta ou por outra instância (via PriceChangeListener).
      *
      * @param plate placa do veículo
-     * @param date data de referência
-     * @return diária mais recente na data
+     * @return versão atual das diárias do veículo
      */
-    public Mono<DailyRateDTO> getDailyRateForReservation(String plate, LocalDateTime date) {
-        return dailyRateValidator.validatePlate(plate)
-                .flatMap(validPlate -> dailyRateRepository.findDailyRateByVehiclePlateAndDate(validPlate, date)
-                        .map(this::toDto));
+    public long getRateVersion(String plate) {
+        return rateTimelineCache.version(plate);
+    }
+
+    /**
+     * Consulta em lote da diária vigente, mantendo a ordem dos pares informados.
+     *
+     * @param keys pares (placa, data) a consultar
+     * @return um resultado por par, com a diária vigente ou sem diária quando não houver
+     */
+    public Flux<RateLookupDTO> lookup(List<PlateInstant> keys) {
+        return Mono.defer(() -> {
+                    if (keys == null || keys.isEmpty()) {
+                        return Mono.error(new ValidationException("Informe ao menos um par (placa, data) para consulta."));
+                    }
+                    if (keys.size() > MAX_LOOKUP_SIZE) {
+                        return Mono.error(new ValidationException(
+                                "A consulta em lote aceita no máximo " + MAX_LOOKUP_SIZE + " pares."));
+                    }
+                    for (PlateInstant key : keys) {
+                        if (key == null || key.vehiclePlate() == null || key.vehiclePlate().isBlank() || key.at() == null) {
+                            return Mono.error(new ValidationException("Cada par deve informar a placa e a data."));
+                        }
+                    }
+                    return getRatesAt(keys);
+                })
+                .flatMapMany(rates -> Flux.fromIterable(keys)
+                        .map(key -> new RateLookupDTO(key.vehiclePlate(), key.at(), rates.get(key))));
+    }
+
+    /**
+     * Importa diárias de um arquivo CSV com as colunas vehicle_plate, amount e date_time.
+     * Um cabeçalho opcional na primeira linha define a ordem das colunas.
+     *
+     * @param lines linhas do arquivo
+     * @return relatório da importação
+     */
+    public Mono<BulkRateImportReportDTO> importCsv(Flux<String> lines) {
+        return importRows(Flux.defer(() -> {
+            CsvLayout layout = new CsvLayout();
+            return lines.index()
+                    .filter(line -> !line.getT2().isBlank())
+                    .filter(line -> !layout.readHeader(line.getT1(), line.getT2()))
+                    .map(line -> layout.parse(line.getT1() + 1, line.getT2()));
+        }));
+    }
+
+    /**
+     * Importa diárias de um fluxo NDJSON, um DailyRateInputDTO por linha.
+     * Cada linha é lida separadamente: uma linha que não é um JSON válido é rejeitada e
+     * relatada com o seu número, sem interromper a importação.
+     *
+     * @param lines linhas recebidas
+     * @return relatório da importação
+     */
+    public Mono<BulkRateImportReportDTO> importNdjson(Flux<String> lines) {
+        return importRows(lines.index()
+                .filter(line -> !line.getT2().isBlank())
+                .map(line -> parseNdjson(line.getT1() + 1, line.getT2())));
+    }
+
+    private BulkRateRow parseNdjson(long line, String text) {
+        try {
+            return new BulkRateRow(line, objectMapper.readValue(text, DailyRateInputDTO.class), null);
+        } catch (JsonProcessingException e) {
+            return new BulkRateRow(line, null, "JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Importa as linhas em blocos, cada bloco em sua própria transação: o bloco valida as
+     * placas ainda não vistas com uma consulta e grava as diárias válidas com COPY. Linhas
+     * inválidas são rejeitadas e relatadas, sem interromper a importação. Se um bloco falhar,
+     * os blocos anteriores permanecem gravados.
+     */
+    private Mono<BulkRateImportReportDTO> importRows(Flux<BulkRateRow> rows) {
+        return Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            BulkImport progress = new BulkImport();
+            return rows.buffer(importChunkSize)
+                    .concatMap(chunk -> transactionalOperator.transactional(importChunk(chunk, progress))
+                            .doOnNext(plates -> plates.forEach(rateTimelineCache::invalidate)))
+                    .then(Mono.fromCallable(() -> {
+                        long elapsedNanos = Math.max(1L, System.nanoTime() - startedAt);
+                        return new BulkRateImportReportDTO(
+                                progress.received,
+                                progress.imported,
+                                progress.rejected,
+                                progress.errors,
+                                elapsedNanos / 1_000_000L,
+                                progress.imported * 1_000_000_000.0 / elapsedNanos
+                        );
+                    }));
+        });
+    }
+
+    /**
+     * Grava um bloco.
+     *
+     * @return placas com diárias gravadas no bloco
+     */
+    private Mono<Set<String>> importChunk(List<BulkRateRow> chunk, BulkImport progress) {
+        progress.received += chunk.size();
+        List<BulkRateRow> candidates = new ArrayList<>(chunk.size());
+        Set<String> unseenPlates = new LinkedHashSet<>();
+        for (BulkRateRow row : chunk) {
+            String error = row.error() != null ? row.error() : dailyRateValidator.checkDailyRate(row.rate());
+            if (error != null) {
+                progress.reject(row.line(), error);
+                continue;
+            }
+            candidates.add(row);
+            if (!progress.knownPlates.contains(row.rate().vehiclePlate())
+                    && !progress.unknownPlates.contains(row.rate().vehiclePlate())) {
+                unseenPlates.add(row.rate().vehiclePlate());
+            }
+        }
+
+        Mono<Void> checkPlates = unseenPlates.isEmpty()
+                ? Mono.empty()
+                : vehicleRepository.findExistingPlates(unseenPlates)
+                        .collectList()
+                        .doOnNext(existing -> {
+                            progress.knownPlates.addAll(existing);
+                            unseenPlates.removeAll(existing);
+                            progress.unknownPlates.addAll(unseenPlates);
+                        })
+                        .then();
+
+        return checkPlates.then(Mono.defer(() -> {
+            List<DailyRate> valid = new ArrayList<>(candidates.size());
+            Set<String> plates = new HashSet<>();
+            for (BulkRateRow row : candidates) {
+                DailyRateInputDTO rate = row.rate();
+                if (!progress.knownPlates.contains(rate.vehiclePlate())) {
+                    progress.reject(row.line(), "Veículo com placa " + rate.vehiclePlate() + " não cadastrado.");
+                    continue;
+                }
+                valid.add(new DailyRate(null, rate.amount(), rate.dateTime(), rate.vehiclePlate()));
+                plates.add(rate.vehiclePlate());
+            }
+            return dailyRateRepository.copyIn(valid)
+                    .doOnNext(count -> progress.imported += count)
+                    .thenReturn(plates);
+        }));
+    }
+
+    /**
+     * Linha recebida na importação em lote: a diária lida, ou o erro de leitura.
+     */
+    private record BulkRateRow(long line, DailyRateInputDTO rate, String error) {}
+
+    /**
+     * Estado de uma importação em lote. Os blocos são processados em sequência.
+     */
+    private static final class BulkImport {
+        private final Set<String> knownPlates = new HashSet<>();
+        private final Set<String> unknownPlates = new HashSet<>();
+        private final List<BulkRateErrorDTO> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long rejected;
+
+        private void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BulkRateErrorDTO(line, message));
+            }
+        }
+    }
+
+    /**
+     * Ordem das colunas do CSV, definida pelo cabeçalho quando houver.
+     */
+    private static final class CsvLayout {
+        private int plateColumn = 0;
+        private int amountColumn = 1;
+        private int dateColumn = 2;
+
+        /**
+         * Lê a primeira linha como cabeçalho se ela nomear as colunas.
+         *
+         * @return true se a linha era o cabeçalho
+         */
+        private boolean readHeader(long index, String line) {
+            if (index != 0) {
+                return false;
+            }
+            String[] names = split(line);
+            int plate = -1;
+            int amount = -1;
+            int date = -1;
+            for (int i = 0; i < names.length; i++) {
+                switch (names[i].toLowerCase().replace("_", "")) {
+                    case "vehicleplate", "plate", "placa" -> plate = i;
+                    case "amount", "valor" -> amount = i;
+                    case "datetime", "date", "data" -> date = i;
+                    default -> { }
+                }
+            }
+            if (plate < 0 && amount < 0 && date < 0) {
+                return false;
+            }
+            plateColumn = plate;
+            amountColumn = amount;
+            dateColumn = date;
+            return true;
+        }
+
+        private BulkRateRow parse(long line, String text) {
+            String[] values = split(text);
+            try {
+                String plate = column(values, plateColumn);
+                String amount = column(values, amountColumn);
+                String date = column(values, dateColumn);
+                return new BulkRateRow(line, new DailyRateInputDTO(
+                        amount != null ? Double.valueOf(amount) : null,
+                        date != null ? parseDateTime(date) : null,
+                        plate
+                ), null);
+            } catch (NumberFormatException e) {
+                return new BulkRateRow(line, null, "Valor da diária inválido");
+            } catch (DateTimeParseException e) {
+                return new BulkRateRow(line, null, "Data da diária inválida. Ex: 2025-01-31T10:00:00");
+            }
+        }
+
+        /**
+         * Separa os campos de uma linha, sem espaços nas pontas. Campos entre aspas podem conter
+         * vírgulas e aspas duplicadas ("").
+         */
+        private static String[] split(String line) {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        value.append(c);
+                    } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == ',') {
+                    values.add(value.toString().trim());
+                    value.setLength(0);
+                    wasQuoted = false;
+                } else if (c == '"' && value.toString().isBlank()) {
+                    value.setLength(0);
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (!wasQuoted) {
+                    value.append(c);
+                }
+            }
+            values.add(value.toString().trim());
+            return values.toArray(String[]::new);
+        }
+
+        private static String column(String[] values, int index) {
+            return index >= 0 && index < values.length && !values[index].isEmpty() ? values[index] : null;
+        }
+
+        private static LocalDateTime parseDateTime(String value) {
+            return value.length() == 10
+                    ? LocalDate.parse(value).atStartOfDay()
+                    : LocalDateTime.parse(value.replace(' ', 'T'));
+        }
+    }
+
+    /**
+     * Métricas do cache de histórico de diárias.
+     *
+     * @return acertos, falhas, cargas e invalidações desde a inicialização
+     */
+    public Mono<RateCacheMetricsDTO> getCacheMetrics() {
+        return Mono.fromSupplier(rateTimelineCache::metrics);
     }
 
-}
\ No newline at end of file
+}
@@ -1,13 +1,18 @@
 package io.github.joabsonlg.sigac_api.dailyRate.repository;
 
 import io.github.joabsonlg.sigac_api.common.base.BaseRepository;
+import io.github.joabsonlg.sigac_api.common.util.R2dbcUtil;
 import io.github.joabsonlg.sigac_api.dailyRate.model.DailyRate;
+import io.netty.buffer.Unpooled;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import static org.apache.commons.lang3.CharSetUtils.count;
@@ -176,46 +181,57 @@ public class DailyRateRepository extends BaseRepository<DailyRate, String> {
     }
 
     /**
-     * Retorna a diária mais recente de um veículo.
+     * Insere diárias em lote com COPY ... FROM STDIN, na conexão (e transação) corrente.
+     *
+     * @return quantidade de diárias inseridas
      */
-    public Mono<DailyRate> findMostRecentByVehiclePlate(String plate) {
-        return databaseClient.sql("""
-            SELECT id, amount, date_time, vehicle_plate
-            FROM daily_rate
-            WHERE vehicle_plate = :plate
-            ORDER BY date_time DESC
-            LIMIT 1
-        """)
-                .bind("plate", plate)
-                .map((row, metadata) -> new DailyRate(
-                        row.get("id", Long.class),
-                        row.get("amount", Double.class),
-                        row.get("date_time", LocalDateTime.class),
-                        row.get("vehicle_plate", String.class)
-                ))
-                .one();
+    public Mono<Long> copyIn(List<DailyRate> rates) {
+        if (rates.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return databaseClient.inConnection(connection -> R2dbcUtil.unwrapPostgres(connection)
+                .copyIn("COPY daily_rate (amount, date_time, vehicle_plate) FROM STDIN",
+                        Mono.fromSupplier(() -> Unpooled.wrappedBuffer(toCopyText(rates).getBytes(StandardCharsets.UTF_8)))));
     }
 
     /**
-     * Retorna a diária mais recente de um veículo em ou antes de uma data específica.
+     * Linhas no formato texto do COPY: campos separados por tabulação, \N para nulo.
      */
-    public Mono<DailyRate> findDailyRateByVehiclePlateAndDate(String plate, LocalDateTime date) {
+    private static String toCopyText(List<DailyRate> rates) {
+        StringBuilder text = new StringBuilder(rates.size() * 48);
+        for (DailyRate rate : rates) {
+            text.append(rate.amount() != null ? rate.amount().toString() : "\\N").append('\t')
+                .append(rate.dateTime() != null ? rate.dateTime().toString() : "\\N").append('\t')
+                .append(rate.vehiclePlate() != null ? escapeCopy(rate.vehiclePlate()) : "\\N").append('\n');
+        }
+        return text.toString();
+    }
+
+    private static String escapeCopy(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("\t", "\\t")
+                .replace("\n", "\\n")
+                .replace("\r", "\\r");
+    }
+
+    /**
+     * Retorna o histórico completo de diárias dos veículos informados, ordenado por placa, data e id.
+     */
+    public Flux<DailyRate> findTimelinesByVehiclePlates(Collection<String> plates) {
         return databaseClient.sql("""
             SELECT id, amount, date_time, vehicle_plate
             FROM daily_rate
-            WHERE vehicle_plate = :plate AND date_time <= :date
-            ORDER BY date_time DESC
-            LIMIT 1
+            WHERE vehicle_plate = ANY(CAST(:plates AS VARCHAR[]))
+            ORDER BY vehicle_plate, date_time, id
         """)
-                .bind("plate", plate)
-                .bind("date", date)
+                .bind("plates", plates.toArray(String[]::new))
                 .map((row, metadata) -> new DailyRate(
                         row.get("id", Long.class),
                         row.get("amount", Double.class),
                         row.get("date_time", LocalDateTime.class),
                         row.get("vehicle_plate", String.class)
                 ))
-                .one();
+                .all();
     }
 
     public Mono<Boolean> existsByVehiclePlate(String plate) {
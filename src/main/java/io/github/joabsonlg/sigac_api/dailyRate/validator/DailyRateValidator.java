@@ -18,23 +18,35 @@ public class DailyRateValidator {
      */
     public Mono<Void> validateDailyRate(DailyRateInputDTO dto) {
         return Mono.fromRunnable(() -> {
-
-            if (dto.amount() == null || dto.amount() < 0) {
-                throw new ValidationException("O valor da diária deve ser informado e ser maior ou igual a zero");
+            String error = checkDailyRate(dto);
+            if (error != null) {
+                throw new ValidationException(error);
             }
+        });
+    }
 
-            if (dto.dateTime() == null) {
-                throw new ValidationException("A data e hora da diária são obrigatórias");
-            }
+    /**
+     * Verifica os dados de uma diária sem lançar exceção; usado na importação em lote.
+     *
+     * @return mensagem do primeiro erro encontrado, ou null se a diária for válida
+     */
+    public String checkDailyRate(DailyRateInputDTO dto) {
+        if (dto.amount() == null || dto.amount() < 0) {
+            return "O valor da diária deve ser informado e ser maior ou igual a zero";
+        }
 
-            if (dto.dateTime().isAfter(LocalDateTime.now())) {
-                throw new ValidationException("A data da diária não pode ser no futuro");
-            }
+        if (dto.dateTime() == null) {
+            return "A data e hora da diária são obrigatórias";
+        }
 
-            if (isNullOrEmpty(dto.vehiclePlate())) {
-                throw new ValidationException("A placa do veículo é obrigatória");
-            }
-        });
+        if (dto.dateTime().isAfter(LocalDateTime.now())) {
+            return "A data da diária não pode ser no futuro";
+        }
+
+        if (isNullOrEmpty(dto.vehiclePlate())) {
+            return "A placa do veículo é obrigatória";
+        }
+        return null;
     }
 
     /**
@@ -0,0 +1,69 @@
+package io.github.joabsonlg.sigac_api.event.controller;
+
+import io.github.joabsonlg.sigac_api.common.base.BaseController;
+import io.github.joabsonlg.sigac_api.common.response.ApiResponse;
+import io.github.joabsonlg.sigac_api.event.dto.DomainEventDTO;
+import io.github.joabsonlg.sigac_api.event.dto.OutboxStatsDTO;
+import io.github.joabsonlg.sigac_api.event.enumeration.DomainEventType;
+import io.github.joabsonlg.sigac_api.event.handler.OutboxRelay;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * REST controller for the domain event feed and outbox relay metrics.
+ */
+@RestController
+@RequestMapping("/api/events")
+@Tag(name = "Event", description = "Domain event feed and outbox relay metrics")
+public class EventController extends BaseController<DomainEventDTO, Long> {
+
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
+    private final OutboxRelay outboxRelay;
+
+    public EventController(OutboxRelay outboxRelay) {
+        this.outboxRelay = outboxRelay;
+    }
+
+    /**
+     * Streams domain events as they are relayed from the outbox.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream domain events", description = "Streams reservation, payment and vehicle events as text/event-stream, " +
+            "optionally filtered by type. The event id is the outbox sequence; a comment is sent every 15 seconds to keep the connection open")
+    public Flux<ServerSentEvent<DomainEventDTO>> stream(
+            @Parameter(description = "Event types to receive (all when omitted)")
+            @RequestParam(required = false) Set<DomainEventType> types) {
+        Flux<ServerSentEvent<DomainEventDTO>> events = outboxRelay.events()
+                .filter(event -> types == null || types.isEmpty() || types.contains(event.type()))
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(String.valueOf(event.id()))
+                        .event(event.type().name())
+                        .build());
+        Flux<ServerSentEvent<DomainEventDTO>> heartbeat = Flux.interval(HEARTBEAT_INTERVAL)
+                .map(tick -> ServerSentEvent.<DomainEventDTO>builder().comment("heartbeat").build());
+        return Flux.merge(events, heartbeat);
+    }
+
+    /**
+     * Gets outbox relay throughput.
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "Get outbox relay statistics", description = "Returns the outbox backlog and the events delivered, failed and dead-lettered since startup, with delivery lag")
+    public Mono<ResponseEntity<ApiResponse<OutboxStatsDTO>>> getStats() {
+        return ok(outboxRelay.getStats());
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.joabsonlg.sigac_api.event.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.github.joabsonlg.sigac_api.event.enumeration.DomainEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain event as sent on the event feed; the payload is embedded as JSON.
+ */
+public record DomainEventDTO(
+    Long id,
+    DomainEventType type,
+    String aggregateType,
+    String aggregateId,
+    @JsonRawValue String payload,
+    LocalDateTime createdAt
+) {}
@@ -0,0 +1,29 @@
+package io.github.joabsonlg.sigac_api.event.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Throughput of the outbox relay since startup.
+ *
+ * @param pending          events waiting to be delivered
+ * @param published        events delivered to every listener
+ * @param failedAttempts   delivery attempts where a listener failed
+ * @param deadLettered     events given up after the maximum number of attempts
+ * @param publishedByType  delivered events per event type
+ * @param averageLagMillis average time between an event being written and delivered
+ * @param maxLagMillis     longest time between an event being written and delivered
+ * @param subscribers      clients currently connected to the event feed
+ * @param lastRelayAt      when the relay last delivered a batch
+ */
+public record OutboxStatsDTO(
+    long pending,
+    long published,
+    long failedAttempts,
+    long deadLettered,
+    Map<String, Long> publishedByType,
+    double averageLagMillis,
+    long maxLagMillis,
+    int subscribers,
+    LocalDateTime lastRelayAt
+) {}
@@ -0,0 +1,22 @@
+package io.github.joabsonlg.sigac_api.event.enumeration;
+
+/**
+ * Types of domain events written to the outbox, with the aggregate each one belongs to.
+ */
+public enum DomainEventType {
+    RESERVATION_CREATED("reservation"),
+    RESERVATION_STATUS_CHANGED("reservation"),
+    PAYMENT_CREATED("payment"),
+    PAYMENT_STATUS_CHANGED("payment"),
+    VEHICLE_STATUS_CHANGED("vehicle");
+
+    private final String aggregateType;
+
+    DomainEventType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+}
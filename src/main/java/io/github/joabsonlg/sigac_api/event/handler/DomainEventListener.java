@@ -0,0 +1,23 @@
+package io.github.joabsonlg.sigac_api.event.handler;
+
+import io.github.joabsonlg.sigac_api.event.enumeration.DomainEventType;
+import io.github.joabsonlg.sigac_api.event.model.DomainEvent;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-process subscriber of the outbox relay.
+ * Delivery is at least once, so onEvent must be idempotent; a failed delivery is retried
+ * after the relay lease expires, up to the configured number of attempts.
+ */
+public interface DomainEventListener {
+
+    /**
+     * Whether this listener handles events of the given type
+     */
+    boolean supports(DomainEventType type);
+
+    /**
+     * Applies the side effect of an event
+     */
+    Mono<Void> onEvent(DomainEvent event);
+}
@@ -0,0 +1,79 @@
+package io.github.joabsonlg.sigac_api.event.handler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.joabsonlg.sigac_api.event.enumeration.DomainEventType;
+import io.github.joabsonlg.sigac_api.event.model.DomainEvent;
+import io.github.joabsonlg.sigac_api.event.repository.OutboxRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes domain events to the transactional outbox.
+ * Call it inside the transaction of the change the event describes: the event is then
+ * committed together with the change and delivered later by OutboxRelay.
+ */
+@Service
+public class OutboxHandler {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxHandler(OutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Appends one event
+     */
+    public Mono<Void> append(DomainEventType type, Object aggregateId, Map<String, Object> payload) {
+        return Mono.fromCallable(() -> event(type, aggregateId, payload))
+                .flatMap(event -> outboxRepository.appendAll(List.of(event)));
+    }
+
+    /**
+     * Appends several events with a single insert
+     */
+    public Mono<Void> appendAll(List<DomainEvent> events) {
+        return outboxRepository.appendAll(events);
+    }
+
+    /**
+     * Builds an event, serializing its payload to JSON
+     */
+    public DomainEvent event(DomainEventType type, Object aggregateId, Map<String, Object> payload) {
+        try {
+            return new DomainEvent(type, String.valueOf(aggregateId), objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize " + type + " event payload", e);
+        }
+    }
+
+    /**
+     * Parses the payload of an event
+     */
+    public JsonNode readPayload(DomainEvent event) {
+        try {
+            return objectMapper.readTree(event.payload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed payload in outbox event " + event.id(), e);
+        }
+    }
+
+    /**
+     * Builds a payload from alternating keys and values; null values are kept
+     */
+    public static Map<String, Object> payload(Object... keysAndValues) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keysAndValues.length; i += 2) {
+            payload.put(String.valueOf(keysAndValues[i]), keysAndValues[i + 1]);
+        }
+        return payload;
+    }
+}
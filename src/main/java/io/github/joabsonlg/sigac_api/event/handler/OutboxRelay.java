@@ -0,0 +1,203 @@
+package io.github.joabsonlg.sigac_api.event.handler;
+
+import io.github.joabsonlg.sigac_api.event.dto.DomainEventDTO;
+import io.github.joabsonlg.sigac_api.event.dto.OutboxStatsDTO;
+import io.github.joabsonlg.sigac_api.event.enumeration.DomainEventType;
+import io.github.joabsonlg.sigac_api.event.model.DomainEvent;
+import io.github.joabsonlg.sigac_api.event.repository.OutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers outbox events to the in-process DomainEventListener beans and to the event feed.
+ * Each poll leases batches of undelivered events (so several instances can relay concurrently
+ * without delivering the same event twice), dispatches them in outbox order and marks the
+ * delivered ones as published with one update per batch. Events of the same aggregate are
+ * delivered in order: an event is not leased while an earlier one of its aggregate is undelivered.
+ * An event whose listener fails is left unpublished and retried once its lease expires;
+ * after the maximum number of attempts it is dead-lettered and kept for inspection.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxRepository outboxRepository;
+    private final List<DomainEventListener> listeners;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration retention;
+    private final Sinks.Many<DomainEventDTO> feed = Sinks.many().multicast().directBestEffort();
+    private final Map<DomainEventType, LongAdder> publishedByType = new EnumMap<>(DomainEventType.class);
+    private final LongAdder failedAttempts = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder totalLagMillis = new LongAdder();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+    private final AtomicReference<LocalDateTime> lastRelayAt = new AtomicReference<>();
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       List<DomainEventListener> listeners,
+                       @Value("${sigac.outbox.batch-size:200}") int batchSize,
+                       @Value("${sigac.outbox.lease:PT30S}") Duration lease,
+                       @Value("${sigac.outbox.max-attempts:5}") int maxAttempts,
+                       @Value("${sigac.outbox.retention:PT24H}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.listeners = listeners;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+        for (DomainEventType type : DomainEventType.values()) {
+            publishedByType.put(type, new LongAdder());
+        }
+    }
+
+    /**
+     * Live feed of delivered events. Slow subscribers miss events instead of holding the relay back.
+     */
+    public Flux<DomainEventDTO> events() {
+        return feed.asFlux();
+    }
+
+    /**
+     * Relays every undelivered event, batch after batch, until a batch comes back short.
+     */
+    @Scheduled(fixedDelayString = "${sigac.outbox.poll-interval:PT1S}",
+               initialDelayString = "${sigac.outbox.poll-interval:PT1S}")
+    public Mono<Void> relay() {
+        return relayBatch()
+                .expand(count -> count == batchSize ? relayBatch() : Mono.empty())
+                .then()
+                .onErrorResume(error -> {
+                    logger.warn("Outbox relay failed: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Integer> relayBatch() {
+        return outboxRepository.lease(lease, batchSize)
+                .collectList()
+                .flatMap(batch -> {
+                    if (batch.isEmpty()) {
+                        return Mono.just(0);
+                    }
+                    List<Long> delivered = new ArrayList<>(batch.size());
+                    return Flux.fromIterable(batch)
+                            .concatMap(event -> deliver(event)
+                                    .then(Mono.fromRunnable(() -> delivered.add(event.id())))
+                                    .onErrorResume(error -> fail(event, error)))
+                            .then(Mono.defer(() -> {
+                                LocalDateTime publishedAt = LocalDateTime.now();
+                                return outboxRepository.markPublished(delivered, publishedAt)
+                                        .then(Mono.fromRunnable(() -> recordPublished(batch, delivered, publishedAt)));
+                            }))
+                            .thenReturn(batch.size());
+                });
+    }
+
+    private Mono<Void> deliver(DomainEvent event) {
+        return Flux.fromIterable(listeners)
+                .filter(listener -> listener.supports(event.type()))
+                .concatMap(listener -> listener.onEvent(event))
+                .then();
+    }
+
+    private Mono<Void> fail(DomainEvent event, Throwable error) {
+        failedAttempts.increment();
+        boolean deadLetter = event.attempts() >= maxAttempts;
+        if (deadLetter) {
+            deadLettered.increment();
+            logger.error("Outbox event {} ({}) dead-lettered after {} attempts: {}",
+                    event.id(), event.type(), event.attempts(), error.getMessage());
+        } else {
+            logger.warn("Outbox event {} ({}) failed on attempt {}: {}",
+                    event.id(), event.type(), event.attempts(), error.getMessage());
+        }
+        return outboxRepository.markFailed(event.id(), error.getMessage(), deadLetter, LocalDateTime.now());
+    }
+
+    private void recordPublished(List<DomainEvent> batch, List<Long> delivered, LocalDateTime publishedAt) {
+        lastRelayAt.set(publishedAt);
+        int next = 0;
+        for (DomainEvent event : batch) {
+            if (next >= delivered.size() || !delivered.get(next).equals(event.id())) {
+                continue;
+            }
+            next++;
+            publishedByType.get(event.type()).increment();
+            if (event.createdAt() != null) {
+                long lag = Math.max(0, Duration.between(event.createdAt(), publishedAt).toMillis());
+                totalLagMillis.add(lag);
+                maxLagMillis.accumulateAndGet(lag, Math::max);
+            }
+            feed.tryEmitNext(new DomainEventDTO(
+                event.id(),
+                event.type(),
+                event.type().getAggregateType(),
+                event.aggregateId(),
+                event.payload(),
+                event.createdAt()
+            ));
+        }
+    }
+
+    /**
+     * Relay throughput since startup, with the current backlog
+     */
+    public Mono<OutboxStatsDTO> getStats() {
+        return outboxRepository.countPending()
+                .map(pending -> {
+                    Map<String, Long> byType = new LinkedHashMap<>();
+                    long published = 0;
+                    for (Map.Entry<DomainEventType, LongAdder> entry : publishedByType.entrySet()) {
+                        long count = entry.getValue().sum();
+                        byType.put(entry.getKey().name(), count);
+                        published += count;
+                    }
+                    return new OutboxStatsDTO(
+                        pending,
+                        published,
+                        failedAttempts.sum(),
+                        deadLettered.sum(),
+                        byType,
+                        published > 0 ? (double) totalLagMillis.sum() / published : 0.0,
+                        maxLagMillis.get(),
+                        feed.currentSubscriberCount(),
+                        lastRelayAt.get()
+                    );
+                });
+    }
+
+    /**
+     * Purges the events published longer ago than the retention period
+     */
+    @Scheduled(fixedDelayString = "${sigac.outbox.purge-interval:PT1H}",
+               initialDelayString = "${sigac.outbox.purge-interval:PT1H}")
+    public Mono<Void> purgePublished() {
+        return outboxRepository.deletePublishedBefore(LocalDateTime.now().minus(retention))
+                .doOnNext(count -> logger.debug("Purged {} published outbox events", count))
+                .then()
+                .onErrorResume(error -> {
+                    logger.warn("Could not purge outbox events: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.joabsonlg.sigac_api.event.model;
+
+import io.github.joabsonlg.sigac_api.event.enumeration.DomainEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain event stored in the event_outbox table.
+ *
+ * @param id        outbox sequence, null until the event is appended
+ * @param payload   JSON document describing the change
+ * @param attempts  delivery attempts made so far
+ */
+public record DomainEvent(
+    Long id,
+    DomainEventType type,
+    String aggregateId,
+    String payload,
+    LocalDateTime createdAt,
+    int attempts
+) {
+    public DomainEvent(DomainEventType type, String aggregateId, String payload) {
+        this(null, type, aggregateId, payload, null, 0);
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.joabsonlg.sigac_api.event.repository;
+
+import io.github.joabsonlg.sigac_api.common.base.BaseRepository;
+import io.github.joabsonlg.sigac_api.event.enumeration.DomainEventType;
+import io.github.joabsonlg.sigac_api.event.model.DomainEvent;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Repository for the event_outbox table.
+ * Events are appended on the caller's connection, so they commit or roll back with the change they describe.
+ */
+@Repository
+public class OutboxRepository extends BaseRepository<DomainEvent, Long> {
+
+    public OutboxRepository(DatabaseClient databaseClient) {
+        super(databaseClient);
+    }
+
+    @Override
+    protected String getTableName() {
+        return "event_outbox";
+    }
+
+    /**
+     * Appends events with a single multi-row insert
+     */
+    public Mono<Void> appendAll(List<DomainEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("""
+            INSERT INTO event_outbox (aggregate_type, aggregate_id, event_type, payload)
+            SELECT * FROM unnest(CAST(:aggregate_types AS VARCHAR[]), CAST(:aggregate_ids AS VARCHAR[]),
+                                 CAST(:event_types AS VARCHAR[]), CAST(:payloads AS TEXT[]))
+        """)
+        .bind("aggregate_types", events.stream().map(event -> event.type().getAggregateType()).toArray(String[]::new))
+        .bind("aggregate_ids", events.stream().map(DomainEvent::aggregateId).toArray(String[]::new))
+        .bind("event_types", events.stream().map(event -> event.type().name()).toArray(String[]::new))
+        .bind("payloads", events.stream().map(DomainEvent::payload).toArray(String[]::new))
+        .then();
+    }
+
+    /**
+     * Leases a batch of undelivered events, oldest first.
+     * An event is only leased once every earlier event of the same aggregate has been delivered or
+     * dead-lettered, so the events of one aggregate are delivered in order even across relays and retries.
+     * Leased events are hidden from other relays for the lease duration; rows leased by a concurrent
+     * relay are skipped. Events that are not marked published before the lease ends are retried.
+     * Uses the database clock, which also stamps created_at and the initial available_at.
+     */
+    public Flux<DomainEvent> lease(Duration lease, int limit) {
+        return databaseClient.sql("""
+            WITH due AS (
+                SELECT id
+                FROM event_outbox e
+                WHERE e.published_at IS NULL AND e.dead_lettered_at IS NULL
+                  AND e.available_at <= LOCALTIMESTAMP
+                  AND NOT EXISTS (
+                    SELECT 1 FROM event_outbox earlier
+                    WHERE earlier.aggregate_type = e.aggregate_type
+                      AND earlier.aggregate_id = e.aggregate_id
+                      AND earlier.id < e.id
+                      AND earlier.published_at IS NULL AND earlier.dead_lettered_at IS NULL
+                  )
+                ORDER BY e.id
+                LIMIT :limit
+                FOR UPDATE OF e SKIP LOCKED
+            )
+            UPDATE event_outbox e
+            SET available_at = LOCALTIMESTAMP + make_interval(secs => :lease_seconds), attempts = e.attempts + 1
+            FROM due
+            WHERE e.id = due.id
+            RETURNING e.id, e.event_type, e.aggregate_id, e.payload, e.created_at, e.attempts
+        """)
+        .bind("lease_seconds", lease.toMillis() / 1000.0)
+        .bind("limit", limit)
+        .map(row -> new DomainEvent(
+            row.get("id", Long.class),
+            DomainEventType.valueOf(row.get("event_type", String.class)),
+            row.get("aggregate_id", String.class),
+            row.get("payload", String.class),
+            row.get("created_at", LocalDateTime.class),
+            row.get("attempts", Integer.class)))
+        .all()
+        .sort(Comparator.comparing(DomainEvent::id));
+    }
+
+    /**
+     * Marks delivered events as published
+     */
+    public Mono<Void> markPublished(Collection<Long> ids, LocalDateTime publishedAt) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("""
+            UPDATE event_outbox
+            SET published_at = :published_at, last_error = NULL
+            WHERE id = ANY(CAST(:ids AS BIGINT[]))
+        """)
+        .bind("published_at", publishedAt)
+        .bind("ids", ids.toArray(Long[]::new))
+        .then();
+    }
+
+    /**
+     * Records a failed delivery. A dead-lettered event is closed and not retried; it is kept
+     * (not purged) and no longer blocks the later events of its aggregate.
+     */
+    public Mono<Void> markFailed(Long id, String error, boolean deadLetter, LocalDateTime now) {
+        return databaseClient.sql("""
+            UPDATE event_outbox
+            SET last_error = :error,
+                dead_lettered_at = CASE WHEN :dead_letter THEN CAST(:now AS TIMESTAMP) ELSE dead_lettered_at END
+            WHERE id = :id
+        """)
+        .bind("error", error != null ? error : "unknown error")
+        .bind("dead_letter", deadLetter)
+        .bind("now", now)
+        .bind("id", id)
+        .then();
+    }
+
+    /**
+     * Counts the events not delivered yet, leaving out the dead-lettered ones
+     */
+    public Mono<Long> countPending() {
+        return countWithCondition("published_at IS NULL AND dead_lettered_at IS NULL");
+    }
+
+    /**
+     * Deletes the events published before the given instant. Dead-lettered events have no
+     * published_at and are never purged.
+     */
+    public Mono<Long> deletePublishedBefore(LocalDateTime cutoff) {
+        return databaseClient.sql("DELETE FROM event_outbox WHERE published_at < :cutoff")
+            .bind("cutoff", cutoff)
+            .fetch()
+            .rowsUpdated();
+    }
+}
@@ -56,7 +56,7 @@ public class PaymentController extends BaseController<PaymentDTO, Long> {
         return paymentHandler.updateStatus(id, status)
                 .flatMap(paymentDTO -> {
                     if (paymentDTO.status() == PaymentStatus.PAID) {
-                        return reservationHandler.updateStatus(paymentDTO.reservationId().intValue(), ReservationStatus.CONFIRMED)
+                        return reservationHandler.updateStatus(paymentDTO.reservationId().intValue(), ReservationStatus.CONFIRMED, null)
                                 .then(Mono.just(paymentDTO));
                     }
                     return Mono.just(paymentDTO);
@@ -3,6 +3,8 @@ package io.github.joabsonlg.sigac_api.payment.handler;
 import io.github.joabsonlg.sigac_api.common.base.BaseHandler;
 import io.github.joabsonlg.sigac_api.common.exception.ResourceNotFoundException;
 import io.github.joabsonlg.sigac_api.common.response.PageResponse;
+import io.github.joabsonlg.sigac_api.event.enumeration.DomainEventType;
+import io.github.joabsonlg.sigac_api.event.handler.OutboxHandler;
 import io.github.joabsonlg.sigac_api.payment.dto.CreatePaymentDTO;
 import io.github.joabsonlg.sigac_api.payment.dto.PaymentDTO;
 import io.github.joabsonlg.sigac_api.payment.dto.UpdatePaymentDTO;
@@ -17,16 +19,20 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Service
 public class PaymentHandler extends BaseHandler<Payment, PaymentDTO, Long> {
 
     private final PaymentRepository paymentRepository;
     private final PaymentValidator paymentValidator;
+    private final OutboxHandler outboxHandler;
 
-    public PaymentHandler(PaymentRepository paymentRepository, PaymentValidator paymentValidator) {
+    public PaymentHandler(PaymentRepository paymentRepository, PaymentValidator paymentValidator,
+                          OutboxHandler outboxHandler) {
         this.paymentRepository = paymentRepository;
         this.paymentValidator = paymentValidator;
+        this.outboxHandler = outboxHandler;
     }
 
     @Override
@@ -90,6 +96,8 @@ public class PaymentHandler extends BaseHandler<Payment, PaymentDTO, Long> {
                 PaymentStatus.PENDING
         );
         return paymentRepository.save(payment)
+                .flatMap(saved -> outboxHandler.append(DomainEventType.PAYMENT_CREATED, saved.id(), createdPayload(saved))
+                        .thenReturn(saved))
                 .map(this::toDto);
     }
 
@@ -107,7 +115,8 @@ public class PaymentHandler extends BaseHandler<Payment, PaymentDTO, Long> {
                             existingPayment.amount(),
                             dto.status()
                     );
-                    return paymentRepository.save(updatedPayment);
+                    return paymentRepository.save(updatedPayment)
+                            .flatMap(saved -> appendStatusChange(existingPayment.status(), saved).thenReturn(saved));
                 })
                 .map(this::toDto);
     }
@@ -118,7 +127,8 @@ public class PaymentHandler extends BaseHandler<Payment, PaymentDTO, Long> {
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("Payment", id)))
                 .flatMap(existingPayment -> {
                     LocalDateTime paymentDate = newStatus == PaymentStatus.PAID ? LocalDateTime.now() : existingPayment.paymentDate();
-                    return paymentRepository.updateStatusAndPaymentDate(id, newStatus, paymentDate);
+                    return paymentRepository.updateStatusAndPaymentDate(id, newStatus, paymentDate)
+                            .flatMap(saved -> appendStatusChange(existingPayment.status(), saved).thenReturn(saved));
                 })
                 .map(this::toDto);
     }
@@ -142,4 +152,28 @@ public class PaymentHandler extends BaseHandler<Payment, PaymentDTO, Long> {
                     }
                 });
     }
+
+    /**
+     * Payload of the PAYMENT_CREATED event
+     */
+    public static Map<String, Object> createdPayload(Payment payment) {
+        return OutboxHandler.payload(
+                "paymentId", payment.id(),
+                "reservationId", payment.reservationId(),
+                "paymentMethod", payment.paymentMethod(),
+                "amount", payment.amount(),
+                "status", payment.status());
+    }
+
+    private Mono<Void> appendStatusChange(PaymentStatus oldStatus, Payment payment) {
+        if (oldStatus == payment.status()) {
+            return Mono.empty();
+        }
+        return outboxHandler.append(DomainEventType.PAYMENT_STATUS_CHANGED, payment.id(), OutboxHandler.payload(
+                "paymentId", payment.id(),
+                "reservationId", payment.reservationId(),
+                "oldStatus", oldStatus,
+                "newStatus", payment.status(),
+                "paymentDate", payment.paymentDate()));
+    }
 }
@@ -8,7 +8,9 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public class PaymentRepository extends BaseRepository<Payment, Long> {
@@ -59,6 +61,35 @@ public class PaymentRepository extends BaseRepository<Payment, Long> {
                 )).all();
     }
 
+    /**
+     * Inserts several payments with a single multi-row INSERT ... RETURNING.
+     */
+    public Flux<Payment> saveAll(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql("""
+                INSERT INTO payment (reservation_id, payment_date, payment_method, amount, status)
+                SELECT * FROM unnest(CAST(:reservation_ids AS INT[]), CAST(:payment_dates AS TIMESTAMP[]),
+                                     CAST(:payment_methods AS VARCHAR[]), CAST(:amounts AS NUMERIC[]),
+                                     CAST(:statuses AS VARCHAR[]))
+                RETURNING *
+                """)
+                .bind("reservation_ids", payments.stream().map(Payment::reservationId).toArray(Long[]::new))
+                .bind("payment_dates", payments.stream().map(Payment::paymentDate).toArray(LocalDateTime[]::new))
+                .bind("payment_methods", payments.stream().map(payment -> payment.paymentMethod().name()).toArray(String[]::new))
+                .bind("amounts", payments.stream().map(Payment::amount).toArray(BigDecimal[]::new))
+                .bind("statuses", payments.stream().map(payment -> payment.status().name()).toArray(String[]::new))
+                .map((row, meta) -> new Payment(
+                        row.get("id", Long.class),
+                        row.get("reservation_id", Long.class),
+                        row.get("payment_date", java.time.LocalDateTime.class),
+                        io.github.joabsonlg.sigac_api.payment.enumeration.PaymentMethod.valueOf(row.get("payment_method", String.class)),
+                        row.get("amount", java.math.BigDecimal.class),
+                        io.github.joabsonlg.sigac_api.payment.enumeration.PaymentStatus.valueOf(row.get("status", String.class))
+                )).all();
+    }
+
     public Mono<Payment> findById(Long id) {
         return databaseClient.sql("SELECT * FROM payment WHERE id = :id")
                 .bind("id", id)
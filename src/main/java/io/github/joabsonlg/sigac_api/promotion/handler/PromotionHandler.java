@@ -12,11 +12,16 @@ import io.github.joabsonlg.sigac_api.promotion.model.Promotion;
 import io.github.joabsonlg.sigac_api.promotion.repository.PromotionRepository;
 import io.github.joabsonlg.sigac_api.promotion.validator.PromotionValidator;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Handler for business logic related to Promotion.
@@ -27,6 +32,7 @@ public class PromotionHandler extends BaseHandler<Promotion, PromotionDTO, Integ
 
     private final PromotionRepository promotionRepository;
     private final PromotionValidator promotionValidator;
+    private final AtomicLong version = new AtomicLong();
 
     public PromotionHandler(PromotionRepository promotionRepository, PromotionValidator promotionValidator) {
         this.promotionRepository = promotionRepository;
@@ -57,6 +63,43 @@ public class PromotionHandler extends BaseHandler<Promotion, PromotionDTO, Integ
         );
     }
 
+    /**
+     * Version of the promotions, incremented after every promotion write, including writes
+     * made through other instances (see PriceChangeListener).
+     * Lets callers cache values derived from promotions without serving them after a change.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Bumps the version for a promotion change made outside this instance.
+     */
+    public void invalidateVersion() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Bumps the version once the current transaction completes, so a reader that sees the new
+     * version also sees the committed change. Bumps right away when there is no transaction.
+     */
+    private Mono<Void> bumpVersionAfterCompletion() {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .flatMap(manager -> {
+                    if (!manager.isSynchronizationActive()) {
+                        return Mono.<Void>fromRunnable(version::incrementAndGet);
+                    }
+                    manager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCompletion(int status) {
+                            return Mono.fromRunnable(version::incrementAndGet);
+                        }
+                    });
+                    return Mono.<Void>empty();
+                })
+                .onErrorResume(NoTransactionException.class, e -> Mono.fromRunnable(version::incrementAndGet));
+    }
+
     /**
      * Gets all promotions
      */
@@ -73,6 +116,16 @@ public class PromotionHandler extends BaseHandler<Promotion, PromotionDTO, Integ
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("Promotion", code.toString())));
     }
 
+    /**
+     * Gets all promotions whose code is in the given set
+     */
+    public Flux<PromotionDTO> getByCodes(Collection<Integer> codes) {
+        if (codes.isEmpty()) {
+            return Flux.empty();
+        }
+        return toDtoFlux(promotionRepository.findByCodes(codes));
+    }
+
     /**
      * Gets paginated promotions with optional status filter
      */
@@ -120,6 +173,7 @@ public class PromotionHandler extends BaseHandler<Promotion, PromotionDTO, Integ
                     );
                 }))
                 .flatMap(promotionRepository::save)
+                .flatMap(saved -> bumpVersionAfterCompletion().thenReturn(saved))
                 .map(this::toDto);
     }
 
@@ -135,6 +189,7 @@ public class PromotionHandler extends BaseHandler<Promotion, PromotionDTO, Integ
                             .then(Mono.fromCallable(() -> updateEntity(existingPromotion, updatePromotionDTO)))
                 )
                 .flatMap(promotionRepository::save)
+                .flatMap(saved -> bumpVersionAfterCompletion().thenReturn(saved))
                 .map(this::toDto);
     }
 
@@ -150,7 +205,8 @@ public class PromotionHandler extends BaseHandler<Promotion, PromotionDTO, Integ
                         return Mono.error(new ValidationException("Cannot delete an active promotion"));
                     }
                     return promotionRepository.deletePromotionByCode(code);
-                });
+                })
+                .then(bumpVersionAfterCompletion());
     }
 
     /**
@@ -176,6 +232,7 @@ public class PromotionHandler extends BaseHandler<Promotion, PromotionDTO, Integ
                     Promotion updatedPromotion = promotion.withStatus(PromotionStatus.ACTIVE);
                     return promotionRepository.save(updatedPromotion);
                 })
+                .flatMap(saved -> bumpVersionAfterCompletion().thenReturn(saved))
                 .map(this::toDto);
     }
 
@@ -194,6 +251,7 @@ public class PromotionHandler extends BaseHandler<Promotion, PromotionDTO, Integ
                     Promotion updatedPromotion = promotion.withStatus(PromotionStatus.INACTIVE);
                     return promotionRepository.save(updatedPromotion);
                 })
+                .flatMap(saved -> bumpVersionAfterCompletion().thenReturn(saved))
                 .map(this::toDto);
     }
 
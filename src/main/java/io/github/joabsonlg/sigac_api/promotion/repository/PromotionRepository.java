@@ -9,6 +9,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 /**
  * Repository for executing manual SQL queries related to Promotion.
@@ -72,6 +73,20 @@ public class PromotionRepository extends BaseRepository<Promotion, Integer> {
         .one();
     }
     
+    /**
+     * Finds all promotions whose code is in the given set with a single query
+     */
+    public Flux<Promotion> findByCodes(Collection<Integer> codes) {
+        return databaseClient.sql("""
+            SELECT code, discount_percentage, status, start_date, end_date
+            FROM promotion
+            WHERE code = ANY(:codes)
+        """)
+        .bind("codes", codes.toArray(Integer[]::new))
+        .map(this::mapRowToPromotion)
+        .all();
+    }
+    
     /**
      * Finds promotions with pagination
      */
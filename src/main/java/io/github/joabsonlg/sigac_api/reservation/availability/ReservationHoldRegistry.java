@@ -0,0 +1,146 @@
+package io.github.joabsonlg.sigac_api.reservation.availability;
+
+import io.github.joabsonlg.sigac_api.reservation.model.ReservationHold;
+import io.github.joabsonlg.sigac_api.reservation.repository.ReservationHoldRepository;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory registry of the availability holds placed by checkout flows.
+ * Each hold is scheduled on a hashed timer wheel and dropped when its TTL elapses, so expiry
+ * costs one timer slot per hold instead of polling the database. Holds are mirrored into the
+ * reservation_hold table by ReservationHoldHandler; the registry reloads the live ones at startup
+ * and deletes the mirrored row when a hold expires.
+ *
+ * The registry only knows the holds placed through this instance: it turns away overlapping
+ * placements early, but availability, ownership and release decisions read reservation_hold.
+ */
+@Component
+public class ReservationHoldRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationHoldRegistry.class);
+
+    private static final long TICK_MILLIS = 100;
+    private static final int TICKS_PER_WHEEL = 512;
+
+    private final ReservationHoldRepository holdRepository;
+    private final HashedWheelTimer timer = new HashedWheelTimer(
+            new DefaultThreadFactory("reservation-hold-expiry", true),
+            TICK_MILLIS, TimeUnit.MILLISECONDS, TICKS_PER_WHEEL);
+    private final Map<UUID, ActiveHold> holdsById = new ConcurrentHashMap<>();
+    private final Map<String, Set<ReservationHold>> holdsByPlate = new ConcurrentHashMap<>();
+
+    public ReservationHoldRegistry(ReservationHoldRepository holdRepository) {
+        this.holdRepository = holdRepository;
+    }
+
+    /**
+     * Drops the holds that expired while the application was down and reloads the live ones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime now = LocalDateTime.now();
+        holdRepository.deleteExpired(now)
+                .thenMany(holdRepository.findActive(now))
+                .filter(this::tryPlace)
+                .count()
+                .subscribe(
+                        count -> logger.info("Reservation hold registry warmed with {} active holds", count),
+                        error -> logger.warn("Could not warm reservation hold registry: {}", error.getMessage())
+                );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.stop();
+    }
+
+    /**
+     * Registers a hold unless another client's live hold overlaps its period.
+     *
+     * @return true if the hold was registered
+     */
+    public boolean tryPlace(ReservationHold hold) {
+        Set<ReservationHold> plateHolds = holdsByPlate.computeIfAbsent(hold.vehiclePlate(), plate -> ConcurrentHashMap.newKeySet());
+        synchronized (plateHolds) {
+            if (overlaps(plateHolds, hold.startDate(), hold.endDate(), hold.clientUserCpf())) {
+                return false;
+            }
+            long delayMillis = Math.max(0, Duration.between(LocalDateTime.now(), hold.expiresAt()).toMillis());
+            Timeout timeout = timer.newTimeout(expired -> expire(hold), delayMillis, TimeUnit.MILLISECONDS);
+            holdsById.put(hold.id(), new ActiveHold(hold, timeout));
+            plateHolds.add(hold);
+            return true;
+        }
+    }
+
+    /**
+     * Removes a hold before it expires and cancels its timer.
+     *
+     * @return the removed hold, empty if it was unknown or already expired
+     */
+    public Optional<ReservationHold> release(UUID holdId) {
+        ActiveHold active = holdId != null ? holdsById.remove(holdId) : null;
+        if (active == null) {
+            return Optional.empty();
+        }
+        active.timeout().cancel();
+        unindex(active.hold());
+        return Optional.of(active.hold());
+    }
+
+    private boolean overlaps(Set<ReservationHold> plateHolds, LocalDateTime startDate, LocalDateTime endDate, String ownerCpf) {
+        LocalDateTime now = LocalDateTime.now();
+        for (ReservationHold hold : plateHolds) {
+            if (hold.isExpiredAt(now) || hold.clientUserCpf().equals(ownerCpf)) {
+                continue;
+            }
+            if (!hold.startDate().isAfter(endDate) && !hold.endDate().isBefore(startDate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void expire(ReservationHold hold) {
+        if (holdsById.remove(hold.id()) == null) {
+            return;
+        }
+        unindex(hold);
+        holdRepository.deleteById(hold.id())
+                .subscribe(
+                        done -> { },
+                        error -> logger.warn("Could not delete expired reservation hold {}: {}", hold.id(), error.getMessage())
+                );
+    }
+
+    private void unindex(ReservationHold hold) {
+        Set<ReservationHold> plateHolds = holdsByPlate.get(hold.vehiclePlate());
+        if (plateHolds != null) {
+            synchronized (plateHolds) {
+                plateHolds.remove(hold);
+            }
+        }
+    }
+
+    /**
+     * Registered hold with its pending expiry.
+     */
+    private record ActiveHold(ReservationHold hold, Timeout timeout) {}
+}
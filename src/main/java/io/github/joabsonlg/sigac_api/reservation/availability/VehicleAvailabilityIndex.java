@@ -0,0 +1,171 @@
+package io.github.joabsonlg.sigac_api.reservation.availability;
+
+import io.github.joabsonlg.sigac_api.reservation.enumeration.ReservationStatus;
+import io.github.joabsonlg.sigac_api.reservation.model.Reservation;
+import io.github.joabsonlg.sigac_api.reservation.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the active bookings (PENDING, CONFIRMED, IN_PROGRESS) of each vehicle.
+ * Keeps one interval set per plate, sorted by start date, so overlap checks are answered
+ * without a database round trip. It is warmed at startup and kept current by ReservationHandler,
+ * which only records a booking once the transaction that wrote it has committed.
+ *
+ * A conflict reported here is a hint, never a verdict: callers confirm it against the database
+ * before rejecting, and the reservation_vehicle_period_excl constraint remains the final arbiter,
+ * so a stale or not yet warmed index neither lets a double booking through nor blocks a free period.
+ */
+@Component
+public class VehicleAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleAvailabilityIndex.class);
+
+    private static final Set<ReservationStatus> ACTIVE_STATUSES =
+            EnumSet.of(ReservationStatus.PENDING, ReservationStatus.CONFIRMED, ReservationStatus.IN_PROGRESS);
+
+    private final ReservationRepository reservationRepository;
+    private final Map<String, PlateBookings> bookingsByPlate = new ConcurrentHashMap<>();
+    private final Map<Integer, Booking> bookingsById = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    public VehicleAvailabilityIndex(ReservationRepository reservationRepository) {
+        this.reservationRepository = reservationRepository;
+    }
+
+    /**
+     * Loads the active bookings once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reservationRepository.findActiveReservations()
+                .doOnNext(this::track)
+                .count()
+                .subscribe(
+                        count -> {
+                            ready = true;
+                            logger.info("Vehicle availability index warmed with {} active bookings", count);
+                        },
+                        error -> logger.warn("Could not warm vehicle availability index: {}", error.getMessage())
+                );
+    }
+
+    /**
+     * Whether the index has been fully loaded and can answer overlap checks.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Records the current state of a reservation, replacing any previous interval with the same id.
+     * Reservations that are no longer active are removed from the index.
+     */
+    public void track(Reservation reservation) {
+        if (reservation == null || reservation.id() == null) {
+            return;
+        }
+        remove(reservation.id());
+        if (!ACTIVE_STATUSES.contains(reservation.status())
+                || reservation.vehiclePlate() == null
+                || reservation.startDate() == null
+                || reservation.endDate() == null) {
+            return;
+        }
+        Booking booking = new Booking(reservation.id(), reservation.vehiclePlate(),
+                reservation.startDate(), reservation.endDate());
+        bookingsById.put(booking.id(), booking);
+        bookingsByPlate.computeIfAbsent(booking.plate(), plate -> new PlateBookings()).add(booking);
+    }
+
+    /**
+     * Removes a reservation from the index.
+     */
+    public void remove(Integer reservationId) {
+        Booking previous = bookingsById.remove(reservationId);
+        if (previous != null) {
+            PlateBookings plateBookings = bookingsByPlate.get(previous.plate());
+            if (plateBookings != null) {
+                plateBookings.remove(previous);
+            }
+        }
+    }
+
+    /**
+     * Checks whether an active booking of the vehicle overlaps the given period.
+     * Bounds are inclusive, matching the database exclusion constraint.
+     * Returns false while the index is not ready.
+     *
+     * @param plate                the vehicle plate
+     * @param startDate            start of the requested period
+     * @param endDate              end of the requested period
+     * @param excludeReservationId reservation to ignore (the one being updated), may be null
+     * @return true if a known active booking overlaps the period
+     */
+    public boolean hasConflict(String plate, LocalDateTime startDate, LocalDateTime endDate, Integer excludeReservationId) {
+        if (!ready || plate == null || startDate == null || endDate == null) {
+            return false;
+        }
+        PlateBookings plateBookings = bookingsByPlate.get(plate);
+        return plateBookings != null && plateBookings.overlaps(startDate, endDate, excludeReservationId);
+    }
+
+    /**
+     * Active booking interval of a vehicle.
+     */
+    private record Booking(Integer id, String plate, LocalDateTime startDate, LocalDateTime endDate) {}
+
+    /**
+     * Bookings of a single vehicle ordered by start date. Tracks the longest booking so
+     * the backwards scan of an overlap check can stop as soon as no earlier booking can reach the period.
+     */
+    private static final class PlateBookings {
+
+        private static final Comparator<Booking> BY_START =
+                Comparator.comparing(Booking::startDate).thenComparing(Booking::id);
+
+        private final TreeSet<Booking> bookings = new TreeSet<>(BY_START);
+        private Duration longestBooking = Duration.ZERO;
+
+        synchronized void add(Booking booking) {
+            bookings.add(booking);
+            Duration length = Duration.between(booking.startDate(), booking.endDate());
+            if (length.compareTo(longestBooking) > 0) {
+                longestBooking = length;
+            }
+        }
+
+        synchronized void remove(Booking booking) {
+            bookings.remove(booking);
+        }
+
+        synchronized boolean overlaps(LocalDateTime startDate, LocalDateTime endDate, Integer excludeReservationId) {
+            Booking upperBound = new Booking(Integer.MAX_VALUE, null, endDate, endDate);
+            LocalDateTime earliestReachingStart = startDate.minus(longestBooking);
+            for (Booking booking : bookings.headSet(upperBound, true).descendingSet()) {
+                if (booking.startDate().isBefore(earliestReachingStart)) {
+                    return false;
+                }
+                if (booking.id().equals(excludeReservationId)) {
+                    continue;
+                }
+                if (!booking.endDate().isBefore(startDate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.joabsonlg.sigac_api.reservation.changefeed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.joabsonlg.sigac_api.common.util.R2dbcUtil;
+import io.github.joabsonlg.sigac_api.reservation.dto.ReservationChangeDTO;
+import io.github.joabsonlg.sigac_api.reservation.repository.ReservationRepository;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Change feed of the reservation table.
+ * A trigger (V14) publishes every insert, update and delete on the reservation_changes channel;
+ * this component keeps one dedicated LISTEN connection per node, outside the pool, and
+ * multicasts the notifications to every subscriber. The connection is re-established with
+ * backoff when it drops, and subscribers get a RESYNC entry since notifications sent
+ * meanwhile are lost.
+ */
+@Component
+public class ReservationChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationChangeFeed.class);
+
+    static final String CHANNEL = "reservation_changes";
+
+    private static final int SUBSCRIBER_BUFFER = 256;
+    private static final Duration MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final ConnectionFactory listenConnectionFactory;
+    private final ReservationRepository reservationRepository;
+    private final ObjectMapper objectMapper;
+    private final Sinks.Many<ReservationChangeDTO> sink = Sinks.many().multicast().directBestEffort();
+    private final AtomicBoolean connectedBefore = new AtomicBoolean();
+    private volatile Disposable subscription;
+
+    public ReservationChangeFeed(R2dbcProperties properties,
+                                 ReservationRepository reservationRepository,
+                                 ObjectMapper objectMapper) {
+        this.listenConnectionFactory = R2dbcUtil.dedicatedConnectionFactory(properties);
+        this.reservationRepository = reservationRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Opens the LISTEN connection once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = Flux.usingWhen(listenConnectionFactory.create(), this::listen, Connection::close)
+                // The notification stream completes when the server closes the connection
+                .concatWith(Mono.error(() -> new IllegalStateException("LISTEN connection closed")))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, MIN_BACKOFF)
+                        .maxBackoff(MAX_BACKOFF)
+                        .doBeforeRetry(signal -> logger.warn("Reservation change feed disconnected, reconnecting: {}",
+                                signal.failure().getMessage())))
+                .subscribe(sink::tryEmitNext,
+                        error -> logger.error("Reservation change feed stopped: {}", error.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+        sink.tryEmitComplete();
+    }
+
+    /**
+     * Live reservation changes. Each subscriber has its own bounded buffer; a subscriber that
+     * falls behind loses its oldest pending changes instead of slowing the others down.
+     */
+    public Flux<ReservationChangeDTO> changes() {
+        return sink.asFlux()
+                .onBackpressureBuffer(SUBSCRIBER_BUFFER,
+                        dropped -> logger.debug("Dropped reservation change {} for a slow subscriber", dropped.id()),
+                        BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    /**
+     * Number of clients currently subscribed to the feed.
+     */
+    public int subscriberCount() {
+        return sink.currentSubscriberCount();
+    }
+
+    private Flux<ReservationChangeDTO> listen(Connection pooledOrDirect) {
+        PostgresqlConnection connection = R2dbcUtil.unwrapPostgres(pooledOrDirect);
+        return connection.createStatement("LISTEN " + CHANNEL)
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .then(Mono.fromRunnable(() -> logger.info("Listening for reservation changes on channel {}", CHANNEL)))
+                .thenMany(Flux.defer(() -> {
+                    Flux<ReservationChangeDTO> notifications = connection.getNotifications()
+                            .flatMap(notification -> Mono.justOrEmpty(toChange(notification)));
+                    return connectedBefore.getAndSet(true)
+                            ? notifications.startWith(ReservationChangeDTO.resync())
+                            : notifications;
+                }));
+    }
+
+    private ReservationChangeDTO toChange(Notification notification) {
+        try {
+            JsonNode payload = objectMapper.readTree(notification.getParameter());
+            return new ReservationChangeDTO(
+                payload.path("op").asText(),
+                payload.path("id").isNumber() ? payload.path("id").asInt() : null,
+                reservationRepository.mapStatusFromString(payload.path("status").textValue()),
+                payload.path("vehiclePlate").textValue(),
+                payload.path("clientUserCpf").textValue(),
+                payload.path("version").isNumber() ? payload.path("version").asInt() : null,
+                LocalDateTime.now()
+            );
+        } catch (Exception e) {
+            logger.warn("Ignoring malformed reservation change notification '{}': {}",
+                    notification.getParameter(), e.getMessage());
+            return null;
+        }
+    }
+}
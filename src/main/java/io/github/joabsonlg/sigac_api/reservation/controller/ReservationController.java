@@ -3,24 +3,43 @@ package io.github.joabsonlg.sigac_api.reservation.controller;
 import io.github.joabsonlg.sigac_api.auth.dto.UserInfoDTO;
 import io.github.joabsonlg.sigac_api.auth.handler.AuthHandler;
 import io.github.joabsonlg.sigac_api.common.base.BaseController;
+import io.github.joabsonlg.sigac_api.common.exception.ForbiddenException;
+import io.github.joabsonlg.sigac_api.common.exception.PreconditionFailedException;
 import io.github.joabsonlg.sigac_api.common.response.ApiResponse;
 import io.github.joabsonlg.sigac_api.common.response.PageResponse;
+import io.github.joabsonlg.sigac_api.reservation.dto.CreateReservationBatchDTO;
 import io.github.joabsonlg.sigac_api.reservation.dto.CreateReservationDTO;
+import io.github.joabsonlg.sigac_api.reservation.dto.CreateReservationHoldDTO;
+import io.github.joabsonlg.sigac_api.reservation.dto.ReservationBatchResultDTO;
+import io.github.joabsonlg.sigac_api.reservation.dto.ReservationCalendarDTO;
+import io.github.joabsonlg.sigac_api.reservation.dto.ReservationChangeDTO;
 import io.github.joabsonlg.sigac_api.reservation.dto.ReservationDTO;
+import io.github.joabsonlg.sigac_api.reservation.dto.ReservationHoldDTO;
 import io.github.joabsonlg.sigac_api.reservation.dto.UpdateReservationDTO;
 import io.github.joabsonlg.sigac_api.reservation.dto.CalculateReservationAmountRequestDTO;
 import io.github.joabsonlg.sigac_api.reservation.dto.ReservationReportDTO;
 import io.github.joabsonlg.sigac_api.reservation.enumeration.ReservationStatus;
+import io.github.joabsonlg.sigac_api.reservation.enumeration.TotalCountMode;
 import io.github.joabsonlg.sigac_api.reservation.handler.ReservationHandler;
+import io.github.joabsonlg.sigac_api.reservation.handler.ReservationHoldHandler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Controller that exposes REST endpoints for Reservation management.
@@ -31,11 +50,16 @@ import java.time.LocalDateTime;
 @Tag(name = "Reservation", description = "Operations related to reservation management")
 public class ReservationController extends BaseController<ReservationDTO, Integer> {
 
+    private static final Duration STREAM_HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
     private final ReservationHandler reservationHandler;
+    private final ReservationHoldHandler holdHandler;
     private final AuthHandler authHandler;
 
-    public ReservationController(ReservationHandler reservationHandler, AuthHandler authHandler) {
+    public ReservationController(ReservationHandler reservationHandler, ReservationHoldHandler holdHandler,
+                                 AuthHandler authHandler) {
         this.reservationHandler = reservationHandler;
+        this.holdHandler = holdHandler;
         this.authHandler = authHandler;
     }
 
@@ -43,7 +67,9 @@ public class ReservationController extends BaseController<ReservationDTO, Intege
      * Gets all reservations with optional filtering and pagination.
      */
     @GetMapping
-    @Operation(summary = "Get all reservations", description = "Retrieves a paginated list of reservations with optional filtering by status or search query")
+    @Operation(summary = "Get all reservations", description = "Retrieves a paginated list of reservations with optional filtering by status or search query. " +
+            "When 'after' is present (empty for the first page) keyset pagination is used and the response carries nextCursor; " +
+            "cursor pages omit the total unless count or estimate is requested")
     public Mono<ResponseEntity<ApiResponse<PageResponse<ReservationDTO>>>> getAllReservations(ServerWebExchange exchange,
                                                                                               @Parameter(description = "Page number (0-based)")
                                                                                               @RequestParam(defaultValue = "0") int page,
@@ -54,27 +80,141 @@ public class ReservationController extends BaseController<ReservationDTO, Intege
                                                                                               @Parameter(description = "Search query for client name or vehicle model/brand")
                                                                                               @RequestParam(required = false) String query,
                                                                                               @Parameter(description = "Filter by client CPF")
-                                                                                              @RequestParam(required = false) String cpf) {
+                                                                                              @RequestParam(required = false) String cpf,
+                                                                                              @Parameter(description = "Cursor returned as nextCursor by the previous page; enables keyset pagination")
+                                                                                              @RequestParam(required = false) String after,
+                                                                                              @Parameter(description = "Whether to compute the exact total; when false hasNext is derived from one extra row. Defaults to true for page numbers and false for cursors")
+                                                                                              @RequestParam(required = false) Boolean count,
+                                                                                              @Parameter(description = "Return an estimated total (cached count or planner estimate) instead of an exact count")
+                                                                                              @RequestParam(defaultValue = "false") boolean estimate) {
 
         PaginationParams params = validatePagination(page, size);
+        boolean exactCount = count != null ? count : after == null;
+        TotalCountMode countMode = estimate ? TotalCountMode.ESTIMATED
+                : exactCount ? TotalCountMode.EXACT : TotalCountMode.NONE;
+
+        if (after != null) {
+            return authHandler.getUserInfo(exchange)
+                    .flatMap(user -> {
+                        String clientCpf = user.role().equals("CLIENT") ? user.cpf() : cpf;
+                        return okPage(reservationHandler.getAllAfterCursor(after, params.size(), status, query, clientCpf, countMode));
+                    })
+                    .switchIfEmpty(okPage(reservationHandler.getAllAfterCursor(after, params.size(), status, query, cpf, countMode)));
+        }
 
         return authHandler.getUserInfo(exchange)
                 .flatMap(user -> {
                     String clientCpf = user.role().equals("CLIENT") ? user.cpf() : cpf;
-                    return okPage(reservationHandler.getAllPaginated(params.page(), params.size(), status, query, clientCpf));
+                    return okPage(reservationHandler.getAllPaginated(params.page(), params.size(), status, query, clientCpf, countMode));
                 })
-                .switchIfEmpty(okPage(reservationHandler.getAllPaginated(params.page(), params.size(), status, query, cpf)));
+                .switchIfEmpty(okPage(reservationHandler.getAllPaginated(params.page(), params.size(), status, query, cpf, countMode)));
+    }
+
+    /**
+     * Searches reservations ranked by relevance.
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search reservations", description = "Searches reservations by client name, vehicle model, brand or plate, tolerating partial and misspelled terms. Results are ranked by relevance")
+    public Mono<ResponseEntity<ApiResponse<PageResponse<ReservationDTO>>>> searchReservations(ServerWebExchange exchange,
+                                                                                              @Parameter(description = "Search term")
+                                                                                              @RequestParam String q,
+                                                                                              @Parameter(description = "Maximum number of results")
+                                                                                              @RequestParam(defaultValue = "20") int limit) {
+        PaginationParams params = validatePagination(0, limit);
+
+        return authHandler.getUserInfo(exchange)
+                .map(user -> Optional.ofNullable(user.role().equals("CLIENT") ? user.cpf() : null))
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(clientCpf -> okList(reservationHandler.search(q, clientCpf.orElse(null), params.size())));
+    }
+
+    /**
+     * Gets the fleet occupancy calendar.
+     */
+    @GetMapping("/calendar")
+    @Operation(summary = "Get fleet occupancy calendar", description = "Returns, for every vehicle, one character per day between from and to (inclusive, up to 366 days): " +
+            "'.' free, 'R' reserved, 'M' under maintenance")
+    public Mono<ResponseEntity<ApiResponse<ReservationCalendarDTO>>> getCalendar(
+            @Parameter(description = "First day of the calendar (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day of the calendar (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ok(reservationHandler.getCalendar(from, to));
+    }
+
+    /**
+     * Gets archived reservations.
+     */
+    @GetMapping("/archive")
+    @Operation(summary = "Get archived reservations", description = "Retrieves a paginated list of finished reservations moved to the archive, " +
+            "made between from and to (inclusive). Clients only see their own reservations")
+    public Mono<ResponseEntity<ApiResponse<PageResponse<ReservationDTO>>>> getArchived(
+            ServerWebExchange exchange,
+            @Parameter(description = "First reservation day (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last reservation day (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Filter by client CPF")
+            @RequestParam(required = false) String cpf,
+            @Parameter(description = "Filter by vehicle plate")
+            @RequestParam(required = false) String plate,
+            @Parameter(description = "Page number (0-based)")
+            @RequestParam(required = false) Integer page,
+            @Parameter(description = "Page size (max 100)")
+            @RequestParam(required = false) Integer size) {
+        PaginationParams params = validatePagination(page, size);
+        return authHandler.getUserInfo(exchange)
+                .map(user -> Optional.ofNullable(user.role().equals("CLIENT") ? user.cpf() : cpf))
+                .defaultIfEmpty(Optional.ofNullable(cpf))
+                .flatMap(clientCpf -> okPage(reservationHandler.getArchivedPaginated(from, to, clientCpf.orElse(null), plate,
+                        params.page(), params.size())));
+    }
+
+    /**
+     * Streams reservation changes as Server-Sent Events.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream reservation changes", description = "Pushes one event per reservation insert, update or delete as it is committed, " +
+            "instead of polling the list. A RESYNC event means changes may have been missed and the list should be reloaded; " +
+            "a comment is sent every 15 seconds to keep the connection open. Clients only receive their own reservations")
+    public Flux<ServerSentEvent<ReservationChangeDTO>> streamChanges(ServerWebExchange exchange,
+                                                                     @Parameter(description = "Filter by reservation status")
+                                                                     @RequestParam(required = false) ReservationStatus status,
+                                                                     @Parameter(description = "Filter by vehicle plate")
+                                                                     @RequestParam(required = false) String plate,
+                                                                     @Parameter(description = "Filter by client CPF")
+                                                                     @RequestParam(required = false) String cpf) {
+        Flux<ServerSentEvent<ReservationChangeDTO>> changes = authHandler.getUserInfo(exchange)
+                .map(user -> Optional.ofNullable(user.role().equals("CLIENT") ? user.cpf() : cpf))
+                .defaultIfEmpty(Optional.ofNullable(cpf))
+                .flatMapMany(clientCpf -> reservationHandler.streamChanges(status, plate, clientCpf.orElse(null)))
+                .map(change -> ServerSentEvent.builder(change)
+                        .event(change.operation())
+                        .build());
+        Flux<ServerSentEvent<ReservationChangeDTO>> heartbeat = Flux.interval(STREAM_HEARTBEAT_INTERVAL)
+                .map(tick -> ServerSentEvent.<ReservationChangeDTO>builder().comment("heartbeat").build());
+        return Flux.merge(changes, heartbeat);
     }
 
     /**
      * Gets a specific reservation by ID.
      */
     @GetMapping("/{id}")
-    @Operation(summary = "Get reservation by ID", description = "Retrieves a specific reservation by its ID")
+    @Operation(summary = "Get reservation by ID", description = "Retrieves a specific reservation by its ID. " +
+            "The ETag header carries the reservation version, to be sent back in If-Match when updating it")
     public Mono<ResponseEntity<ApiResponse<ReservationDTO>>> getReservationById(
             @Parameter(description = "Reservation ID")
-            @PathVariable Integer id) {
-        return ok(reservationHandler.getById(id));
+            @PathVariable Integer id,
+            @Parameter(description = "ETag of a cached copy; 304 is returned while it is still current")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return reservationHandler.getById(id)
+                .map(reservation -> {
+                    String etag = etag(reservation.version());
+                    if (etag.equals(ifNoneMatch)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<ApiResponse<ReservationDTO>>build();
+                    }
+                    return ResponseEntity.ok().eTag(etag).body(ApiResponse.success(reservation));
+                });
     }
 
     /**
@@ -87,29 +227,71 @@ public class ReservationController extends BaseController<ReservationDTO, Intege
         return created(reservationHandler.create(createReservationDTO));
     }
 
+    /**
+     * Places a short-lived availability hold on a vehicle.
+     */
+    @PostMapping("/holds")
+    @Operation(summary = "Place availability hold", description = "Holds a vehicle for a client and period for a limited time (ttlSeconds, default 5 minutes, max 15) " +
+            "so the booking step of a checkout does not lose the vehicle to another client. Pass the returned id as holdId when creating the reservation")
+    public Mono<ResponseEntity<ApiResponse<ReservationHoldDTO>>> createHold(
+            @RequestBody CreateReservationHoldDTO createReservationHoldDTO) {
+        return created(holdHandler.create(createReservationHoldDTO));
+    }
+
+    /**
+     * Releases an availability hold before it expires.
+     */
+    @DeleteMapping("/holds/{holdId}")
+    @Operation(summary = "Release availability hold", description = "Releases a hold so the vehicle becomes available to other clients immediately. " +
+            "Only the client who placed the hold or an administrator may release it")
+    public Mono<ResponseEntity<Void>> releaseHold(ServerWebExchange exchange,
+            @Parameter(description = "Hold ID")
+            @PathVariable UUID holdId) {
+        return authHandler.getUserInfo(exchange)
+                .switchIfEmpty(Mono.error(new ForbiddenException("Only the client who placed the hold can release it")))
+                .flatMap(user -> holdHandler.release(holdId, user.cpf(), "ADMIN".equals(user.role())))
+                .then(noContent());
+    }
+
+    /**
+     * Creates several reservations at once.
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Create reservations in batch", description = "Creates up to 200 reservations in a single transaction. Rows that fail validation or availability are reported by position and the remaining rows are created")
+    public Mono<ResponseEntity<ApiResponse<ReservationBatchResultDTO>>> createReservationBatch(
+            @RequestBody CreateReservationBatchDTO createReservationBatchDTO) {
+        return created(reservationHandler.createBatch(createReservationBatchDTO));
+    }
+
     /**
      * Updates an existing reservation.
      */
     @PutMapping("/{id}")
-    @Operation(summary = "Update reservation", description = "Updates an existing reservation")
+    @Operation(summary = "Update reservation", description = "Updates an existing reservation. " +
+            "With If-Match the update only happens if the reservation is still at that version, otherwise 412 is returned")
     public Mono<ResponseEntity<ApiResponse<ReservationDTO>>> updateReservation(
             @Parameter(description = "Reservation ID")
             @PathVariable Integer id,
+            @Parameter(description = "ETag (version) the update is based on")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody UpdateReservationDTO updateReservationDTO) {
-        return ok(reservationHandler.update(id, updateReservationDTO));
+        return okWithETag(Mono.defer(() -> reservationHandler.update(id, updateReservationDTO, parseIfMatch(ifMatch))));
     }
 
     /**
      * Updates only the status of a reservation.
      */
     @PatchMapping("/{id}/status")
-    @Operation(summary = "Update reservation status", description = "Updates only the status of a reservation")
+    @Operation(summary = "Update reservation status", description = "Updates only the status of a reservation. " +
+            "With If-Match the update only happens if the reservation is still at that version, otherwise 412 is returned")
     public Mono<ResponseEntity<ApiResponse<ReservationDTO>>> updateReservationStatus(
             @Parameter(description = "Reservation ID")
             @PathVariable Integer id,
+            @Parameter(description = "ETag (version) the update is based on")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "New reservation status")
             @RequestParam ReservationStatus status) {
-        return ok(reservationHandler.updateStatus(id, status));
+        return okWithETag(Mono.defer(() -> reservationHandler.updateStatus(id, status, parseIfMatch(ifMatch))));
     }
 
     /**
@@ -128,10 +310,18 @@ public class ReservationController extends BaseController<ReservationDTO, Intege
      * Gets reservations by client CPF.
      */
     @GetMapping("/client/{cpf}")
-    @Operation(summary = "Get reservations by client", description = "Retrieves all reservations for a specific client")
+    @Operation(summary = "Get reservations by client", description = "Retrieves reservations for a specific client, paginated when page or size is given")
     public Mono<ResponseEntity<ApiResponse<PageResponse<ReservationDTO>>>> getReservationsByClient(
             @Parameter(description = "Client CPF")
-            @PathVariable String cpf) {
+            @PathVariable String cpf,
+            @Parameter(description = "Page number (0-based)")
+            @RequestParam(required = false) Integer page,
+            @Parameter(description = "Number of items per page")
+            @RequestParam(required = false) Integer size) {
+        if (page != null || size != null) {
+            PaginationParams params = validatePagination(page, size);
+            return okPage(reservationHandler.getByClientCpfPaginated(cpf, params.page(), params.size()));
+        }
         return okList(reservationHandler.getByClientCpf(cpf));
     }
 
@@ -139,10 +329,18 @@ public class ReservationController extends BaseController<ReservationDTO, Intege
      * Gets reservations by vehicle plate.
      */
     @GetMapping("/vehicle/{plate}")
-    @Operation(summary = "Get reservations by vehicle", description = "Retrieves all reservations for a specific vehicle")
+    @Operation(summary = "Get reservations by vehicle", description = "Retrieves reservations for a specific vehicle, paginated when page or size is given")
     public Mono<ResponseEntity<ApiResponse<PageResponse<ReservationDTO>>>> getReservationsByVehicle(
             @Parameter(description = "Vehicle plate")
-            @PathVariable String plate) {
+            @PathVariable String plate,
+            @Parameter(description = "Page number (0-based)")
+            @RequestParam(required = false) Integer page,
+            @Parameter(description = "Number of items per page")
+            @RequestParam(required = false) Integer size) {
+        if (page != null || size != null) {
+            PaginationParams params = validatePagination(page, size);
+            return okPage(reservationHandler.getByVehiclePlatePaginated(plate, params.page(), params.size()));
+        }
         return okList(reservationHandler.getByVehiclePlate(plate));
     }
 
@@ -157,6 +355,57 @@ public class ReservationController extends BaseController<ReservationDTO, Intege
         return okList(reservationHandler.getByStatus(status));
     }
 
+    /**
+     * Streams all reservations as NDJSON or Server-Sent Events.
+     */
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @Operation(summary = "Export reservations", description = "Streams reservations with optional filtering as application/x-ndjson or text/event-stream, one reservation per line/event")
+    public Flux<ReservationDTO> exportReservations(ServerWebExchange exchange,
+                                                   @Parameter(description = "Filter by reservation status")
+                                                   @RequestParam(required = false) ReservationStatus status,
+                                                   @Parameter(description = "Search query for client name or vehicle model/brand")
+                                                   @RequestParam(required = false) String query,
+                                                   @Parameter(description = "Filter by client CPF")
+                                                   @RequestParam(required = false) String cpf) {
+        return authHandler.getUserInfo(exchange)
+                .map(user -> Optional.ofNullable(user.role().equals("CLIENT") ? user.cpf() : cpf))
+                .defaultIfEmpty(Optional.ofNullable(cpf))
+                .flatMapMany(clientCpf -> reservationHandler.streamAll(status, query, clientCpf.orElse(null), null));
+    }
+
+    /**
+     * Streams the reservations of a client as NDJSON or Server-Sent Events.
+     */
+    @GetMapping(value = "/client/{cpf}/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @Operation(summary = "Export reservations by client", description = "Streams the reservations of a specific client as application/x-ndjson or text/event-stream")
+    public Flux<ReservationDTO> exportReservationsByClient(
+            @Parameter(description = "Client CPF")
+            @PathVariable String cpf) {
+        return reservationHandler.getByClientCpf(cpf);
+    }
+
+    /**
+     * Streams the reservations of a vehicle as NDJSON or Server-Sent Events.
+     */
+    @GetMapping(value = "/vehicle/{plate}/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @Operation(summary = "Export reservations by vehicle", description = "Streams the reservations of a specific vehicle as application/x-ndjson or text/event-stream")
+    public Flux<ReservationDTO> exportReservationsByVehicle(
+            @Parameter(description = "Vehicle plate")
+            @PathVariable String plate) {
+        return reservationHandler.getByVehiclePlate(plate);
+    }
+
+    /**
+     * Streams the reservations with a given status as NDJSON or Server-Sent Events.
+     */
+    @GetMapping(value = "/status/{status}/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @Operation(summary = "Export reservations by status", description = "Streams all reservations with a specific status as application/x-ndjson or text/event-stream")
+    public Flux<ReservationDTO> exportReservationsByStatus(
+            @Parameter(description = "Reservation status")
+            @PathVariable ReservationStatus status) {
+        return reservationHandler.getByStatus(status);
+    }
+
     /**
      * Calculates the reservation amount.
      */
@@ -165,7 +414,6 @@ public class ReservationController extends BaseController<ReservationDTO, Intege
     public Mono<ResponseEntity<ApiResponse<Double>>> calculateReservationAmount(
             @RequestBody CalculateReservationAmountRequestDTO requestDTO) {
         return ok(reservationHandler.calculateReservationAmount(
-                LocalDateTime.now(),
                 requestDTO.startDate(),
                 requestDTO.endDate(),
                 requestDTO.vehiclePlate(),
@@ -181,4 +429,35 @@ public class ReservationController extends BaseController<ReservationDTO, Intege
     public Mono<ResponseEntity<ApiResponse<ReservationReportDTO>>> getReservationReport() {
         return ok(reservationHandler.generateReservationReport());
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates a success response carrying the reservation version as ETag.
+     */
+    private Mono<ResponseEntity<ApiResponse<ReservationDTO>>> okWithETag(Mono<ReservationDTO> reservation) {
+        return reservation.map(result -> ResponseEntity.ok()
+                .eTag(etag(result.version()))
+                .body(ApiResponse.success(result)));
+    }
+
+    private static String etag(Integer version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Extracts the expected version from an If-Match header; null when absent or "*".
+     */
+    private static Integer parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        try {
+            return Integer.valueOf(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not match the current reservation version");
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.joabsonlg.sigac_api.reservation.dto;
+
+import java.util.List;
+
+/**
+ * DTO for creating several reservations in a single request.
+ */
+public record CreateReservationBatchDTO(
+        List<CreateReservationDTO> reservations
+) {}
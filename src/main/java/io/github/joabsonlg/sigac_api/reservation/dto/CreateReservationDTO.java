@@ -3,10 +3,12 @@ package io.github.joabsonlg.sigac_api.reservation.dto;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * DTO for creating a new reservation.
  * Contains all required fields for reservation creation.
+ * holdId optionally references an availability hold placed by the same client for the vehicle.
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record CreateReservationDTO(
@@ -15,5 +17,6 @@ public record CreateReservationDTO(
         Integer promotionCode,
         String clientUserCpf,
         String employeeUserCpf,
-        String vehiclePlate
+        String vehiclePlate,
+        UUID holdId
 ) {}
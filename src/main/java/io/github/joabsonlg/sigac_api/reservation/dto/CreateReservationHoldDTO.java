@@ -0,0 +1,16 @@
+package io.github.joabsonlg.sigac_api.reservation.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for placing an availability hold on a vehicle.
+ *
+ * @param ttlSeconds how long the hold lasts; the configured default is used when null
+ */
+public record CreateReservationHoldDTO(
+        String vehiclePlate,
+        String clientUserCpf,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        Integer ttlSeconds
+) {}
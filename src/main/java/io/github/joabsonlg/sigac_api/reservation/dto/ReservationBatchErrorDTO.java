@@ -0,0 +1,14 @@
+package io.github.joabsonlg.sigac_api.reservation.dto;
+
+/**
+ * DTO describing why one row of a reservation batch was not created.
+ *
+ * @param index        zero-based position of the row in the request
+ * @param vehiclePlate vehicle plate of the row, for reference
+ * @param message      reason the row was rejected
+ */
+public record ReservationBatchErrorDTO(
+        int index,
+        String vehiclePlate,
+        String message
+) {}
@@ -0,0 +1,15 @@
+package io.github.joabsonlg.sigac_api.reservation.dto;
+
+import java.util.List;
+
+/**
+ * DTO with the outcome of a reservation batch: the reservations created
+ * (in request order) and the rows that were rejected.
+ */
+public record ReservationBatchResultDTO(
+        int requested,
+        int created,
+        int failed,
+        List<ReservationDTO> reservations,
+        List<ReservationBatchErrorDTO> errors
+) {}
@@ -0,0 +1,14 @@
+package io.github.joabsonlg.sigac_api.reservation.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Fleet occupancy calendar: one day string per vehicle, where position i is the day from + i.
+ */
+public record ReservationCalendarDTO(
+        LocalDate from,
+        LocalDate to,
+        int dayCount,
+        List<VehicleOccupancyDTO> vehicles
+) {}
@@ -0,0 +1,30 @@
+package io.github.joabsonlg.sigac_api.reservation.dto;
+
+import io.github.joabsonlg.sigac_api.reservation.enumeration.ReservationStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one entry of the reservation change feed.
+ * The operation is INSERT, UPDATE or DELETE; RESYNC (with no reservation data) means
+ * changes may have been missed while the feed reconnected and clients should reload.
+ */
+public record ReservationChangeDTO(
+        String operation,
+        Integer id,
+        ReservationStatus status,
+        String vehiclePlate,
+        String clientUserCpf,
+        Integer version,
+        LocalDateTime changedAt
+) {
+    public static final String RESYNC = "RESYNC";
+
+    public static ReservationChangeDTO resync() {
+        return new ReservationChangeDTO(RESYNC, null, null, null, null, null, LocalDateTime.now());
+    }
+
+    public boolean isResync() {
+        return RESYNC.equals(operation);
+    }
+}
@@ -8,6 +8,7 @@ import java.time.LocalDateTime;
 /**
  * DTO for transferring Reservation data.
  * Includes complete reservation information with client and vehicle details.
+ * version is the value to send back in If-Match when updating the reservation.
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record ReservationDTO(
@@ -24,5 +25,6 @@ public record ReservationDTO(
         String vehiclePlate,
         String vehicleModel,
         String vehicleBrand,
-        Double amount
+        Double amount,
+        Integer version
 ) {}
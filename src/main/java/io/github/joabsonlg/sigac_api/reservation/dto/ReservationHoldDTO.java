@@ -0,0 +1,17 @@
+package io.github.joabsonlg.sigac_api.reservation.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for returning availability hold data.
+ * The id is passed back as holdId when the reservation is created.
+ */
+public record ReservationHoldDTO(
+        UUID id,
+        String vehiclePlate,
+        String clientUserCpf,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        LocalDateTime expiresAt
+) {}
@@ -0,0 +1,16 @@
+package io.github.joabsonlg.sigac_api.reservation.dto;
+
+/**
+ * Day-by-day occupancy of one vehicle within a calendar window.
+ *
+ * @param vehiclePlate    the vehicle plate
+ * @param days            one character per day of the window: '.' free, 'R' reserved, 'M' under maintenance
+ * @param reservedDays    number of 'R' days
+ * @param maintenanceDays number of 'M' days
+ */
+public record VehicleOccupancyDTO(
+        String vehiclePlate,
+        String days,
+        int reservedDays,
+        int maintenanceDays
+) {}
@@ -0,0 +1,23 @@
+package io.github.joabsonlg.sigac_api.reservation.enumeration;
+
+/**
+ * Enum representing how the total of a paginated reservation listing is obtained.
+ */
+public enum TotalCountMode {
+
+    /**
+     * Runs an exact COUNT(*) with the same filters as the page query.
+     */
+    EXACT,
+
+    /**
+     * Uses a recent cached count for status/client filters, or the query planner row estimate
+     * when none is cached or a free-text query is given.
+     */
+    ESTIMATED,
+
+    /**
+     * Skips the total entirely; hasNext is derived by fetching one extra row.
+     */
+    NONE
+}
@@ -0,0 +1,114 @@
+package io.github.joabsonlg.sigac_api.reservation.handler;
+
+import io.github.joabsonlg.sigac_api.reservation.enumeration.ReservationStatus;
+import io.github.joabsonlg.sigac_api.reservation.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves finished reservations out of the live reservation table.
+ * COMPLETED and CANCELLED reservations whose reservation month is older than the retention period
+ * are moved, with their payments, to the monthly partitions of archive.reservation (V15), so the
+ * live table and its indexes only hold recent and active bookings.
+ *
+ * Each batch is one transaction: the archive partitions are created if missing, the rows are moved
+ * with a single statement and the archived:* report metrics are adjusted. Batches take a
+ * transaction-scoped advisory lock, so when several nodes run the job only one of them works at a time.
+ */
+@Service
+public class ReservationArchiveHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationArchiveHandler.class);
+
+    static final long ARCHIVE_LOCK_KEY = 0x5349_4741_4302L;
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationStatsHandler statsHandler;
+    private final TransactionalOperator transactionalOperator;
+    private final int retentionMonths;
+    private final int batchSize;
+
+    public ReservationArchiveHandler(ReservationRepository reservationRepository,
+                                     ReservationStatsHandler statsHandler,
+                                     TransactionalOperator transactionalOperator,
+                                     @Value("${sigac.reservation-archive.retention-months:12}") int retentionMonths,
+                                     @Value("${sigac.reservation-archive.batch-size:1000}") int batchSize) {
+        this.reservationRepository = reservationRepository;
+        this.statsHandler = statsHandler;
+        this.transactionalOperator = transactionalOperator;
+        this.retentionMonths = retentionMonths;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Archives every finished reservation made before the first day of the month retentionMonths ago.
+     */
+    @Scheduled(fixedDelayString = "${sigac.reservation-archive.interval:PT6H}",
+               initialDelayString = "${sigac.reservation-archive.interval:PT6H}")
+    public Mono<Void> archive() {
+        LocalDateTime cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths).atStartOfDay();
+        return archiveBatch(cutoff)
+                .expand(count -> count == batchSize ? archiveBatch(cutoff) : Mono.empty())
+                .reduce(0L, Long::sum)
+                .doOnNext(total -> {
+                    if (total > 0) {
+                        logger.info("Archived {} finished reservations made before {}", total, cutoff.toLocalDate());
+                    }
+                })
+                .then()
+                .onErrorResume(error -> {
+                    logger.warn("Reservation archive failed: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Long> archiveBatch(LocalDateTime cutoff) {
+        Mono<Long> batch = reservationRepository.tryAdvisoryXactLock(ARCHIVE_LOCK_KEY)
+                .flatMap(locked -> {
+                    if (!locked) {
+                        return Mono.just(0L);
+                    }
+                    return reservationRepository.markArchivingTransaction()
+                            .then(reservationRepository.ensureArchivePartitions(cutoff))
+                            .then(reservationRepository.archiveFinished(cutoff, batchSize).collectList())
+                            .flatMap(this::recordArchived);
+                });
+        return transactionalOperator.transactional(batch);
+    }
+
+    /**
+     * Adjusts the report metrics for an archived batch.
+     *
+     * @return number of reservations archived
+     */
+    private Mono<Long> recordArchived(List<Object[]> rows) {
+        Map<ReservationStatus, Long> counts = new EnumMap<>(ReservationStatus.class);
+        BigDecimal paidAmount = BigDecimal.ZERO;
+        long archived = 0;
+        for (Object[] row : rows) {
+            BigDecimal value = (BigDecimal) row[1];
+            if (row[0] == null) {
+                paidAmount = paidAmount.add(value);
+            } else {
+                counts.put((ReservationStatus) row[0], value.longValue());
+                archived += value.longValue();
+            }
+        }
+        if (archived == 0) {
+            return Mono.just(0L);
+        }
+        return statsHandler.recordArchived(counts, paidAmount).thenReturn(archived);
+    }
+}
@@ -1,34 +1,72 @@
 package io.github.joabsonlg.sigac_api.reservation.handler;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.github.joabsonlg.sigac_api.common.base.BaseHandler;
+import io.github.joabsonlg.sigac_api.common.exception.PreconditionFailedException;
 import io.github.joabsonlg.sigac_api.common.exception.ResourceNotFoundException;
 import io.github.joabsonlg.sigac_api.common.exception.ValidationException;
 import io.github.joabsonlg.sigac_api.common.response.PageResponse;
+import io.github.joabsonlg.sigac_api.common.util.CursorUtil;
+import io.github.joabsonlg.sigac_api.event.enumeration.DomainEventType;
+import io.github.joabsonlg.sigac_api.event.handler.OutboxHandler;
 import io.github.joabsonlg.sigac_api.payment.enumeration.PaymentMethod;
+import io.github.joabsonlg.sigac_api.payment.model.Payment;
 import io.github.joabsonlg.sigac_api.payment.repository.PaymentRepository;
+import io.github.joabsonlg.sigac_api.reservation.availability.VehicleAvailabilityIndex;
+import io.github.joabsonlg.sigac_api.reservation.changefeed.ReservationChangeFeed;
+import io.github.joabsonlg.sigac_api.reservation.dto.CreateReservationBatchDTO;
 import io.github.joabsonlg.sigac_api.reservation.dto.CreateReservationDTO;
+import io.github.joabsonlg.sigac_api.reservation.dto.ReservationBatchErrorDTO;
+import io.github.joabsonlg.sigac_api.reservation.dto.ReservationBatchResultDTO;
+import io.github.joabsonlg.sigac_api.reservation.dto.ReservationCalendarDTO;
+import io.github.joabsonlg.sigac_api.reservation.dto.ReservationChangeDTO;
 import io.github.joabsonlg.sigac_api.reservation.dto.ReservationDTO;
 import io.github.joabsonlg.sigac_api.reservation.dto.UpdateReservationDTO;
+import io.github.joabsonlg.sigac_api.reservation.dto.VehicleOccupancyDTO;
 import io.github.joabsonlg.sigac_api.reservation.enumeration.ReservationStatus;
+import io.github.joabsonlg.sigac_api.reservation.enumeration.TotalCountMode;
+import io.github.joabsonlg.sigac_api.reservation.model.AmountSnapshot;
 import io.github.joabsonlg.sigac_api.reservation.model.Reservation;
+import io.github.joabsonlg.sigac_api.reservation.pricing.PricingEngine;
+import io.github.joabsonlg.sigac_api.reservation.pricing.QuoteCache;
 import io.github.joabsonlg.sigac_api.reservation.repository.ReservationRepository;
 import io.github.joabsonlg.sigac_api.reservation.validator.ReservationValidator;
-import io.github.joabsonlg.sigac_api.vehicle.enumeration.VehicleStatus;
-import io.github.joabsonlg.sigac_api.vehicle.handler.VehicleHandler;
+import io.github.joabsonlg.sigac_api.dailyRate.cache.RateTimeline;
 import io.github.joabsonlg.sigac_api.dailyRate.handler.DailyRateHandler;
+import io.github.joabsonlg.sigac_api.promotion.dto.PromotionDTO;
+import io.github.joabsonlg.sigac_api.promotion.enumeration.PromotionStatus;
 import io.github.joabsonlg.sigac_api.promotion.handler.PromotionHandler;
 import io.github.joabsonlg.sigac_api.payment.handler.PaymentHandler;
 import io.github.joabsonlg.sigac_api.payment.dto.CreatePaymentDTO;
 import io.github.joabsonlg.sigac_api.payment.enumeration.PaymentStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.stream.IntStream;
 import io.github.joabsonlg.sigac_api.reservation.dto.ReservationReportDTO;
 import java.math.BigDecimal;
 
@@ -39,27 +77,61 @@ import java.math.BigDecimal;
 @Service
 public class ReservationHandler extends BaseHandler<Reservation, ReservationDTO, Integer> {
 
+    private static final Logger logger = LoggerFactory.getLogger(ReservationHandler.class);
+
+    private static final int PRICING_CHUNK_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 200;
+    private static final Duration PRICING_CHUNK_MAX_WAIT = Duration.ofMillis(50);
+    private static final Duration COUNT_CACHE_TTL = Duration.ofSeconds(60);
+    private static final int COUNT_CACHE_MAX_ENTRIES = 1000;
+    private static final int MAX_COUNT_REFRESHES = 2;
+    private static final int MAX_CALENDAR_DAYS = 366;
+    private static final char CALENDAR_FREE = '.';
+    private static final char CALENDAR_RESERVED = 'R';
+    private static final char CALENDAR_MAINTENANCE = 'M';
+
     private final ReservationRepository reservationRepository;
     private final ReservationValidator reservationValidator;
-    private final VehicleHandler vehicleHandler;
+    private final OutboxHandler outboxHandler;
     private final DailyRateHandler dailyRateHandler;
     private final PromotionHandler promotionHandler;
     private final PaymentHandler paymentHandler;
     private final PaymentRepository paymentRepository;
+    private final VehicleAvailabilityIndex availabilityIndex;
+    private final ReservationStatsHandler statsHandler;
+    private final ReservationHoldHandler holdHandler;
+    private final ReservationChangeFeed changeFeed;
+    private final QuoteCache quoteCache;
+    private final Cache<String, Long> countCache = Caffeine.newBuilder()
+        .maximumSize(COUNT_CACHE_MAX_ENTRIES)
+        .expireAfterWrite(COUNT_CACHE_TTL)
+        .build();
+    private final Set<String> countRefreshes = ConcurrentHashMap.newKeySet();
+    private final Semaphore countRefreshPermits = new Semaphore(MAX_COUNT_REFRESHES);
 
     public ReservationHandler(ReservationRepository reservationRepository,
                               ReservationValidator reservationValidator,
-                              VehicleHandler vehicleHandler,
+                              OutboxHandler outboxHandler,
                               DailyRateHandler dailyRateHandler,
                               PromotionHandler promotionHandler,
-                              PaymentHandler paymentHandler, PaymentRepository paymentRepository) {
+                              PaymentHandler paymentHandler, PaymentRepository paymentRepository,
+                              VehicleAvailabilityIndex availabilityIndex,
+                              ReservationStatsHandler statsHandler,
+                              ReservationHoldHandler holdHandler,
+                              ReservationChangeFeed changeFeed,
+                              QuoteCache quoteCache) {
         this.reservationRepository = reservationRepository;
         this.reservationValidator = reservationValidator;
-        this.vehicleHandler = vehicleHandler;
+        this.outboxHandler = outboxHandler;
         this.dailyRateHandler = dailyRateHandler;
         this.promotionHandler = promotionHandler;
         this.paymentHandler = paymentHandler;
         this.paymentRepository = paymentRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.statsHandler = statsHandler;
+        this.holdHandler = holdHandler;
+        this.changeFeed = changeFeed;
+        this.quoteCache = quoteCache;
     }
 
     @Override
@@ -82,12 +154,13 @@ public class ReservationHandler extends BaseHandler<Reservation, ReservationDTO,
             entity.vehiclePlate(),
             vehicleModel,
             vehicleBrand,
-            amount
+            amount,
+            entity.version()
         );
     }
 
-    private ReservationDTO toDto(Reservation entity, Double amount) {
-        return toDto(entity, null, null, null, null, amount);
+    private ReservationDTO toDto(Reservation entity, BigDecimal amount) {
+        return toDto(entity, null, null, null, null, amount != null ? amount.doubleValue() : null);
     }
 
     @Override
@@ -101,14 +174,15 @@ public class ReservationHandler extends BaseHandler<Reservation, ReservationDTO,
             dto.promotionCode(),
             dto.clientUserCpf(),
             dto.employeeUserCpf(),
-            dto.vehiclePlate()
+            dto.vehiclePlate(),
+            dto.version()
         );
     }
 
     /**
      * Converts array of reservation info to ReservationDTO
      */
-    private ReservationDTO arrayToReservationDto(Object[] reservationInfo, Double amount) {
+    private ReservationDTO arrayToReservationDto(Object[] reservationInfo, BigDecimal amount) {
         return new ReservationDTO(
             (Integer) reservationInfo[0],           // id
             (LocalDateTime) reservationInfo[1],     // startDate
@@ -123,7 +197,8 @@ public class ReservationHandler extends BaseHandler<Reservation, ReservationDTO,
             (String) reservationInfo[10],           // vehiclePlate
             (String) reservationInfo[11],           // vehicleModel
             (String) reservationInfo[12],           // vehicleBrand
-            amount
+            amount != null ? amount.doubleValue() : null,
+            (Integer) reservationInfo[14]           // version
         );
     }
 
@@ -131,8 +206,7 @@ public class ReservationHandler extends BaseHandler<Reservation, ReservationDTO,
      * Gets all reservations with complete information
      */
     public Flux<ReservationDTO> getAll() {
-        return reservationRepository.findAllWithDetails()
-                .flatMap(this::mapReservationInfoToDtoWithAmount);
+        return priceReservationStream(reservationRepository.streamAllWithDetailsAndFilters(null, null, null, null));
     }
 
     /**
@@ -150,55 +224,254 @@ public class ReservationHandler extends BaseHandler<Reservation, ReservationDTO,
     public Mono<PageResponse<ReservationDTO>> getAllPaginated(int page, int size,
                                                              ReservationStatus status,
                                                              String query, String cpf) {
-        Flux<ReservationDTO> reservations = reservationRepository
-            .findAllWithDetailsAndFilters(status, query, cpf, page, size)
-            .flatMap(this::mapReservationInfoToDtoWithAmount);
+        Flux<ReservationDTO> reservations = priceReservationPage(reservationRepository
+            .findAllWithDetailsAndFilters(status, query, cpf, page, size));
 
-        Mono<Long> totalElements = reservationRepository.countWithFilters(status, query, cpf);
+        Mono<Long> totalElements = countReservations(status, query, cpf);
 
         return createPageResponse(reservations, page, size, totalElements);
     }
 
-    private Mono<ReservationDTO> mapReservationInfoToDtoWithAmount(Object[] reservationInfo) {
-        Integer promotionCode = (Integer) reservationInfo[5];
-        String vehiclePlate = (String) reservationInfo[10];
-        LocalDateTime startDate = (LocalDateTime) reservationInfo[1];
-        LocalDateTime endDate = (LocalDateTime) reservationInfo[2];
-        LocalDateTime reservationDate = (LocalDateTime) reservationInfo[3];
+    /**
+     * Gets paginated reservations with filtering, choosing how the total is obtained.
+     * Outside EXACT mode no count query is run with the page: one extra row is fetched
+     * to derive hasNext and the total is either omitted or estimated.
+     */
+    public Mono<PageResponse<ReservationDTO>> getAllPaginated(int page, int size,
+                                                             ReservationStatus status,
+                                                             String query, String cpf,
+                                                             TotalCountMode countMode) {
+        if (countMode == TotalCountMode.EXACT) {
+            return getAllPaginated(page, size, status, query, cpf);
+        }
+
+        Mono<List<Object[]>> rows = reservationRepository
+            .findSliceWithDetailsAndFilters(status, query, cpf, null, page, size)
+            .collectList();
+
+        return Mono.zip(rows, resolveTotal(countMode, status, query, cpf))
+            .flatMap(tuple -> {
+                List<Object[]> fetched = tuple.getT1();
+                boolean hasNext = fetched.size() > size;
+                List<Object[]> pageRows = hasNext ? fetched.subList(0, size) : fetched;
+                Long total = tuple.getT2().orElse(null);
+                return priceReservations(pageRows)
+                    .collectList()
+                    .map(content -> PageResponse.ofSlice(content, page, size, hasNext, total,
+                        countMode == TotalCountMode.ESTIMATED));
+            });
+    }
 
-        Mono<Double> dailyRateMono = dailyRateHandler.getDailyRateForReservation(vehiclePlate, reservationDate)
-                .map(dailyRate -> dailyRate.amount())
-                .defaultIfEmpty(0.0);
+    /**
+     * Gets reservations using keyset pagination.
+     * Fetches one extra row to know whether a following page exists and returns
+     * the cursor of the last row in the page as nextCursor.
+     * The total is only computed when asked for: a cursor walk would otherwise pay for
+     * one count query per page.
+     *
+     * @param after cursor returned by the previous page, or null/blank for the first page
+     * @param countMode how to obtain the total; NONE leaves it out of the response
+     */
+    public Mono<PageResponse<ReservationDTO>> getAllAfterCursor(String after, int size,
+                                                                ReservationStatus status,
+                                                                String query, String cpf,
+                                                                TotalCountMode countMode) {
+        return Mono.defer(() -> findPageAfterCursor(CursorUtil.decode(after), size, status, query, cpf, countMode));
+    }
+
+    private Mono<PageResponse<ReservationDTO>> findPageAfterCursor(CursorUtil.Keyset position, int size,
+                                                                   ReservationStatus status,
+                                                                   String query, String cpf,
+                                                                   TotalCountMode countMode) {
+        LocalDateTime afterDate = position != null ? position.timestamp() : null;
+        Integer afterId = position != null ? position.id() : null;
+
+        Mono<List<Object[]>> rows = reservationRepository
+            .findAllWithDetailsAfter(status, query, cpf, null, afterDate, afterId, size + 1)
+            .collectList();
+
+        return Mono.zip(rows, resolveTotal(countMode, status, query, cpf))
+            .flatMap(tuple -> {
+                List<Object[]> fetched = tuple.getT1();
+                boolean hasMore = fetched.size() > size;
+                List<Object[]> pageRows = hasMore ? fetched.subList(0, size) : fetched;
+                String nextCursor = null;
+                if (hasMore) {
+                    Object[] last = pageRows.get(pageRows.size() - 1);
+                    nextCursor = CursorUtil.encode((LocalDateTime) last[3], (Integer) last[0]);
+                }
+                String cursor = nextCursor;
+                Long total = tuple.getT2().orElse(null);
+                return priceReservations(pageRows)
+                    .collectList()
+                    .map(content -> PageResponse.ofCursor(content, size, total,
+                        countMode == TotalCountMode.ESTIMATED, position != null, cursor));
+            });
+    }
+
+    /**
+     * Resolves the listing total according to the count mode.
+     * ESTIMATED with a free-text query always answers from the planner estimate. Without one
+     * (status and client filters only, a small set of keys) it answers from a count cached within
+     * COUNT_CACHE_TTL, otherwise from the planner estimate while an exact count is refreshed in
+     * the background for the next request; at most MAX_COUNT_REFRESHES refreshes run at a time.
+     */
+    private Mono<Optional<Long>> resolveTotal(TotalCountMode countMode, ReservationStatus status,
+                                              String query, String cpf) {
+        return switch (countMode) {
+            case NONE -> Mono.just(Optional.empty());
+            case EXACT -> countReservations(status, query, cpf).map(Optional::of);
+            case ESTIMATED -> {
+                if (query == null || query.isBlank()) {
+                    String key = countCacheKey(status, cpf);
+                    Long cached = countCache.getIfPresent(key);
+                    if (cached != null) {
+                        yield Mono.just(Optional.of(cached));
+                    }
+                    refreshCount(key, status, cpf);
+                }
+                yield reservationRepository.estimateWithFilters(status, query, cpf, null)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty());
+            }
+        };
+    }
+
+    /**
+     * Runs the exact count for the filters.
+     */
+    private Mono<Long> countReservations(ReservationStatus status, String query, String cpf) {
+        return reservationRepository.countWithFilters(status, query, cpf);
+    }
 
-        Mono<Double> discountMono = Mono.just(0.0);
-        if (promotionCode != null) {
-            discountMono = promotionHandler.getById(promotionCode)
-                    .filter(promo -> promo.isCurrentlyValid())
-                    .map(promo -> promo.discountPercentage() / 100.0)
-                    .defaultIfEmpty(0.0);
+    /**
+     * Counts a listing key in the background and caches the result. Skipped while the same key
+     * is being counted or MAX_COUNT_REFRESHES counts are already running.
+     */
+    private void refreshCount(String key, ReservationStatus status, String cpf) {
+        if (!countRefreshes.add(key)) {
+            return;
         }
+        if (!countRefreshPermits.tryAcquire()) {
+            countRefreshes.remove(key);
+            return;
+        }
+        countReservations(status, null, cpf)
+            .doFinally(signal -> {
+                countRefreshes.remove(key);
+                countRefreshPermits.release();
+            })
+            .subscribe(count -> countCache.put(key, count),
+                error -> logger.warn("Could not refresh reservation count for {}: {}", key, error.getMessage()));
+    }
 
-        return Mono.zip(dailyRateMono, discountMono)
-                .map(tuple -> {
-                    Double dailyRate = tuple.getT1();
-                    Double discountPercentage = tuple.getT2();
-                    long hours = java.time.Duration.between(startDate, endDate).toHours();
-                    double calculatedAmount = (dailyRate / 24.0) * hours;
-                    calculatedAmount *= (1.0 - discountPercentage);
-                    return arrayToReservationDto(reservationInfo, calculatedAmount);
-                });
+    private static String countCacheKey(ReservationStatus status, String cpf) {
+        return status + "|" + cpf;
+    }
+
+    /**
+     * Prices a page of detailed reservation rows, PRICING_CHUNK_SIZE rows at a time.
+     * Rows carrying a persisted total_amount are projected as-is; for the remaining ones
+     * (written before the snapshot existed) the plates and promotion codes of each window
+     * are resolved in one query each and the amounts are computed in memory.
+     * Meant for bounded queries; unpaged listings go through priceReservationStream.
+     */
+    private Flux<ReservationDTO> priceReservationPage(Flux<Object[]> reservationRows) {
+        return reservationRows.buffer(PRICING_CHUNK_SIZE)
+                .concatMap(this::priceReservations);
+    }
+
+    /**
+     * Prices an unbounded stream of detailed reservation rows in fixed-size chunks,
+     * so memory stays bounded while keeping the set-based lookups per chunk.
+     * A partial chunk is flushed after PRICING_CHUNK_MAX_WAIT so the first rows go out without delay.
+     */
+    private Flux<ReservationDTO> priceReservationStream(Flux<Object[]> reservationRows) {
+        return reservationRows.bufferTimeout(PRICING_CHUNK_SIZE, PRICING_CHUNK_MAX_WAIT, true)
+                .concatMap(this::priceReservations);
+    }
+
+    private Flux<ReservationDTO> priceReservations(List<Object[]> reservationRows) {
+        if (reservationRows.isEmpty()) {
+            return Flux.empty();
+        }
+
+        boolean allSnapshotted = reservationRows.stream().allMatch(reservationInfo -> reservationInfo[13] != null);
+        if (allSnapshotted) {
+            return Flux.fromIterable(reservationRows)
+                    .map(reservationInfo -> arrayToReservationDto(reservationInfo, (BigDecimal) reservationInfo[13]));
+        }
+
+        Set<String> plates = new HashSet<>();
+        Set<Integer> promotionCodes = new HashSet<>();
+        for (Object[] reservationInfo : reservationRows) {
+            if (reservationInfo[13] != null) {
+                continue;
+            }
+            plates.add((String) reservationInfo[10]);
+            if (reservationInfo[5] != null) {
+                promotionCodes.add((Integer) reservationInfo[5]);
+            }
+        }
+
+        Mono<Map<String, RateTimeline>> timelinesMono = dailyRateHandler.getRateTimelines(plates);
+        Mono<Map<Integer, PromotionDTO>> promotionsMono = promotionHandler.getByCodes(promotionCodes)
+                .collectMap(PromotionDTO::code);
+
+        return Mono.zip(timelinesMono, promotionsMono)
+                .flatMapMany(tuple -> Flux.fromIterable(reservationRows)
+                        .map(reservationInfo -> {
+                            if (reservationInfo[13] != null) {
+                                return arrayToReservationDto(reservationInfo, (BigDecimal) reservationInfo[13]);
+                            }
+                            PromotionDTO promotion = reservationInfo[5] != null ? tuple.getT2().get((Integer) reservationInfo[5]) : null;
+                            AmountSnapshot amount = priceOf(
+                                tuple.getT1().get((String) reservationInfo[10]),
+                                discountOf(promotion),
+                                (LocalDateTime) reservationInfo[1],
+                                (LocalDateTime) reservationInfo[2]);
+                            return arrayToReservationDto(reservationInfo, amount.totalAmount());
+                        }));
+    }
+
+    /**
+     * Returns the discount fraction of a promotion, or zero when it is absent or not currently valid.
+     */
+    private double discountOf(PromotionDTO promotion) {
+        if (promotion == null || !Boolean.TRUE.equals(promotion.isCurrentlyValid())) {
+            return 0.0;
+        }
+        return promotion.discountPercentage() / 100.0;
+    }
+
+    /**
+     * Prices a rental period against the vehicle's daily rate timeline (see PricingEngine).
+     * The snapshot keeps the daily rate in force at the start of the period.
+     */
+    private AmountSnapshot priceOf(RateTimeline timeline, double discount, LocalDateTime startDate, LocalDateTime endDate) {
+        long startMicros = RateTimeline.toMicros(startDate);
+        long netCents = PricingEngine.price(timeline, startMicros, RateTimeline.toMicros(endDate),
+                PricingEngine.toBasisPoints(discount));
+        return new AmountSnapshot(
+            BigDecimal.valueOf(PricingEngine.rateCentsAt(timeline, startMicros), 2),
+            BigDecimal.valueOf(discount),
+            BigDecimal.valueOf(netCents, 2));
     }
 
     /**
-     * Creates a new reservation
+     * Creates a new reservation. The vehicle's plate lock is held from the availability check to
+     * the commit, so holds and reservations placed through other instances cannot interleave.
      */
     @Transactional
     public Mono<ReservationDTO> create(CreateReservationDTO createDto) {
         return reservationValidator.validateCreateReservation(createDto)
+                .then(holdHandler.validateOwnership(createDto.holdId(), createDto.clientUserCpf(), createDto.vehiclePlate()))
+                .then(Mono.defer(() -> reservationRepository.lockVehiclePlates(List.of(createDto.vehiclePlate()))))
                 .then(checkVehicleAvailability(createDto.vehiclePlate(),
                                              createDto.startDate(),
                                              createDto.endDate(),
-                                             null))
+                                             null,
+                                             createDto.clientUserCpf()))
                 .then(Mono.fromCallable(() -> {
                     String employeeCpf = createDto.employeeUserCpf();
                     // Se não houver funcionário, deixa nulo
@@ -217,29 +490,259 @@ public class ReservationHandler extends BaseHandler<Reservation, ReservationDTO,
                         createDto.vehiclePlate()
                     );
                 }))
-                .flatMap(reservationRepository::save)
-                .flatMap(savedReservation -> {
-                    return calculateReservationAmount(savedReservation.reservationDate(), savedReservation.startDate(), savedReservation.endDate(), savedReservation.vehiclePlate(), savedReservation.promotionCode())
-                            .flatMap(amount -> {
-                                CreatePaymentDTO paymentDTO = new CreatePaymentDTO(
-                                    (long) savedReservation.id(),
-                                    PaymentMethod.PIX,
-                                    BigDecimal.valueOf(amount)
-                                );
-                                return paymentHandler.create(paymentDTO)
-                                        .thenReturn(toDto(savedReservation, amount));
-                            });
+                .flatMap(reservation -> quoteReservation(reservation.startDate(), reservation.endDate(), reservation.vehiclePlate(), reservation.promotionCode())
+                        .flatMap(snapshot -> reservationRepository.save(reservation, snapshot)
+                                .flatMap(savedReservation -> statsHandler.recordCreated(savedReservation.status(), 1)
+                                        .then(outboxHandler.append(DomainEventType.RESERVATION_CREATED, savedReservation.id(),
+                                                createdPayload(savedReservation, snapshot.totalAmount())))
+                                        .thenReturn(savedReservation))
+                                .flatMap(savedReservation -> {
+                                    CreatePaymentDTO paymentDTO = new CreatePaymentDTO(
+                                        (long) savedReservation.id(),
+                                        PaymentMethod.PIX,
+                                        snapshot.totalAmount()
+                                    );
+                                    return paymentHandler.create(paymentDTO)
+                                            .then(afterCommit(() -> availabilityIndex.track(savedReservation)))
+                                            .then(holdHandler.consume(createDto.holdId()))
+                                            .thenReturn(toDto(savedReservation, snapshot.totalAmount()));
+                                })));
+    }
+
+    /**
+     * Creates several reservations in one transaction.
+     * All rows are validated up front (fields, overlaps inside the batch), then checked against
+     * the database (references, active reservations, other clients' holds) in a single query; the accepted rows are priced with set-based
+     * lookups, inserted with their amount snapshots in one multi-row statement and paid with one
+     * multi-row payment insert.
+     * Rejected rows are reported with their position instead of failing the whole batch, including
+     * rows the insert skipped because a concurrent booking of the same vehicle committed first.
+     */
+    @Transactional
+    public Mono<ReservationBatchResultDTO> createBatch(CreateReservationBatchDTO batchDto) {
+        List<CreateReservationDTO> requested = batchDto != null && batchDto.reservations() != null
+                ? batchDto.reservations() : List.of();
+        if (requested.isEmpty()) {
+            return Mono.error(new ValidationException("At least one reservation is required"));
+        }
+        if (requested.size() > MAX_BATCH_SIZE) {
+            return Mono.error(new ValidationException(
+                "A batch cannot contain more than " + MAX_BATCH_SIZE + " reservations"));
+        }
+
+        Map<Integer, String> errors = new TreeMap<>();
+        LocalDateTime reservationDate = LocalDateTime.now();
+
+        return Flux.range(0, requested.size())
+                .concatMap(index -> reservationValidator.validateCreateReservation(requested.get(index))
+                        .then(Mono.<String>empty())
+                        .onErrorResume(ValidationException.class, e -> Mono.just(e.getMessage()))
+                        .doOnNext(message -> errors.put(index, message)))
+                .then(Mono.fromCallable(() -> {
+                    rejectOverlapsWithinBatch(requested, errors);
+                    List<Integer> candidates = new ArrayList<>();
+                    for (int index = 0; index < requested.size(); index++) {
+                        if (!errors.containsKey(index)) {
+                            candidates.add(index);
+                        }
+                    }
+                    return candidates;
+                }))
+                .flatMap(candidates -> {
+                    List<Reservation> candidateReservations = candidates.stream()
+                            .map(index -> newReservation(requested.get(index), reservationDate))
+                            .toList();
+                    return reservationRepository.lockVehiclePlates(candidateReservations.stream()
+                                    .map(Reservation::vehiclePlate)
+                                    .toList())
+                            .thenMany(reservationRepository.findBatchProblems(candidateReservations))
+                            .doOnNext(problem -> errors.put(candidates.get((Integer) problem[0]),
+                                batchProblemMessage((String) problem[1])))
+                            .then(Mono.fromCallable(() -> candidates.stream()
+                                    .filter(index -> !errors.containsKey(index))
+                                    .toList()));
+                })
+                .flatMap(accepted -> {
+                    List<Reservation> toSave = accepted.stream()
+                            .map(index -> newReservation(requested.get(index), reservationDate))
+                            .toList();
+                    return priceNewReservations(toSave)
+                            .flatMap(amounts -> reservationRepository.saveAll(toSave, amounts)
+                                    .collectList()
+                                    .map(inserted -> {
+                                        // Rows skipped by the insert lost the race to a concurrent booking
+                                        List<Reservation> saved = new ArrayList<>(inserted.size());
+                                        List<AmountSnapshot> savedAmounts = new ArrayList<>(inserted.size());
+                                        for (int position = 0; position < inserted.size(); position++) {
+                                            if (inserted.get(position).id() == null) {
+                                                errors.put(accepted.get(position), "Vehicle is not available for the selected date range");
+                                            } else {
+                                                saved.add(inserted.get(position));
+                                                savedAmounts.add(amounts.get(position));
+                                            }
+                                        }
+                                        return new SavedBatch(saved, savedAmounts);
+                                    }));
+                })
+                .flatMap(batch -> recordCreatedBatch(batch.reservations(), batch.amounts()))
+                .map(created -> {
+                    List<ReservationBatchErrorDTO> rejected = errors.entrySet().stream()
+                            .map(error -> new ReservationBatchErrorDTO(
+                                error.getKey(),
+                                requested.get(error.getKey()).vehiclePlate(),
+                                error.getValue()))
+                            .toList();
+                    return new ReservationBatchResultDTO(
+                        requested.size(), created.size(), rejected.size(), created, rejected);
+                });
+    }
+
+    /**
+     * Reservations inserted by a batch, with their amount snapshots in the same order.
+     */
+    private record SavedBatch(List<Reservation> reservations, List<AmountSnapshot> amounts) {}
+
+    /**
+     * Records the stats, outbox events and payments of the reservations inserted by a batch.
+     *
+     * @return the created reservations, in insertion order
+     */
+    private Mono<List<ReservationDTO>> recordCreatedBatch(List<Reservation> saved, List<AmountSnapshot> amounts) {
+        if (saved.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return statsHandler.recordCreated(ReservationStatus.PENDING, saved.size())
+                .then(outboxHandler.appendAll(IntStream.range(0, saved.size())
+                        .mapToObj(position -> outboxHandler.event(DomainEventType.RESERVATION_CREATED,
+                            saved.get(position).id(),
+                            createdPayload(saved.get(position), amounts.get(position).totalAmount())))
+                        .toList()))
+                .thenMany(paymentRepository.saveAll(IntStream.range(0, saved.size())
+                        .mapToObj(position -> new Payment(
+                            null,
+                            (long) saved.get(position).id(),
+                            null,
+                            PaymentMethod.PIX,
+                            amounts.get(position).totalAmount(),
+                            PaymentStatus.PENDING))
+                        .toList()))
+                .map(payment -> outboxHandler.event(DomainEventType.PAYMENT_CREATED, payment.id(),
+                        PaymentHandler.createdPayload(payment)))
+                .collectList()
+                .flatMap(outboxHandler::appendAll)
+                .then(afterCommit(() -> saved.forEach(availabilityIndex::track)))
+                .then(Mono.fromCallable(() -> {
+                    List<ReservationDTO> created = new ArrayList<>(saved.size());
+                    for (int position = 0; position < saved.size(); position++) {
+                        created.add(toDto(saved.get(position), amounts.get(position).totalAmount()));
+                    }
+                    return created;
+                }));
+    }
+
+    /**
+     * Marks batch rows whose period overlaps an earlier row for the same vehicle.
+     * Overlaps with existing reservations and holds are left to findBatchProblems, which asks the database.
+     */
+    private void rejectOverlapsWithinBatch(List<CreateReservationDTO> requested, Map<Integer, String> errors) {
+        Map<String, List<Integer>> acceptedByPlate = new HashMap<>();
+        for (int index = 0; index < requested.size(); index++) {
+            if (errors.containsKey(index)) {
+                continue;
+            }
+            CreateReservationDTO row = requested.get(index);
+            List<Integer> samePlate = acceptedByPlate.computeIfAbsent(row.vehiclePlate(), plate -> new ArrayList<>());
+            boolean overlaps = samePlate.stream()
+                    .map(requested::get)
+                    .anyMatch(other -> !other.startDate().isAfter(row.endDate()) && !other.endDate().isBefore(row.startDate()));
+            if (overlaps) {
+                errors.put(index, "Overlaps another reservation of the same vehicle in this batch");
+            } else {
+                samePlate.add(index);
+            }
+        }
+    }
+
+    private Reservation newReservation(CreateReservationDTO createDto, LocalDateTime reservationDate) {
+        String employeeCpf = createDto.employeeUserCpf();
+        if (employeeCpf == null || employeeCpf.isBlank()) {
+            employeeCpf = null;
+        }
+        return new Reservation(
+            null,
+            createDto.startDate(),
+            createDto.endDate(),
+            reservationDate,
+            ReservationStatus.PENDING,
+            createDto.promotionCode(),
+            createDto.clientUserCpf(),
+            employeeCpf,
+            createDto.vehiclePlate()
+        );
+    }
+
+    private static String batchProblemMessage(String problem) {
+        return switch (problem) {
+            case "VEHICLE_NOT_FOUND" -> "Vehicle not found";
+            case "CLIENT_NOT_FOUND" -> "Client not found";
+            case "EMPLOYEE_NOT_FOUND" -> "Employee not found";
+            case "PROMOTION_NOT_FOUND" -> "Promotion not found";
+            default -> "Vehicle is not available for the selected date range";
+        };
+    }
+
+    /**
+     * Prices reservations about to be created with one daily rate timeline lookup and one promotion lookup.
+     *
+     * @return amount snapshots in the same order as the reservations
+     */
+    private Mono<List<AmountSnapshot>> priceNewReservations(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        Set<String> plates = new HashSet<>();
+        Set<Integer> promotionCodes = new HashSet<>();
+        for (Reservation reservation : reservations) {
+            plates.add(reservation.vehiclePlate());
+            if (reservation.promotionCode() != null) {
+                promotionCodes.add(reservation.promotionCode());
+            }
+        }
+
+        Mono<Map<String, RateTimeline>> timelinesMono = dailyRateHandler.getRateTimelines(plates);
+        Mono<Map<Integer, PromotionDTO>> promotionsMono = promotionHandler.getByCodes(promotionCodes)
+                .collectMap(PromotionDTO::code);
+
+        return Mono.zip(timelinesMono, promotionsMono)
+                .map(tuple -> {
+                    List<AmountSnapshot> amounts = new ArrayList<>(reservations.size());
+                    for (Reservation reservation : reservations) {
+                        PromotionDTO promotion = reservation.promotionCode() != null
+                            ? tuple.getT2().get(reservation.promotionCode()) : null;
+                        amounts.add(priceOf(
+                            tuple.getT1().get(reservation.vehiclePlate()),
+                            discountOf(promotion),
+                            reservation.startDate(),
+                            reservation.endDate()));
+                    }
+                    return amounts;
                 });
     }
 
     /**
-     * Updates an existing reservation
+     * Updates an existing reservation if it is still at the expected version.
+     * The write itself is conditioned on the version that was read, so an edit made
+     * concurrently between the read and the write is rejected as well.
+     *
+     * @param expectedVersion version sent by the client (If-Match), or null to only guard the read-modify-write
      */
     @Transactional
-    public Mono<ReservationDTO> update(Integer id, UpdateReservationDTO updateDto) {
+    public Mono<ReservationDTO> update(Integer id, UpdateReservationDTO updateDto, Integer expectedVersion) {
         return reservationValidator.validateUpdateReservation(updateDto)
                 .then(reservationRepository.findById(id))
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("Reservation", id)))
+                .flatMap(existingReservation -> checkVersion(existingReservation, expectedVersion))
                 .flatMap(existingReservation -> {
                     // Check status transition if status is being updated
                     if (updateDto.status() != null) {
@@ -257,77 +760,167 @@ public class ReservationHandler extends BaseHandler<Reservation, ReservationDTO,
                     String newVehiclePlate = updateDto.vehiclePlate() != null ?
                         updateDto.vehiclePlate() : existingReservation.vehiclePlate();
 
-                    return checkVehicleAvailability(newVehiclePlate, newStartDate, newEndDate, id)
+                    Integer newPromotionCode = updateDto.promotionCode() != null ?
+                        updateDto.promotionCode() : existingReservation.promotionCode();
+                    boolean repriced = !newStartDate.equals(existingReservation.startDate())
+                        || !newEndDate.equals(existingReservation.endDate())
+                        || !newVehiclePlate.equals(existingReservation.vehiclePlate())
+                        || !Objects.equals(newPromotionCode, existingReservation.promotionCode());
+
+                    return reservationRepository.lockVehiclePlates(List.of(newVehiclePlate))
+                            .then(checkVehicleAvailability(newVehiclePlate, newStartDate, newEndDate, id, existingReservation.clientUserCpf()))
                             .then(Mono.fromCallable(() -> new Reservation(
                                 existingReservation.id(),
                                 newStartDate,
                                 newEndDate,
                                 existingReservation.reservationDate(),
                                 updateDto.status() != null ? updateDto.status() : existingReservation.status(),
-                                updateDto.promotionCode() != null ? updateDto.promotionCode() : existingReservation.promotionCode(),
+                                newPromotionCode,
                                 existingReservation.clientUserCpf(), // Client cannot be changed
                                 updateDto.employeeUserCpf() != null ? updateDto.employeeUserCpf() : existingReservation.employeeUserCpf(),
-                                newVehiclePlate
-                            )));
-                })
-                .flatMap(reservationRepository::update)
-                .flatMap(updatedReservation -> {
-                    return calculateReservationAmount(updatedReservation.reservationDate(), updatedReservation.startDate(), updatedReservation.endDate(), updatedReservation.vehiclePlate(), updatedReservation.promotionCode())
-                            .map(amount -> toDto(updatedReservation, amount));
+                                newVehiclePlate,
+                                existingReservation.version()
+                            )))
+                            .flatMap(reservation -> {
+                                // Price is kept unless the period, vehicle or promotion changed (or none was stored yet)
+                                Mono<AmountSnapshot> quote = Mono.defer(() -> quoteReservation(reservation.startDate(), reservation.endDate(), reservation.vehiclePlate(), reservation.promotionCode()));
+                                return (repriced ? quote : reservationRepository.findAmountSnapshotById(id).switchIfEmpty(quote))
+                                    .flatMap(snapshot -> reservationRepository.update(reservation, snapshot)
+                                            .switchIfEmpty(Mono.error(new PreconditionFailedException("Reservation", id)))
+                                            .flatMap(updatedReservation -> statsHandler
+                                                .recordStatusChange(existingReservation.status(), updatedReservation.status())
+                                                .then(appendStatusChange(existingReservation.status(), updatedReservation))
+                                                .thenReturn(updatedReservation))
+                                            .flatMap(updatedReservation -> afterCommit(() -> availabilityIndex.track(updatedReservation))
+                                                .thenReturn(updatedReservation))
+                                            .map(updatedReservation -> toDto(updatedReservation, snapshot.totalAmount())));
+                            });
                 });
     }
 
-    public Mono<Double> calculateReservationAmount(LocalDateTime reservationDate, LocalDateTime startDate, LocalDateTime endDate, String vehiclePlate, Integer promotionCode) {
-        Mono<Double> dailyRateMono = dailyRateHandler.getDailyRateForReservation(vehiclePlate, reservationDate)
-                .map(dailyRate -> dailyRate.amount())
-                .defaultIfEmpty(0.0);
-
-        Mono<Double> discountMono = Mono.just(0.0);
-        if (promotionCode != null) {
-            discountMono = promotionHandler.getById(promotionCode)
-                    .filter(promo -> promo.isCurrentlyValid())
-                    .map(promo -> promo.discountPercentage() / 100.0)
-                    .defaultIfEmpty(0.0);
+    /**
+     * Quotes a reservation. Repeated quotes are answered from the quote cache while the
+     * vehicle's daily rates and the promotions are unchanged.
+     */
+    public Mono<Double> calculateReservationAmount(LocalDateTime startDate, LocalDateTime endDate, String vehiclePlate, Integer promotionCode) {
+        if (vehiclePlate == null || vehiclePlate.isBlank() || startDate == null || endDate == null) {
+            return Mono.error(new ValidationException("Vehicle plate, start date and end date are required"));
         }
+        QuoteCache.QuoteKey key = new QuoteCache.QuoteKey(
+            vehiclePlate,
+            startDate,
+            endDate,
+            promotionCode,
+            dailyRateHandler.getRateVersion(vehiclePlate),
+            promotionCode != null ? promotionHandler.getVersion() : 0L);
+        return quoteCache.get(key, priceQuote(startDate, endDate, vehiclePlate, promotionCode))
+                .map(snapshot -> snapshot.totalAmount().doubleValue());
+    }
+
+    /**
+     * Prices a reservation from the vehicle's daily rates over the rental period and the promotion discount.
+     */
+    private Mono<AmountSnapshot> quoteReservation(LocalDateTime startDate, LocalDateTime endDate, String vehiclePlate, Integer promotionCode) {
+        return priceQuote(startDate, endDate, vehiclePlate, promotionCode)
+                .map(QuoteCache.Quote::amount);
+    }
+
+    private Mono<QuoteCache.Quote> priceQuote(LocalDateTime startDate, LocalDateTime endDate, String vehiclePlate, Integer promotionCode) {
+        Mono<Optional<RateTimeline>> timelineMono = dailyRateHandler.getRateTimelines(List.of(vehiclePlate))
+                .map(timelines -> Optional.ofNullable(timelines.get(vehiclePlate)));
+
+        Mono<Optional<PromotionDTO>> promotionMono = promotionCode != null
+                ? promotionHandler.getById(promotionCode).map(Optional::of)
+                : Mono.just(Optional.empty());
 
-        return Mono.zip(dailyRateMono, discountMono)
+        return Mono.zip(timelineMono, promotionMono)
                 .map(tuple -> {
-                    Double dailyRate = tuple.getT1();
-                    Double discountPercentage = tuple.getT2();
-                    long hours = java.time.Duration.between(startDate, endDate).toHours();
-                    double calculatedAmount = (dailyRate / 24.0) * hours;
-                    calculatedAmount *= (1.0 - discountPercentage);
-                    return calculatedAmount;
+                    PromotionDTO promotion = tuple.getT2().orElse(null);
+                    return new QuoteCache.Quote(
+                        priceOf(tuple.getT1().orElse(null), discountOf(promotion), startDate, endDate),
+                        discountValidUntil(promotion));
                 });
     }
 
     /**
-     * Updates reservation status
+     * When the promotion discount starts or stops applying on its own, or null when it only changes on writes.
+     */
+    private LocalDateTime discountValidUntil(PromotionDTO promotion) {
+        if (promotion == null || promotion.status() != PromotionStatus.ACTIVE) {
+            return null;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (promotion.startDate() != null && promotion.startDate().isAfter(now)) {
+            return promotion.startDate();
+        }
+        if (promotion.endDate() != null && !promotion.endDate().isBefore(now)) {
+            return promotion.endDate();
+        }
+        return null;
+    }
+
+    /**
+     * Updates reservation status if the reservation is still at the expected version.
+     *
+     * @param expectedVersion version sent by the client (If-Match), or null to only guard the read-modify-write
      */
     @Transactional
-    public Mono<ReservationDTO> updateStatus(Integer id, ReservationStatus newStatus) {
+    public Mono<ReservationDTO> updateStatus(Integer id, ReservationStatus newStatus, Integer expectedVersion) {
         return reservationRepository.findById(id)
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("Reservation", id)))
+                .flatMap(reservation -> checkVersion(reservation, expectedVersion))
                 .doOnNext(reservation -> reservationValidator.validateStatusTransition(
                     reservation.status(), newStatus))
                 .flatMap(reservation -> {
                     ReservationStatus oldStatus = reservation.status();
                     Reservation updatedReservation = reservation.withStatus(newStatus);
                     return reservationRepository.update(updatedReservation)
-                        .flatMap(savedReservation -> {
-                            // Update vehicle status based on reservation status
-                            VehicleStatus newVehicleStatus;
-                            if (newStatus == ReservationStatus.IN_PROGRESS) {
-                                newVehicleStatus = VehicleStatus.INDISPONIVEL;
-                            } else {
-                                newVehicleStatus = VehicleStatus.DISPONIVEL;
-                            }
-                            return vehicleHandler.updateVehicleStatus(savedReservation.vehiclePlate(), newVehicleStatus)
-                                .thenReturn(toDto(savedReservation));
-                        });
+                        .switchIfEmpty(Mono.error(new PreconditionFailedException("Reservation", id)))
+                        .flatMap(savedReservation -> statsHandler.recordStatusChange(oldStatus, newStatus)
+                            // The vehicle status follows asynchronously, from the outbox event
+                            .then(appendStatusChange(oldStatus, savedReservation))
+                            .then(afterCommit(() -> availabilityIndex.track(savedReservation)))
+                            .thenReturn(toDto(savedReservation)));
                 });
     }
 
+    /**
+     * Writes a RESERVATION_STATUS_CHANGED event to the outbox when the status actually changed.
+     */
+    private Mono<Void> appendStatusChange(ReservationStatus oldStatus, Reservation reservation) {
+        if (oldStatus == reservation.status()) {
+            return Mono.empty();
+        }
+        return outboxHandler.append(DomainEventType.RESERVATION_STATUS_CHANGED, reservation.id(), OutboxHandler.payload(
+            "reservationId", reservation.id(),
+            "vehiclePlate", reservation.vehiclePlate(),
+            "clientUserCpf", reservation.clientUserCpf(),
+            "oldStatus", oldStatus,
+            "newStatus", reservation.status(),
+            "version", reservation.version()));
+    }
+
+    private static Map<String, Object> createdPayload(Reservation reservation, BigDecimal totalAmount) {
+        return OutboxHandler.payload(
+            "reservationId", reservation.id(),
+            "vehiclePlate", reservation.vehiclePlate(),
+            "clientUserCpf", reservation.clientUserCpf(),
+            "startDate", reservation.startDate(),
+            "endDate", reservation.endDate(),
+            "status", reservation.status(),
+            "totalAmount", totalAmount);
+    }
+
+    /**
+     * Fails with PreconditionFailedException when the client expects another version of the reservation.
+     */
+    private Mono<Reservation> checkVersion(Reservation reservation, Integer expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(reservation.version())) {
+            return Mono.error(new PreconditionFailedException("Reservation", reservation.id()));
+        }
+        return Mono.just(reservation);
+    }
+
     /**
      * Deletes a reservation (only if status allows)
      */
@@ -349,89 +942,247 @@ public class ReservationHandler extends BaseHandler<Reservation, ReservationDTO,
                         throw new ValidationException("Cannot delete a completed reservation");
                     }
                 })
-                .then(reservationRepository.deleteReservationById(id));
+                .flatMap(reservation -> reservationRepository.deleteReservationById(id)
+                        .then(statsHandler.recordDeleted(reservation.status())))
+                .then(afterCommit(() -> availabilityIndex.remove(id)));
     }
 
     /**
-     * Checks if a vehicle is available for the given date range
+     * Runs the action once the current transaction commits, so the availability index only ever
+     * reflects committed bookings. Runs it right away when there is no transaction.
+     */
+    private Mono<Void> afterCommit(Runnable action) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .flatMap(manager -> {
+                    if (!manager.isSynchronizationActive()) {
+                        return Mono.<Void>fromRunnable(action);
+                    }
+                    manager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return Mono.fromRunnable(action);
+                        }
+                    });
+                    return Mono.<Void>empty();
+                })
+                .onErrorResume(NoTransactionException.class, e -> Mono.fromRunnable(action));
+    }
+
+    /**
+     * Checks if a vehicle is available for the given date range, in the caller's transaction.
+     * Live holds placed by other clients are checked against reservation_hold. A conflict reported
+     * by the in-memory index is only a hint: it is confirmed against the database (reservations
+     * and holds in one query) before rejecting.
+     * Anything else is left to the reservation_vehicle_period_excl constraint, which the
+     * repository translates into the same ValidationException when the insert or update is executed.
      */
     private Mono<Void> checkVehicleAvailability(String vehiclePlate,
                                                LocalDateTime startDate,
                                                LocalDateTime endDate,
-                                               Integer excludeReservationId) {
-        return reservationRepository.isVehicleAvailable(vehiclePlate, startDate, endDate, excludeReservationId)
-                .flatMap(isAvailable -> {
-                    if (!isAvailable) {
-                        return Mono.error(new ValidationException(
-                            "Vehicle is not available for the selected date range"));
-                    }
-                    return Mono.empty();
-                });
+                                               Integer excludeReservationId,
+                                               String clientUserCpf) {
+        Mono<Boolean> available = availabilityIndex.hasConflict(vehiclePlate, startDate, endDate, excludeReservationId)
+                ? reservationRepository.isVehicleAvailable(vehiclePlate, startDate, endDate, excludeReservationId, clientUserCpf)
+                : holdHandler.hasConflict(vehiclePlate, startDate, endDate, clientUserCpf).map(held -> !held);
+        return available.flatMap(free -> free ? Mono.<Void>empty() : Mono.error(new ValidationException(
+                "Vehicle is not available for the selected date range")));
     }
 
     /**
      * Gets reservations by client CPF
      */
     public Flux<ReservationDTO> getByClientCpf(String clientCpf) {
-        return reservationRepository.findAllWithDetails()
-                .filter(data -> clientCpf.equals(data[6])) // clientUserCpf is at index 6
-                .flatMap(this::mapReservationInfoToDtoWithAmount);
+        return priceReservationStream(reservationRepository.streamAllWithDetailsAndFilters(null, null, clientCpf, null));
+    }
+
+    /**
+     * Gets paginated reservations by client CPF
+     */
+    public Mono<PageResponse<ReservationDTO>> getByClientCpfPaginated(String clientCpf, int page, int size) {
+        Flux<ReservationDTO> reservations = priceReservationPage(reservationRepository
+            .findAllWithDetailsAndFilters(null, null, clientCpf, null, page, size));
+        Mono<Long> totalElements = reservationRepository.countWithFilters(null, null, clientCpf, null);
+        return createPageResponse(reservations, page, size, totalElements);
     }
 
     /**
      * Gets reservations by vehicle plate
      */
     public Flux<ReservationDTO> getByVehiclePlate(String vehiclePlate) {
-        return reservationRepository.findAllWithDetails()
-                .filter(data -> vehiclePlate.equals(data[10])) // vehiclePlate is at index 10
-                .flatMap(this::mapReservationInfoToDtoWithAmount);
+        return priceReservationStream(reservationRepository.streamAllWithDetailsAndFilters(null, null, null, vehiclePlate));
+    }
+
+    /**
+     * Gets paginated reservations by vehicle plate
+     */
+    public Mono<PageResponse<ReservationDTO>> getByVehiclePlatePaginated(String vehiclePlate, int page, int size) {
+        Flux<ReservationDTO> reservations = priceReservationPage(reservationRepository
+            .findAllWithDetailsAndFilters(null, null, null, vehiclePlate, page, size));
+        Mono<Long> totalElements = reservationRepository.countWithFilters(null, null, null, vehiclePlate);
+        return createPageResponse(reservations, page, size, totalElements);
     }
 
     /**
      * Gets reservations by status
      */
     public Flux<ReservationDTO> getByStatus(ReservationStatus status) {
-        return reservationRepository.findByStatusWithDetails(status, 0, Integer.MAX_VALUE)
-                .flatMap(this::mapReservationInfoToDtoWithAmount);
+        return priceReservationStream(reservationRepository.streamAllWithDetailsAndFilters(status, null, null, null));
+    }
+
+    /**
+     * Searches reservations by client name, vehicle model, brand or plate, best matches first.
+     *
+     * @param term  the search term
+     * @param cpf   restricts the search to a client's reservations (optional)
+     * @param limit the maximum number of results
+     */
+    public Flux<ReservationDTO> search(String term, String cpf, int limit) {
+        if (term == null || term.trim().isEmpty()) {
+            return Flux.error(new ValidationException("q", "Search term is required"));
+        }
+        return priceReservationPage(reservationRepository.searchWithDetails(term, cpf, limit));
+    }
+
+    /**
+     * Streams every reservation matching the filters straight from the database cursor,
+     * priced chunk by chunk, for exports of any size.
+     */
+    public Flux<ReservationDTO> streamAll(ReservationStatus status, String query, String cpf, String plate) {
+        return priceReservationStream(reservationRepository.streamAllWithDetailsAndFilters(status, query, cpf, plate));
+    }
+
+    /**
+     * Streams reservation changes as they are committed, optionally filtered.
+     * RESYNC entries always pass the filters, since they concern every reservation.
+     */
+    public Flux<ReservationChangeDTO> streamChanges(ReservationStatus status, String vehiclePlate, String clientCpf) {
+        return changeFeed.changes()
+                .filter(change -> change.isResync()
+                        || ((status == null || status == change.status())
+                            && (vehiclePlate == null || vehiclePlate.equals(change.vehiclePlate()))
+                            && (clientCpf == null || clientCpf.equals(change.clientUserCpf()))));
+    }
+
+    /**
+     * Gets paginated archived reservations made between from and to (inclusive), newest first.
+     * Only the archive partitions of the requested months are read.
+     */
+    public Mono<PageResponse<ReservationDTO>> getArchivedPaginated(LocalDate from, LocalDate to, String cpf, String plate,
+                                                                   int page, int size) {
+        if (from == null || to == null) {
+            return Mono.error(new ValidationException("Both from and to dates are required"));
+        }
+        if (to.isBefore(from)) {
+            return Mono.error(new ValidationException("From date must be before to date"));
+        }
+        LocalDateTime fromTime = from.atStartOfDay();
+        LocalDateTime toTime = to.plusDays(1).atStartOfDay();
+        Flux<ReservationDTO> reservations = priceReservationPage(reservationRepository
+            .findArchivedWithDetails(fromTime, toTime, cpf, plate, page, size));
+        Mono<Long> totalElements = reservationRepository.countArchived(fromTime, toTime, cpf, plate);
+        return createPageResponse(reservations, page, size, totalElements);
+    }
+
+    /**
+     * Builds the fleet occupancy calendar for the days from..to (inclusive).
+     * Reservations and maintenance of every vehicle are read with one range query, ordered by plate,
+     * and folded one vehicle at a time into a day string, so the work and the payload grow with
+     * vehicles times days rather than with the number of reservations.
+     */
+    public Mono<ReservationCalendarDTO> getCalendar(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            return Mono.error(new ValidationException("Both from and to dates are required"));
+        }
+        if (to.isBefore(from)) {
+            return Mono.error(new ValidationException("From date must be before to date"));
+        }
+        long dayCount = ChronoUnit.DAYS.between(from, to) + 1;
+        if (dayCount > MAX_CALENDAR_DAYS) {
+            return Mono.error(new ValidationException(
+                "The calendar cannot span more than " + MAX_CALENDAR_DAYS + " days"));
+        }
+
+        return reservationRepository.findOccupancy(from.atStartOfDay(), to.plusDays(1).atStartOfDay())
+                .bufferUntilChanged(row -> (String) row[0])
+                .map(rows -> foldOccupancy(rows, from, (int) dayCount))
+                .collectList()
+                .map(vehicles -> new ReservationCalendarDTO(from, to, (int) dayCount, vehicles));
+    }
+
+    /**
+     * Folds the occupancy rows of one vehicle into its day string; maintenance takes precedence over reservations.
+     */
+    private VehicleOccupancyDTO foldOccupancy(List<Object[]> rows, LocalDate from, int dayCount) {
+        char[] days = new char[dayCount];
+        Arrays.fill(days, CALENDAR_FREE);
+        for (Object[] row : rows) {
+            String kind = (String) row[1];
+            if (kind == null) {
+                continue;
+            }
+            LocalDate start = ((LocalDateTime) row[2]).toLocalDate();
+            LocalDate end = row[3] != null ? ((LocalDateTime) row[3]).toLocalDate() : start;
+            int first = (int) Math.max(0, ChronoUnit.DAYS.between(from, start));
+            int last = (int) Math.min(dayCount - 1, ChronoUnit.DAYS.between(from, end.isBefore(start) ? start : end));
+            char mark = "M".equals(kind) ? CALENDAR_MAINTENANCE : CALENDAR_RESERVED;
+            for (int day = first; day <= last; day++) {
+                if (days[day] != CALENDAR_MAINTENANCE) {
+                    days[day] = mark;
+                }
+            }
+        }
+
+        int reserved = 0;
+        int maintenance = 0;
+        for (char day : days) {
+            if (day == CALENDAR_RESERVED) {
+                reserved++;
+            } else if (day == CALENDAR_MAINTENANCE) {
+                maintenance++;
+            }
+        }
+        return new VehicleOccupancyDTO((String) rows.get(0)[0], new String(days), reserved, maintenance);
     }
 
     /**
      * Generates a comprehensive report of reservations.
+     * Counts and revenue come from the reservation_stats read model, so the cost
+     * does not grow with the reservation table.
      *
      * @return A Mono containing the ReservationReportDTO.
      */
     public Mono<ReservationReportDTO> generateReservationReport() {
-        Mono<Long> totalReservationsMono = reservationRepository.countAll();
-        Mono<Long> confirmedReservationsMono = reservationRepository.countByStatus(ReservationStatus.CONFIRMED);
-        Mono<Long> completedReservationsMono = reservationRepository.countByStatus(ReservationStatus.COMPLETED);
-        Mono<Long> cancelledReservationsMono = reservationRepository.countByStatus(ReservationStatus.CANCELLED);
-        Mono<BigDecimal> receitaBruta = paymentRepository.calcularReceitaBruta();
-
-        Mono<List<ReservationDTO>> latestReservationsMono = reservationRepository.findLatestReservationsWithDetails(5)
-                .flatMap(this::mapReservationInfoToDtoWithAmount)
+        Mono<Map<String, BigDecimal>> statsMono = statsHandler.getStats();
+
+        Mono<List<ReservationDTO>> latestReservationsMono = priceReservationPage(reservationRepository.findLatestReservationsWithDetails(5))
                 .collectList();
 
-        Mono<Map<String, Double>> statusPercentagesMono = reservationRepository.countReservationsByStatus()
-                .collectList()
-                .flatMap(counts -> totalReservationsMono.map(total -> {
+        return Mono.zip(statsMono, latestReservationsMono)
+                .map(tuple -> {
+                    Map<String, BigDecimal> stats = tuple.getT1();
+                    long total = statValue(stats, ReservationStatsHandler.TOTAL).longValue();
+
                     Map<String, Double> percentages = new HashMap<>();
-                    for (Map<String, Long> countEntry : counts) {
-                        String statusName = ReservationStatus.values()[countEntry.get("status").intValue()].name();
-                        Double percentage = (total > 0) ? (countEntry.get("count").doubleValue() / total) * 100.0 : 0.0;
-                        percentages.put(statusName, percentage);
+                    for (ReservationStatus status : ReservationStatus.values()) {
+                        BigDecimal count = stats.get(ReservationStatsHandler.statusMetric(status));
+                        if (count != null && count.signum() > 0) {
+                            percentages.put(status.name(), total > 0 ? (count.doubleValue() / total) * 100.0 : 0.0);
+                        }
                     }
-                    return percentages;
-                }));
 
-        return Mono.zip(totalReservationsMono, confirmedReservationsMono, completedReservationsMono, cancelledReservationsMono, receitaBruta, latestReservationsMono, statusPercentagesMono)
-                .map(tuple -> new ReservationReportDTO(
-                        tuple.getT1(),
-                        tuple.getT2(),
-                        tuple.getT3(),
-                        tuple.getT4(),
-                        tuple.getT5(),
-                        tuple.getT6(),
-                        tuple.getT7()
-                ));
+                    return new ReservationReportDTO(
+                            total,
+                            statValue(stats, ReservationStatsHandler.statusMetric(ReservationStatus.CONFIRMED)).longValue(),
+                            statValue(stats, ReservationStatsHandler.statusMetric(ReservationStatus.COMPLETED)).longValue(),
+                            statValue(stats, ReservationStatsHandler.statusMetric(ReservationStatus.CANCELLED)).longValue(),
+                            statValue(stats, ReservationStatsHandler.REVENUE),
+                            tuple.getT2(),
+                            percentages
+                    );
+                });
+    }
+
+    private static BigDecimal statValue(Map<String, BigDecimal> stats, String metric) {
+        return stats.getOrDefault(metric, BigDecimal.ZERO);
     }
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+package io.github.joabsonlg.sigac_api.reservation.handler;
+
+import io.github.joabsonlg.sigac_api.common.exception.ConflictException;
+import io.github.joabsonlg.sigac_api.common.exception.ForbiddenException;
+import io.github.joabsonlg.sigac_api.common.exception.ResourceNotFoundException;
+import io.github.joabsonlg.sigac_api.common.exception.ValidationException;
+import io.github.joabsonlg.sigac_api.reservation.availability.ReservationHoldRegistry;
+import io.github.joabsonlg.sigac_api.reservation.dto.CreateReservationHoldDTO;
+import io.github.joabsonlg.sigac_api.reservation.dto.ReservationHoldDTO;
+import io.github.joabsonlg.sigac_api.reservation.model.ReservationHold;
+import io.github.joabsonlg.sigac_api.reservation.repository.ReservationHoldRepository;
+import io.github.joabsonlg.sigac_api.reservation.repository.ReservationRepository;
+import io.github.joabsonlg.sigac_api.reservation.validator.ReservationValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Handler for availability holds: short-lived soft locks that keep a vehicle's period
+ * reserved for one client between pricing and booking.
+ * Holds live in ReservationHoldRegistry and are mirrored into reservation_hold; availability,
+ * ownership and release decisions read reservation_hold so they hold across instances.
+ * Placing a hold takes the vehicle's plate lock, like reservation create, update and batch, so
+ * the check and the insert of holds and reservations of one vehicle are serialized across instances.
+ */
+@Service
+public class ReservationHoldHandler {
+
+    private final ReservationHoldRegistry holdRegistry;
+    private final ReservationHoldRepository holdRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationValidator reservationValidator;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+
+    public ReservationHoldHandler(ReservationHoldRegistry holdRegistry,
+                                  ReservationHoldRepository holdRepository,
+                                  ReservationRepository reservationRepository,
+                                  ReservationValidator reservationValidator,
+                                  @Value("${sigac.reservation-holds.default-ttl:PT5M}") Duration defaultTtl,
+                                  @Value("${sigac.reservation-holds.max-ttl:PT15M}") Duration maxTtl) {
+        this.holdRegistry = holdRegistry;
+        this.holdRepository = holdRepository;
+        this.reservationRepository = reservationRepository;
+        this.reservationValidator = reservationValidator;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+    }
+
+    /**
+     * Places a hold on a vehicle for the requested period.
+     * The period must be free of active reservations and of other clients' holds;
+     * the TTL defaults to the configured value and is capped at the configured maximum.
+     * Runs in one transaction holding the vehicle's plate lock from the check to the insert.
+     */
+    @Transactional
+    public Mono<ReservationHoldDTO> create(CreateReservationHoldDTO createDto) {
+        return reservationValidator.validateCreateHold(createDto)
+                .then(Mono.defer(() -> reservationRepository.lockVehiclePlates(List.of(createDto.vehiclePlate()))))
+                .then(Mono.defer(() -> reservationRepository.isVehicleAvailable(createDto.vehiclePlate(),
+                        createDto.startDate(), createDto.endDate(), null, createDto.clientUserCpf())))
+                .flatMap(available -> {
+                    if (!available) {
+                        return Mono.error(new ValidationException("Vehicle is not available for the selected date range"));
+                    }
+                    Duration ttl = createDto.ttlSeconds() != null ? Duration.ofSeconds(createDto.ttlSeconds()) : defaultTtl;
+                    if (ttl.compareTo(maxTtl) > 0) {
+                        ttl = maxTtl;
+                    }
+                    ReservationHold hold = new ReservationHold(
+                        UUID.randomUUID(),
+                        createDto.vehiclePlate(),
+                        createDto.clientUserCpf(),
+                        createDto.startDate(),
+                        createDto.endDate(),
+                        LocalDateTime.now().plus(ttl)
+                    );
+                    if (!holdRegistry.tryPlace(hold)) {
+                        return Mono.error(new ConflictException("Vehicle is already held by another client for the selected date range"));
+                    }
+                    return holdRepository.save(hold)
+                            .doOnError(error -> holdRegistry.release(hold.id()));
+                })
+                .map(this::toDto);
+    }
+
+    /**
+     * Releases a hold before it expires. Only the client who placed the hold, or an administrator, may release it.
+     * The hold is looked up in reservation_hold, so it can be released through any instance.
+     *
+     * @param requesterCpf CPF of the authenticated user
+     * @param admin        whether the authenticated user is an administrator
+     */
+    public Mono<Void> release(UUID holdId, String requesterCpf, boolean admin) {
+        return holdRepository.findLiveById(holdId, LocalDateTime.now())
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Reservation hold", holdId)))
+                .flatMap(hold -> {
+                    if (!admin && !hold.clientUserCpf().equals(requesterCpf)) {
+                        return Mono.error(new ForbiddenException("Only the client who placed the hold can release it"));
+                    }
+                    holdRegistry.release(hold.id());
+                    return holdRepository.deleteById(hold.id());
+                });
+    }
+
+    /**
+     * Checks that a hold referenced by a new reservation was placed by the same client for the same vehicle.
+     * A hold that is unknown or already expired is not an error: the reservation then goes through
+     * the regular availability checks.
+     */
+    public Mono<Void> validateOwnership(UUID holdId, String clientUserCpf, String vehiclePlate) {
+        if (holdId == null) {
+            return Mono.empty();
+        }
+        return holdRepository.findLiveById(holdId, LocalDateTime.now())
+                .flatMap(hold -> {
+                    if (!hold.clientUserCpf().equals(clientUserCpf) || !hold.vehiclePlate().equals(vehiclePlate)) {
+                        return Mono.error(new ValidationException("holdId", "Hold does not belong to this client and vehicle"));
+                    }
+                    return Mono.<Void>empty();
+                });
+    }
+
+    /**
+     * Consumes a hold once its reservation has been created.
+     */
+    public Mono<Void> consume(UUID holdId) {
+        if (holdId == null) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> holdRegistry.release(holdId))
+                .then(holdRepository.deleteById(holdId));
+    }
+
+    /**
+     * Checks, against reservation_hold, whether a live hold of a client other than ownerCpf overlaps the period.
+     * Holds placed through any instance are seen, not only the ones in the local registry.
+     */
+    public Mono<Boolean> hasConflict(String vehiclePlate, LocalDateTime startDate, LocalDateTime endDate, String ownerCpf) {
+        return holdRepository.existsConflict(vehiclePlate, startDate, endDate, ownerCpf, LocalDateTime.now());
+    }
+
+    private ReservationHoldDTO toDto(ReservationHold hold) {
+        return new ReservationHoldDTO(
+            hold.id(),
+            hold.vehiclePlate(),
+            hold.clientUserCpf(),
+            hold.startDate(),
+            hold.endDate(),
+            hold.expiresAt()
+        );
+    }
+}
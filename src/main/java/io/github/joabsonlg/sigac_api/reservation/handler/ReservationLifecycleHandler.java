@@ -0,0 +1,150 @@
+package io.github.joabsonlg.sigac_api.reservation.handler;
+
+import io.github.joabsonlg.sigac_api.event.enumeration.DomainEventType;
+import io.github.joabsonlg.sigac_api.event.handler.OutboxHandler;
+import io.github.joabsonlg.sigac_api.event.model.DomainEvent;
+import io.github.joabsonlg.sigac_api.reservation.availability.VehicleAvailabilityIndex;
+import io.github.joabsonlg.sigac_api.reservation.enumeration.ReservationStatus;
+import io.github.joabsonlg.sigac_api.reservation.repository.ReservationRepository;
+import io.github.joabsonlg.sigac_api.vehicle.enumeration.VehicleStatus;
+import io.github.joabsonlg.sigac_api.vehicle.handler.VehicleHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves reservations through their lifecycle when their dates are reached:
+ * CONFIRMED reservations whose start date has passed become IN_PROGRESS (vehicle INDISPONIVEL),
+ * IN_PROGRESS reservations whose end date has passed become COMPLETED (vehicle DISPONIVEL).
+ *
+ * Each batch is one transaction: a set-based UPDATE ... RETURNING of up to batchSize reservations,
+ * one bulk vehicle status update, one stats adjustment and, per reservation, one
+ * RESERVATION_STATUS_CHANGED and one VEHICLE_STATUS_CHANGED outbox event. The status change
+ * events carry vehicleStatusApplied, so ReservationVehicleStatusListener does not redo the
+ * vehicle update one reservation at a time. Batches take a transaction-scoped
+ * advisory lock, so when several nodes run the sweep only one of them works at a time.
+ */
+@Service
+public class ReservationLifecycleHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationLifecycleHandler.class);
+
+    static final long LIFECYCLE_LOCK_KEY = 0x5349_4741_4301L;
+
+    private final ReservationRepository reservationRepository;
+    private final VehicleHandler vehicleHandler;
+    private final ReservationStatsHandler statsHandler;
+    private final VehicleAvailabilityIndex availabilityIndex;
+    private final OutboxHandler outboxHandler;
+    private final TransactionalOperator transactionalOperator;
+    private final int batchSize;
+
+    public ReservationLifecycleHandler(ReservationRepository reservationRepository,
+                                       VehicleHandler vehicleHandler,
+                                       ReservationStatsHandler statsHandler,
+                                       VehicleAvailabilityIndex availabilityIndex,
+                                       OutboxHandler outboxHandler,
+                                       TransactionalOperator transactionalOperator,
+                                       @Value("${sigac.reservation-lifecycle.batch-size:500}") int batchSize) {
+        this.reservationRepository = reservationRepository;
+        this.vehicleHandler = vehicleHandler;
+        this.statsHandler = statsHandler;
+        this.availabilityIndex = availabilityIndex;
+        this.outboxHandler = outboxHandler;
+        this.transactionalOperator = transactionalOperator;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Applies every due transition. Starts run to completion before completions begin, so a
+     * reservation whose whole period elapsed between two sweeps is completed in a single sweep.
+     */
+    @Scheduled(fixedDelayString = "${sigac.reservation-lifecycle.sweep-interval:PT1M}",
+               initialDelayString = "${sigac.reservation-lifecycle.sweep-interval:PT1M}")
+    public Mono<Void> sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        return sweep(ReservationStatus.CONFIRMED, ReservationStatus.IN_PROGRESS, false, VehicleStatus.INDISPONIVEL, now)
+                .flatMap(started -> sweep(ReservationStatus.IN_PROGRESS, ReservationStatus.COMPLETED, true, VehicleStatus.DISPONIVEL, now)
+                        .doOnNext(completed -> {
+                            if (started + completed > 0) {
+                                logger.info("Reservation lifecycle sweep: {} started, {} completed", started, completed);
+                            }
+                        }))
+                .then()
+                .onErrorResume(error -> {
+                    logger.warn("Reservation lifecycle sweep failed: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Runs batches of one transition until a batch comes back short (nothing left, or another node holds the lock).
+     *
+     * @return number of reservations transitioned
+     */
+    private Mono<Long> sweep(ReservationStatus from, ReservationStatus to, boolean byEndDate,
+                             VehicleStatus vehicleStatus, LocalDateTime now) {
+        return runBatch(from, to, byEndDate, vehicleStatus, now)
+                .expand(count -> count == batchSize
+                        ? runBatch(from, to, byEndDate, vehicleStatus, now)
+                        : Mono.empty())
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Integer> runBatch(ReservationStatus from, ReservationStatus to, boolean byEndDate,
+                                   VehicleStatus vehicleStatus, LocalDateTime now) {
+        Mono<List<Object[]>> batch = reservationRepository.tryAdvisoryXactLock(LIFECYCLE_LOCK_KEY)
+                .flatMap(locked -> locked
+                        ? reservationRepository.transitionDue(from, to, byEndDate, now, batchSize).collectList()
+                        : Mono.just(List.<Object[]>of()))
+                .flatMap(transitioned -> {
+                    if (transitioned.isEmpty()) {
+                        return Mono.just(transitioned);
+                    }
+                    Set<String> plates = new LinkedHashSet<>();
+                    transitioned.forEach(row -> plates.add((String) row[1]));
+                    return vehicleHandler.updateVehicleStatuses(plates, vehicleStatus)
+                            .then(statsHandler.recordTransitions(from, to, transitioned.size()))
+                            .then(outboxHandler.appendAll(statusChangedEvents(transitioned, from, to, vehicleStatus)))
+                            .thenReturn(transitioned);
+                });
+
+        return transactionalOperator.transactional(batch)
+                .doOnNext(transitioned -> {
+                    if (to == ReservationStatus.COMPLETED) {
+                        transitioned.forEach(row -> availabilityIndex.remove((Integer) row[0]));
+                    }
+                })
+                .map(List::size);
+    }
+
+    private List<DomainEvent> statusChangedEvents(List<Object[]> transitioned, ReservationStatus from,
+                                                  ReservationStatus to, VehicleStatus vehicleStatus) {
+        List<DomainEvent> events = new ArrayList<>(transitioned.size() * 2);
+        for (Object[] row : transitioned) {
+            events.add(outboxHandler.event(DomainEventType.RESERVATION_STATUS_CHANGED, row[0], OutboxHandler.payload(
+                    "reservationId", row[0],
+                    "vehiclePlate", row[1],
+                    "clientUserCpf", row[2],
+                    "oldStatus", from,
+                    "newStatus", to,
+                    "version", row[3],
+                    "vehicleStatusApplied", true)));
+            events.add(outboxHandler.event(DomainEventType.VEHICLE_STATUS_CHANGED, row[1], OutboxHandler.payload(
+                    "vehiclePlate", row[1],
+                    "status", vehicleStatus,
+                    "reservationId", row[0])));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.joabsonlg.sigac_api.reservation.handler;
+
+import io.github.joabsonlg.sigac_api.reservation.enumeration.ReservationStatus;
+import io.github.joabsonlg.sigac_api.reservation.repository.ReservationStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maintains the reservation_stats read model behind the reservation report.
+ * Status counts are adjusted by ReservationHandler in the same transaction as each write,
+ * and a periodic refresh recomputes every metric to absorb payments and out-of-band changes.
+ * The refresh holds the stats lock exclusively, so it waits for in-flight increments and
+ * new increments wait for it (see ReservationStatsRepository).
+ */
+@Service
+public class ReservationStatsHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationStatsHandler.class);
+
+    static final String TOTAL = "total";
+    static final String REVENUE = "revenue";
+    static final String ARCHIVED_PREFIX = "archived:";
+
+    private final ReservationStatsRepository statsRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReservationStatsHandler(ReservationStatsRepository statsRepository,
+                                   TransactionalOperator transactionalOperator) {
+        this.statsRepository = statsRepository;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    /**
+     * Metric name holding the number of reservations with a status
+     */
+    static String statusMetric(ReservationStatus status) {
+        return "status:" + status.name();
+    }
+
+    /**
+     * Records newly created reservations
+     */
+    public Mono<Void> recordCreated(ReservationStatus status, long count) {
+        if (count == 0) {
+            return Mono.empty();
+        }
+        return statsRepository.increment(Map.of(TOTAL, count, statusMetric(status), count));
+    }
+
+    /**
+     * Records a reservation moving from one status to another
+     */
+    public Mono<Void> recordStatusChange(ReservationStatus oldStatus, ReservationStatus newStatus) {
+        if (oldStatus == newStatus || oldStatus == null || newStatus == null) {
+            return Mono.empty();
+        }
+        return statsRepository.increment(Map.of(statusMetric(oldStatus), -1L, statusMetric(newStatus), 1L));
+    }
+
+    /**
+     * Records several reservations moving from one status to another at once
+     */
+    public Mono<Void> recordTransitions(ReservationStatus oldStatus, ReservationStatus newStatus, long count) {
+        if (count == 0 || oldStatus == newStatus) {
+            return Mono.empty();
+        }
+        return statsRepository.increment(Map.of(statusMetric(oldStatus), -count, statusMetric(newStatus), count));
+    }
+
+    /**
+     * Records a deleted reservation
+     */
+    public Mono<Void> recordDeleted(ReservationStatus status) {
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put(TOTAL, -1L);
+        if (status != null) {
+            deltas.put(statusMetric(status), -1L);
+        }
+        return statsRepository.increment(deltas);
+    }
+
+    /**
+     * Records reservations moved to the archive with the paid amount of their payments.
+     * Totals are unchanged, since they include archived reservations.
+     */
+    public Mono<Void> recordArchived(Map<ReservationStatus, Long> counts, BigDecimal paidAmount) {
+        Map<String, Number> deltas = new HashMap<>();
+        counts.forEach((status, count) -> deltas.put(ARCHIVED_PREFIX + statusMetric(status), count));
+        if (paidAmount != null && paidAmount.signum() != 0) {
+            deltas.put(ARCHIVED_PREFIX + REVENUE, paidAmount);
+        }
+        return statsRepository.increment(deltas);
+    }
+
+    /**
+     * Returns every metric of the read model
+     */
+    public Mono<Map<String, BigDecimal>> getStats() {
+        return statsRepository.findAll();
+    }
+
+    /**
+     * Recomputes the read model from the source tables
+     */
+    @Scheduled(fixedDelayString = "${sigac.reservation-stats.refresh-interval:PT5M}",
+               initialDelayString = "${sigac.reservation-stats.refresh-interval:PT5M}")
+    public Mono<Void> refresh() {
+        return statsRepository.lockExclusively()
+                .then(statsRepository.recompute())
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(done -> logger.debug("Reservation stats refreshed"))
+                .onErrorResume(error -> {
+                    logger.warn("Could not refresh reservation stats: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.joabsonlg.sigac_api.reservation.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Pricing of a reservation captured when it is written.
+ * Persisted in reservation.rate_snapshot, discount_snapshot and total_amount so reads
+ * do not depend on later daily rate or promotion changes.
+ *
+ * @param dailyRate   daily rate in force at the start of the rental
+ * @param discount    promotion discount as a fraction (0.15 = 15%)
+ * @param totalAmount amount charged for the reservation
+ */
+public record AmountSnapshot(
+        BigDecimal dailyRate,
+        BigDecimal discount,
+        BigDecimal totalAmount
+) {}
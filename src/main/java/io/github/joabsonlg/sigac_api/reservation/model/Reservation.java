@@ -11,6 +11,7 @@ import java.time.LocalDateTime;
 /**
  * Entity model representing a Reservation in the system.
  * Manages rental reservations for vehicles by clients.
+ * version is incremented on every update and guards concurrent edits (optimistic locking).
  */
 @Table("reservation")
 public record Reservation(
@@ -42,8 +43,21 @@ public record Reservation(
         String employeeUserCpf,
 
         @Column("vehicle_plate")
-        String vehiclePlate
+        String vehiclePlate,
+
+        @Column("version")
+        Integer version
 ) {
+    /**
+     * Creates a reservation whose version is not known (not yet persisted).
+     */
+    public Reservation(Integer id, LocalDateTime startDate, LocalDateTime endDate, LocalDateTime reservationDate,
+                       ReservationStatus status, Integer promotionCode, String clientUserCpf,
+                       String employeeUserCpf, String vehiclePlate) {
+        this(id, startDate, endDate, reservationDate, status, promotionCode, clientUserCpf,
+             employeeUserCpf, vehiclePlate, null);
+    }
+
     /**
      * Creates a copy of this reservation with updated status.
      */
@@ -57,7 +71,26 @@ public record Reservation(
                 this.promotionCode,
                 this.clientUserCpf,
                 this.employeeUserCpf,
-                this.vehiclePlate
+                this.vehiclePlate,
+                this.version
+        );
+    }
+
+    /**
+     * Creates a copy of this reservation with another version.
+     */
+    public Reservation withVersion(Integer newVersion) {
+        return new Reservation(
+                this.id,
+                this.startDate,
+                this.endDate,
+                this.reservationDate,
+                this.status,
+                this.promotionCode,
+                this.clientUserCpf,
+                this.employeeUserCpf,
+                this.vehiclePlate,
+                newVersion
         );
     }
 
@@ -74,7 +107,8 @@ public record Reservation(
                 this.promotionCode,
                 this.clientUserCpf,
                 this.employeeUserCpf,
-                this.vehiclePlate
+                this.vehiclePlate,
+                this.version
         );
     }
 }
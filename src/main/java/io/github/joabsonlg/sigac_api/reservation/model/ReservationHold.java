@@ -0,0 +1,41 @@
+package io.github.joabsonlg.sigac_api.reservation.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity model representing a short-lived availability hold on a vehicle.
+ * A hold blocks the period for other clients until it expires or is consumed by a reservation.
+ */
+@Table("reservation_hold")
+public record ReservationHold(
+        @Id
+        @Column("id")
+        UUID id,
+
+        @Column("vehicle_plate")
+        String vehiclePlate,
+
+        @Column("client_user_cpf")
+        String clientUserCpf,
+
+        @Column("start_date")
+        LocalDateTime startDate,
+
+        @Column("end_date")
+        LocalDateTime endDate,
+
+        @Column("expires_at")
+        LocalDateTime expiresAt
+) {
+    /**
+     * Whether the hold has already expired at the given instant.
+     */
+    public boolean isExpiredAt(LocalDateTime instant) {
+        return !expiresAt.isAfter(instant);
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.joabsonlg.sigac_api.reservation.pricing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.joabsonlg.sigac_api.common.util.R2dbcUtil;
+import io.github.joabsonlg.sigac_api.dailyRate.cache.RateTimelineCache;
+import io.github.joabsonlg.sigac_api.promotion.handler.PromotionHandler;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Keeps the pricing caches of this node in step with price writes made through any node.
+ * Triggers (V19) publish the plate of every daily_rate write and the code of every promotion
+ * write on the price_changes channel; this component LISTENs on a dedicated connection and
+ * invalidates the plate's rate timeline or bumps the promotion version, which also makes the
+ * quotes priced from them unreachable in QuoteCache.
+ * Notifications sent while the connection is down are lost, so every (re)connection
+ * invalidates all timelines and bumps the promotion version.
+ */
+@Component
+public class PriceChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceChangeListener.class);
+
+    static final String CHANNEL = "price_changes";
+
+    private static final Duration MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final ConnectionFactory listenConnectionFactory;
+    private final RateTimelineCache rateTimelineCache;
+    private final PromotionHandler promotionHandler;
+    private final ObjectMapper objectMapper;
+    private volatile Disposable subscription;
+
+    public PriceChangeListener(R2dbcProperties properties,
+                               RateTimelineCache rateTimelineCache,
+                               PromotionHandler promotionHandler,
+                               ObjectMapper objectMapper) {
+        this.listenConnectionFactory = R2dbcUtil.dedicatedConnectionFactory(properties);
+        this.rateTimelineCache = rateTimelineCache;
+        this.promotionHandler = promotionHandler;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Opens the LISTEN connection once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = Flux.usingWhen(listenConnectionFactory.create(), this::listen, Connection::close)
+                // The notification stream completes when the server closes the connection
+                .concatWith(Mono.error(() -> new IllegalStateException("LISTEN connection closed")))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, MIN_BACKOFF)
+                        .maxBackoff(MAX_BACKOFF)
+                        .doBeforeRetry(signal -> logger.warn("Price change listener disconnected, reconnecting: {}",
+                                signal.failure().getMessage())))
+                .subscribe(this::apply,
+                        error -> logger.error("Price change listener stopped: {}", error.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable current = subscription;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    private Flux<Notification> listen(Connection pooledOrDirect) {
+        PostgresqlConnection connection = R2dbcUtil.unwrapPostgres(pooledOrDirect);
+        return connection.createStatement("LISTEN " + CHANNEL)
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .then(Mono.fromRunnable(() -> {
+                    logger.info("Listening for price changes on channel {}", CHANNEL);
+                    rateTimelineCache.invalidateAll();
+                    promotionHandler.invalidateVersion();
+                }))
+                .thenMany(Flux.defer(connection::getNotifications));
+    }
+
+    private void apply(Notification notification) {
+        try {
+            JsonNode payload = objectMapper.readTree(notification.getParameter());
+            switch (payload.path("table").asText()) {
+                case "daily_rate" -> rateTimelineCache.invalidate(payload.path("vehiclePlate").textValue());
+                case "promotion" -> promotionHandler.invalidateVersion();
+                default -> logger.debug("Ignoring price change notification '{}'", notification.getParameter());
+            }
+        } catch (Exception e) {
+            logger.warn("Ignoring malformed price change notification '{}': {}",
+                    notification.getParameter(), e.getMessage());
+        }
+    }
+}
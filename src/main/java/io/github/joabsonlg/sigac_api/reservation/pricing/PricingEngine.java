@@ -0,0 +1,129 @@
+package io.github.joabsonlg.sigac_api.reservation.pricing;
+
+import io.github.joabsonlg.sigac_api.dailyRate.cache.RateTimeline;
+
+import java.time.LocalDateTime;
+
+/**
+ * Prices rental periods against a vehicle's daily rate timeline.
+ *
+ * The period [start, end) is split into rental days of 24 hours counted from the start.
+ * Each day is charged the daily rate in force when that day begins, so a rate change
+ * takes effect from the next rental day; the last day is prorated to the second.
+ * Consecutive days under the same rate are priced together, so the cost is proportional
+ * to the number of rate changes in the period rather than to its length.
+ *
+ * Amounts are long cents and discounts basis points (1500 = 15%); rounding is half up,
+ * once for the gross amount and once for the discount. Pure and allocation-free.
+ */
+public final class PricingEngine {
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long MICROS_PER_DAY = SECONDS_PER_DAY * MICROS_PER_SECOND;
+    private static final long BASIS_POINTS = 10_000L;
+
+    private PricingEngine() {
+    }
+
+    /**
+     * Net amount of a rental, in cents.
+     *
+     * @param timeline daily rates of the vehicle; null or empty prices the period at zero
+     * @param startMicros start of the period, in microseconds since the epoch
+     * @param endMicros end of the period (exclusive), in microseconds since the epoch
+     * @param discountBasisPoints promotion discount in basis points
+     */
+    public static long price(RateTimeline timeline, long startMicros, long endMicros, long discountBasisPoints) {
+        return applyDiscount(grossCents(timeline, startMicros, endMicros), discountBasisPoints);
+    }
+
+    /**
+     * Net amount of a rental, in cents.
+     *
+     * @param discount promotion discount as a fraction (0.15 = 15%)
+     */
+    public static long price(RateTimeline timeline, LocalDateTime start, LocalDateTime end, double discount) {
+        return price(timeline, RateTimeline.toMicros(start), RateTimeline.toMicros(end), toBasisPoints(discount));
+    }
+
+    /**
+     * Prices several rentals at once; the result for rental i is written to netCents[i].
+     */
+    public static void priceAll(RateTimeline[] timelines, long[] startMicros, long[] endMicros,
+                                long[] discountBasisPoints, long[] netCents) {
+        for (int i = 0; i < timelines.length; i++) {
+            netCents[i] = price(timelines[i], startMicros[i], endMicros[i], discountBasisPoints[i]);
+        }
+    }
+
+    /**
+     * Amount of a rental before discount, in cents. Days before the first rate of the
+     * vehicle are charged nothing.
+     */
+    public static long grossCents(RateTimeline timeline, long startMicros, long endMicros) {
+        if (timeline == null || timeline.size() == 0 || endMicros <= startMicros) {
+            return 0L;
+        }
+        int size = timeline.size();
+        int index = timeline.floorIndex(startMicros);
+        // Sum of rate x charged seconds, divided by the seconds of a day once at the end
+        long centSeconds = 0L;
+        long dayStart = startMicros;
+        while (dayStart < endMicros) {
+            while (index + 1 < size && timeline.instantAt(index + 1) <= dayStart) {
+                index++;
+            }
+            long nextChange = index + 1 < size ? timeline.instantAt(index + 1) : Long.MAX_VALUE;
+            // Every day that begins before the next change (and before the end) shares the current rate
+            long days = Math.ceilDiv(Math.min(nextChange, endMicros) - dayStart, MICROS_PER_DAY);
+            long runEnd = Math.min(dayStart + days * MICROS_PER_DAY, endMicros);
+            if (index >= 0) {
+                centSeconds += rateCents(timeline, index) * ((runEnd - dayStart) / MICROS_PER_SECOND);
+            }
+            dayStart += days * MICROS_PER_DAY;
+        }
+        return divideHalfUp(centSeconds, SECONDS_PER_DAY);
+    }
+
+    /**
+     * Daily rate in force at the given instant, in cents; zero when there is none.
+     */
+    public static long rateCentsAt(RateTimeline timeline, long atMicros) {
+        if (timeline == null) {
+            return 0L;
+        }
+        int index = timeline.floorIndex(atMicros);
+        return index >= 0 ? rateCents(timeline, index) : 0L;
+    }
+
+    /**
+     * Subtracts a discount, clamped to [0, 100%], from an amount in cents.
+     */
+    public static long applyDiscount(long grossCents, long discountBasisPoints) {
+        long basisPoints = Math.max(0L, Math.min(BASIS_POINTS, discountBasisPoints));
+        return grossCents - divideHalfUp(grossCents * basisPoints, BASIS_POINTS);
+    }
+
+    public static long toCents(double amount) {
+        return Double.isNaN(amount) ? 0L : Math.round(amount * 100.0);
+    }
+
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+
+    public static long toBasisPoints(double fraction) {
+        return Double.isNaN(fraction) ? 0L : Math.round(fraction * BASIS_POINTS);
+    }
+
+    private static long rateCents(RateTimeline timeline, int index) {
+        return toCents(timeline.amountAt(index));
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        return dividend >= 0
+                ? (dividend + divisor / 2) / divisor
+                : -((-dividend + divisor / 2) / divisor);
+    }
+}
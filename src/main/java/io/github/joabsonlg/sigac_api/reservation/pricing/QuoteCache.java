@@ -0,0 +1,94 @@
+package io.github.joabsonlg.sigac_api.reservation.pricing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.joabsonlg.sigac_api.reservation.model.AmountSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Bounded cache of reservation quotes (W-TinyLFU admission, Caffeine).
+ *
+ * Keys carry the daily rate version of the vehicle and the promotion version. Both are bumped
+ * after writes made through this instance and, through PriceChangeListener, when a write made
+ * through another instance commits, so a price change makes the old quotes unreachable instead
+ * of serving them; they are evicted in due course. A quote whose promotion starts or ends in
+ * the future expires at that instant, and every quote expires after the TTL.
+ */
+@Component
+public class QuoteCache {
+
+    private final Cache<QuoteKey, Quote> quotes;
+
+    public QuoteCache(@Value("${sigac.quote-cache.max-size:50000}") long maxSize,
+                      @Value("${sigac.quote-cache.ttl:PT1M}") Duration ttl) {
+        long ttlNanos = ttl.toNanos();
+        this.quotes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<QuoteKey, Quote>() {
+                    @Override
+                    public long expireAfterCreate(QuoteKey key, Quote quote, long currentTime) {
+                        if (quote.validUntil() == null) {
+                            return ttlNanos;
+                        }
+                        long untilInvalid = Duration.between(LocalDateTime.now(), quote.validUntil()).toNanos();
+                        return Math.max(0L, Math.min(ttlNanos, untilInvalid));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(QuoteKey key, Quote quote, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, quote, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(QuoteKey key, Quote quote, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns the cached quote for the key, or prices it with the loader and caches the result.
+     * Failed or empty loads are not cached.
+     */
+    public Mono<AmountSnapshot> get(QuoteKey key, Mono<Quote> loader) {
+        return Mono.defer(() -> {
+            Quote cached = quotes.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached.amount());
+            }
+            return loader.doOnNext(quote -> quotes.put(key, quote))
+                    .map(Quote::amount);
+        });
+    }
+
+    /**
+     * Quote inputs, with the versions of the daily rates and promotions it was priced from.
+     *
+     * @param promotionVersion promotion version, or 0 when no promotion code was given
+     */
+    public record QuoteKey(
+            String vehiclePlate,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Integer promotionCode,
+            long rateVersion,
+            long promotionVersion
+    ) {}
+
+    /**
+     * A priced quote.
+     *
+     * @param validUntil when the promotion applied to the quote starts or stops applying, or null
+     */
+    public record Quote(
+            AmountSnapshot amount,
+            LocalDateTime validUntil
+    ) {}
+}
@@ -0,0 +1,125 @@
+package io.github.joabsonlg.sigac_api.reservation.repository;
+
+import io.github.joabsonlg.sigac_api.common.base.BaseRepository;
+import io.github.joabsonlg.sigac_api.reservation.model.ReservationHold;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Repository for the reservation_hold mirror of the in-memory availability holds.
+ */
+@Repository
+public class ReservationHoldRepository extends BaseRepository<ReservationHold, UUID> {
+
+    public ReservationHoldRepository(DatabaseClient databaseClient) {
+        super(databaseClient);
+    }
+
+    @Override
+    protected String getTableName() {
+        return "reservation_hold";
+    }
+
+    /**
+     * Saves a new hold
+     */
+    public Mono<ReservationHold> save(ReservationHold hold) {
+        return databaseClient.sql("""
+            INSERT INTO reservation_hold (id, vehicle_plate, client_user_cpf, start_date, end_date, expires_at)
+            VALUES (:id, :vehicle_plate, :client_user_cpf, :start_date, :end_date, :expires_at)
+        """)
+        .bind("id", hold.id())
+        .bind("vehicle_plate", hold.vehiclePlate())
+        .bind("client_user_cpf", hold.clientUserCpf())
+        .bind("start_date", hold.startDate())
+        .bind("end_date", hold.endDate())
+        .bind("expires_at", hold.expiresAt())
+        .then()
+        .thenReturn(hold);
+    }
+
+    /**
+     * Finds the holds that have not expired yet
+     */
+    public Flux<ReservationHold> findActive(LocalDateTime now) {
+        return databaseClient.sql("""
+            SELECT id, vehicle_plate, client_user_cpf, start_date, end_date, expires_at
+            FROM reservation_hold
+            WHERE expires_at > :now
+        """)
+        .bind("now", now)
+        .map(row -> new ReservationHold(
+            row.get("id", UUID.class),
+            row.get("vehicle_plate", String.class),
+            row.get("client_user_cpf", String.class),
+            row.get("start_date", LocalDateTime.class),
+            row.get("end_date", LocalDateTime.class),
+            row.get("expires_at", LocalDateTime.class)))
+        .all();
+    }
+
+    /**
+     * Finds a hold by id if it has not expired yet
+     */
+    public Mono<ReservationHold> findLiveById(UUID id, LocalDateTime now) {
+        return databaseClient.sql("""
+            SELECT id, vehicle_plate, client_user_cpf, start_date, end_date, expires_at
+            FROM reservation_hold
+            WHERE id = :id AND expires_at > :now
+        """)
+        .bind("id", id)
+        .bind("now", now)
+        .map(row -> new ReservationHold(
+            row.get("id", UUID.class),
+            row.get("vehicle_plate", String.class),
+            row.get("client_user_cpf", String.class),
+            row.get("start_date", LocalDateTime.class),
+            row.get("end_date", LocalDateTime.class),
+            row.get("expires_at", LocalDateTime.class)))
+        .one();
+    }
+
+    /**
+     * Checks whether a live hold of a client other than ownerCpf overlaps the period (inclusive bounds)
+     */
+    public Mono<Boolean> existsConflict(String vehiclePlate, LocalDateTime startDate, LocalDateTime endDate,
+                                        String ownerCpf, LocalDateTime now) {
+        String sql = """
+            SELECT EXISTS (
+                SELECT 1 FROM reservation_hold
+                WHERE vehicle_plate = :vehicle_plate
+                  AND expires_at > :now
+                  AND start_date <= :end_date AND end_date >= :start_date
+                  %s
+            )
+        """.formatted(ownerCpf != null ? "AND client_user_cpf <> :owner_cpf" : "");
+
+        var query = databaseClient.sql(sql)
+            .bind("vehicle_plate", vehiclePlate)
+            .bind("start_date", startDate)
+            .bind("end_date", endDate)
+            .bind("now", now);
+        if (ownerCpf != null) {
+            query = query.bind("owner_cpf", ownerCpf);
+        }
+
+        return query.map(row -> row.get(0, Boolean.class))
+            .one()
+            .defaultIfEmpty(false);
+    }
+
+    /**
+     * Deletes every hold that expired at or before the given instant
+     */
+    public Mono<Long> deleteExpired(LocalDateTime now) {
+        return databaseClient.sql("DELETE FROM reservation_hold WHERE expires_at <= :now")
+            .bind("now", now)
+            .fetch()
+            .rowsUpdated();
+    }
+}
@@ -1,16 +1,26 @@
 package io.github.joabsonlg.sigac_api.reservation.repository;
 
 import io.github.joabsonlg.sigac_api.common.base.BaseRepository;
+import io.github.joabsonlg.sigac_api.common.exception.ValidationException;
+import io.github.joabsonlg.sigac_api.common.util.StringUtil;
 import io.github.joabsonlg.sigac_api.reservation.enumeration.ReservationStatus;
+import io.github.joabsonlg.sigac_api.reservation.model.AmountSnapshot;
 import io.github.joabsonlg.sigac_api.reservation.model.Reservation;
+import io.r2dbc.spi.R2dbcException;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Repository for executing manual SQL queries related to Reservation.
@@ -19,6 +29,29 @@ import java.util.Map;
 @Repository
 public class ReservationRepository extends BaseRepository<Reservation, Integer> {
 
+    /**
+     * SQLSTATE raised by PostgreSQL when an exclusion constraint is violated
+     */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    /**
+     * Rows fetched per round trip when streaming unpaginated results
+     */
+    private static final int STREAM_FETCH_SIZE = 250;
+
+    /**
+     * Row estimate of a plan node in EXPLAIN text output, e.g. "(cost=0.00..1.05 rows=5 width=4)"
+     */
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    /**
+     * Columns selected by the detailed reservation queries, in the order expected by mapRowToReservationDetails
+     */
+    private static final String DETAILS_SELECTION = "r.id, r.start_date, r.end_date, r.reservation_date, r.status, " +
+        "r.promotion_code, r.client_user_cpf, u_client.name as client_name, " +
+        "r.employee_user_cpf, u_employee.name as employee_name, " +
+        "r.vehicle_plate, v.model as vehicle_model, v.brand as vehicle_brand, r.total_amount, r.version";
+
     public ReservationRepository(DatabaseClient databaseClient) {
         super(databaseClient);
     }
@@ -34,7 +67,7 @@ public class ReservationRepository extends BaseRepository<Reservation, Integer>
     public Flux<Reservation> findAll() {
         return databaseClient.sql("""
             SELECT id, start_date, end_date, reservation_date, status,
-                   promotion_code, client_user_cpf, employee_user_cpf, vehicle_plate
+                   promotion_code, client_user_cpf, employee_user_cpf, vehicle_plate, version
             FROM reservation
             ORDER BY reservation_date DESC
         """)
@@ -48,7 +81,7 @@ public class ReservationRepository extends BaseRepository<Reservation, Integer>
     public Mono<Reservation> findById(Integer id) {
         return databaseClient.sql("""
             SELECT id, start_date, end_date, reservation_date, status,
-                   promotion_code, client_user_cpf, employee_user_cpf, vehicle_plate
+                   promotion_code, client_user_cpf, employee_user_cpf, vehicle_plate, version
             FROM reservation
             WHERE id = :id
         """)
@@ -58,37 +91,25 @@ public class ReservationRepository extends BaseRepository<Reservation, Integer>
     }
 
     /**
-     * Finds reservations with complete information including client and vehicle details
+     * Finds reservations that still hold their vehicle (pending, confirmed or in progress)
      */
-    public Flux<Object[]> findAllWithDetails() {
+    public Flux<Reservation> findActiveReservations() {
         return databaseClient.sql("""
-            SELECT r.id, r.start_date, r.end_date, r.reservation_date, r.status,
-                   r.promotion_code, r.client_user_cpf, u_client.name as client_name,
-                   r.employee_user_cpf, u_employee.name as employee_name,
-                   r.vehicle_plate, v.model as vehicle_model, v.brand as vehicle_brand
-            FROM reservation r
-            LEFT JOIN client c ON r.client_user_cpf = c.user_cpf
-            LEFT JOIN users u_client ON c.user_cpf = u_client.cpf
-            LEFT JOIN employee e ON r.employee_user_cpf = e.user_cpf
-            LEFT JOIN users u_employee ON e.user_cpf = u_employee.cpf
-            LEFT JOIN vehicle v ON r.vehicle_plate = v.plate
-            ORDER BY r.reservation_date DESC
+            SELECT id, start_date, end_date, reservation_date, status,
+                   promotion_code, client_user_cpf, employee_user_cpf, vehicle_plate, version
+            FROM reservation
+            WHERE status IN ('PENDENTE', 'CONFIRMADA', 'EM_ANDAMENTO')
         """)
-        .map((row, metadata) -> new Object[]{
-            row.get("id", Integer.class),
-            row.get("start_date", LocalDateTime.class),
-            row.get("end_date", LocalDateTime.class),
-            row.get("reservation_date", LocalDateTime.class),
-            mapStatusFromString(row.get("status", String.class)),
-            row.get("promotion_code", Integer.class),
-            row.get("client_user_cpf", String.class),
-            row.get("client_name", String.class),
-            row.get("employee_user_cpf", String.class),
-            row.get("employee_name", String.class),
-            row.get("vehicle_plate", String.class),
-            row.get("vehicle_model", String.class),
-            row.get("vehicle_brand", String.class)
-        })
+        .map(this::mapRowToReservation)
+        .all();
+    }
+
+    /**
+     * Finds reservations with complete information including client and vehicle details
+     */
+    public Flux<Object[]> findAllWithDetails() {
+        return databaseClient.sql(buildDynamicQuery(DETAILS_SELECTION) + " ORDER BY r.reservation_date DESC")
+        .map(this::mapRowToReservationDetails)
         .all();
     }
 
@@ -98,7 +119,7 @@ public class ReservationRepository extends BaseRepository<Reservation, Integer>
     public Flux<Reservation> findWithPagination(int page, int size) {
         return databaseClient.sql("""
             SELECT id, start_date, end_date, reservation_date, status,
-                   promotion_code, client_user_cpf, employee_user_cpf, vehicle_plate
+                   promotion_code, client_user_cpf, employee_user_cpf, vehicle_plate, version
             FROM reservation
             ORDER BY reservation_date DESC
         """ + createLimitOffset(page, size))
@@ -110,34 +131,9 @@ public class ReservationRepository extends BaseRepository<Reservation, Integer>
      * Finds reservations with complete information and pagination
      */
     public Flux<Object[]> findWithDetailsAndPagination(int page, int size) {
-        return databaseClient.sql("""
-            SELECT r.id, r.start_date, r.end_date, r.reservation_date, r.status,
-                   r.promotion_code, r.client_user_cpf, u_client.name as client_name,
-                   r.employee_user_cpf, u_employee.name as employee_name,
-                   r.vehicle_plate, v.model as vehicle_model, v.brand as vehicle_brand
-            FROM reservation r
-            LEFT JOIN client c ON r.client_user_cpf = c.user_cpf
-            LEFT JOIN users u_client ON c.user_cpf = u_client.cpf
-            LEFT JOIN employee e ON r.employee_user_cpf = e.user_cpf
-            LEFT JOIN users u_employee ON e.user_cpf = u_employee.cpf
-            LEFT JOIN vehicle v ON r.vehicle_plate = v.plate
-            ORDER BY r.reservation_date DESC
-        """ + createLimitOffset(page, size))
-        .map((row, metadata) -> new Object[]{
-            row.get("id", Integer.class),
-            row.get("start_date", LocalDateTime.class),
-            row.get("end_date", LocalDateTime.class),
-            row.get("reservation_date", LocalDateTime.class),
-            mapStatusFromString(row.get("status", String.class)),
-            row.get("promotion_code", Integer.class),
-            row.get("client_user_cpf", String.class),
-            row.get("client_name", String.class),
-            row.get("employee_user_cpf", String.class),
-            row.get("employee_name", String.class),
-            row.get("vehicle_plate", String.class),
-            row.get("vehicle_model", String.class),
-            row.get("vehicle_brand", String.class)
-        })
+        return databaseClient.sql(buildDynamicQuery(DETAILS_SELECTION) +
+            " ORDER BY r.reservation_date DESC" + createLimitOffset(page, size))
+        .map(this::mapRowToReservationDetails)
         .all();
     }
 
@@ -173,32 +169,111 @@ public class ReservationRepository extends BaseRepository<Reservation, Integer>
      * @return A Flux of object arrays representing the detailed reservations.
      */
     public Flux<Object[]> findAllWithDetailsAndFilters(ReservationStatus status, String query, String cpf, int page, int size) {
-        String sql = buildDynamicQuery("r.id, r.start_date, r.end_date, r.reservation_date, r.status, " +
-                "r.promotion_code, r.client_user_cpf, u_client.name as client_name, " +
-                "r.employee_user_cpf, u_employee.name as employee_name, " +
-                "r.vehicle_plate, v.model as vehicle_model, v.brand as vehicle_brand") +
-            buildWhereClause(status, query, cpf) +
+        return findAllWithDetailsAndFilters(status, query, cpf, null, page, size);
+    }
+
+    /**
+     * Finds reservations with details and filters for status, query, client CPF and vehicle plate.
+     * CPF and plate are matched by indexed equality predicates in SQL.
+     *
+     * @param status   The status to filter by (optional).
+     * @param query    The query string to filter by (optional).
+     * @param cpf      The client CPF to filter by (optional).
+     * @param plate    The vehicle plate to filter by (optional).
+     * @param page     The page number for pagination.
+     * @param size     The page size for pagination.
+     * @return A Flux of object arrays representing the detailed reservations.
+     */
+    public Flux<Object[]> findAllWithDetailsAndFilters(ReservationStatus status, String query, String cpf, String plate, int page, int size) {
+        String sql = buildDynamicQuery(DETAILS_SELECTION) +
+            buildWhereClause(status, query, cpf, plate) +
             " ORDER BY r.reservation_date DESC" +
             createLimitOffset(page, size);
 
         DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
-        spec = bindWhereClauseParameters(spec, status, query, cpf);
+        spec = bindWhereClauseParameters(spec, status, query, cpf, plate);
 
-        return spec.map((row, metadata) -> new Object[]{
-            row.get("id", Integer.class),
-            row.get("start_date", LocalDateTime.class),
-            row.get("end_date", LocalDateTime.class),
-            row.get("reservation_date", LocalDateTime.class),
-            mapStatusFromString(row.get("status", String.class)),
-            row.get("promotion_code", Integer.class),
-            row.get("client_user_cpf", String.class),
-            row.get("client_name", String.class),
-            row.get("employee_user_cpf", String.class),
-            row.get("employee_name", String.class),
-            row.get("vehicle_plate", String.class),
-            row.get("vehicle_model", String.class),
-            row.get("vehicle_brand", String.class)
-        }).all();
+        return spec.map(this::mapRowToReservationDetails).all();
+    }
+
+    /**
+     * Finds one page of reservations plus one extra row, so callers can tell whether a
+     * following page exists without running a count query.
+     *
+     * @param status The status to filter by (optional).
+     * @param query  The query string to filter by (optional).
+     * @param cpf    The client CPF to filter by (optional).
+     * @param plate  The vehicle plate to filter by (optional).
+     * @param page   The page number for pagination.
+     * @param size   The page size for pagination.
+     * @return A Flux with up to size + 1 detailed reservations.
+     */
+    public Flux<Object[]> findSliceWithDetailsAndFilters(ReservationStatus status, String query, String cpf, String plate, int page, int size) {
+        String sql = buildDynamicQuery(DETAILS_SELECTION) +
+            buildWhereClause(status, query, cpf, plate) +
+            " ORDER BY r.reservation_date DESC" +
+            String.format(" LIMIT %d OFFSET %d", size + 1, page * size);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        spec = bindWhereClauseParameters(spec, status, query, cpf, plate);
+
+        return spec.map(this::mapRowToReservationDetails).all();
+    }
+
+    /**
+     * Finds reservations with details and filters using keyset (seek) pagination.
+     * Rows are ordered by (reservation_date, id) descending and start strictly after the given
+     * position, so deep pages cost the same as the first one (backed by idx_reservation_date_id).
+     *
+     * @param status    The status to filter by (optional).
+     * @param query     The query string to filter by (optional).
+     * @param cpf       The client CPF to filter by (optional).
+     * @param plate     The vehicle plate to filter by (optional).
+     * @param afterDate Reservation date of the last row already returned, or null for the first page.
+     * @param afterId   ID of the last row already returned, or null for the first page.
+     * @param limit     The maximum number of rows to return.
+     * @return A Flux of object arrays representing the detailed reservations.
+     */
+    public Flux<Object[]> findAllWithDetailsAfter(ReservationStatus status, String query, String cpf, String plate,
+                                                  LocalDateTime afterDate, Integer afterId, int limit) {
+        boolean seek = afterDate != null && afterId != null;
+        String sql = buildDynamicQuery(DETAILS_SELECTION) +
+            buildWhereClause(status, query, cpf, plate) +
+            (seek ? " AND (r.reservation_date, r.id) < (:after_date, :after_id)" : "") +
+            " ORDER BY r.reservation_date DESC, r.id DESC" +
+            " LIMIT :limit";
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        spec = bindWhereClauseParameters(spec, status, query, cpf, plate);
+        if (seek) {
+            spec = spec.bind("after_date", afterDate).bind("after_id", afterId);
+        }
+        spec = spec.bind("limit", limit);
+
+        return spec.map(this::mapRowToReservationDetails).all();
+    }
+
+    /**
+     * Streams every reservation matching the filters, without pagination.
+     * Rows are emitted as they arrive from the database cursor, which is read in
+     * batches of STREAM_FETCH_SIZE as downstream demand allows.
+     *
+     * @param status The status to filter by (optional).
+     * @param query  The query string to filter by (optional).
+     * @param cpf    The client CPF to filter by (optional).
+     * @param plate  The vehicle plate to filter by (optional).
+     * @return A Flux of object arrays representing the detailed reservations.
+     */
+    public Flux<Object[]> streamAllWithDetailsAndFilters(ReservationStatus status, String query, String cpf, String plate) {
+        String sql = buildDynamicQuery(DETAILS_SELECTION) +
+            buildWhereClause(status, query, cpf, plate) +
+            " ORDER BY r.reservation_date DESC";
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+            .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE));
+        spec = bindWhereClauseParameters(spec, status, query, cpf, plate);
+
+        return spec.map(this::mapRowToReservationDetails).all();
     }
 
     /**
@@ -231,16 +306,84 @@ public class ReservationRepository extends BaseRepository<Reservation, Integer>
      * @return A Mono containing the total count of matching reservations.
      */
     public Mono<Long> countWithFilters(ReservationStatus status, String query, String cpf) {
-        String sql = buildDynamicQuery("COUNT(*)") + buildWhereClause(status, query, cpf);
+        return countWithFilters(status, query, cpf, null);
+    }
+
+    /**
+     * Counts reservations based on dynamic filters for status, query, client CPF and vehicle plate.
+     *
+     * @param status The status to filter by (optional).
+     * @param query  The query string to filter by (optional).
+     * @param cpf    The client CPF to filter by (optional).
+     * @param plate  The vehicle plate to filter by (optional).
+     * @return A Mono containing the total count of matching reservations.
+     */
+    public Mono<Long> countWithFilters(ReservationStatus status, String query, String cpf, String plate) {
+        String sql = buildDynamicQuery("COUNT(*)") + buildWhereClause(status, query, cpf, plate);
 
         DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
-        spec = bindWhereClauseParameters(spec, status, query, cpf);
+        spec = bindWhereClauseParameters(spec, status, query, cpf, plate);
 
         return spec.map(row -> row.get(0, Long.class)).first();
     }
 
+    /**
+     * Estimates the number of reservations matching the filters from the query planner,
+     * reading the row estimate of the top plan node instead of executing the query.
+     *
+     * @param status The status to filter by (optional).
+     * @param query  The query string to filter by (optional).
+     * @param cpf    The client CPF to filter by (optional).
+     * @param plate  The vehicle plate to filter by (optional).
+     * @return A Mono containing the planner's row estimate.
+     */
+    public Mono<Long> estimateWithFilters(ReservationStatus status, String query, String cpf, String plate) {
+        String sql = "EXPLAIN " + buildDynamicQuery("r.id") + buildWhereClause(status, query, cpf, plate);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        spec = bindWhereClauseParameters(spec, status, query, cpf, plate);
+
+        return spec.map(row -> row.get(0, String.class))
+            .first()
+            .map(plan -> {
+                Matcher matcher = PLAN_ROWS.matcher(plan);
+                return matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
+            });
+    }
+
+    /**
+     * Searches reservations by client name, vehicle model, brand or plate, ranked by relevance.
+     * Matches substrings and close spellings (trigram word similarity) on the indexed search_text column.
+     *
+     * @param term  The search term.
+     * @param cpf   The client CPF to restrict the search to (optional).
+     * @param limit The maximum number of results.
+     * @return A Flux of object arrays representing the detailed reservations, best matches first.
+     */
+    public Flux<Object[]> searchWithDetails(String term, String cpf, int limit) {
+        String sql = buildDynamicQuery(DETAILS_SELECTION) +
+            buildWhereClause(null, null, cpf, null) +
+            " AND (r.search_text ILIKE :pattern ESCAPE '\\' OR :term <% r.search_text)" +
+            " ORDER BY word_similarity(:term, r.search_text) DESC, r.reservation_date DESC" +
+            " LIMIT :limit";
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        spec = bindWhereClauseParameters(spec, null, null, cpf, null);
+        String normalizedTerm = term.trim().toLowerCase();
+
+        return spec.bind("pattern", "%" + StringUtil.escapeLike(normalizedTerm) + "%")
+            .bind("term", normalizedTerm)
+            .bind("limit", limit)
+            .map(this::mapRowToReservationDetails)
+            .all();
+    }
+
     private String buildDynamicQuery(String selection) {
-        return "SELECT " + selection + " FROM reservation r " +
+        return buildDynamicQuery(selection, "reservation");
+    }
+
+    private String buildDynamicQuery(String selection, String table) {
+        return "SELECT " + selection + " FROM " + table + " r " +
             "LEFT JOIN client c ON r.client_user_cpf = c.user_cpf " +
             "LEFT JOIN users u_client ON c.user_cpf = u_client.cpf " +
             "LEFT JOIN employee e ON r.employee_user_cpf = e.user_cpf " +
@@ -248,33 +391,37 @@ public class ReservationRepository extends BaseRepository<Reservation, Integer>
             "LEFT JOIN vehicle v ON r.vehicle_plate = v.plate";
     }
 
-    private String buildWhereClause(ReservationStatus status, String query, String cpf) {
+    private String buildWhereClause(ReservationStatus status, String query, String cpf, String plate) {
         StringBuilder whereClause = new StringBuilder(" WHERE 1=1");
         if (status != null) {
             whereClause.append(" AND r.status = :status");
         }
         if (query != null && !query.trim().isEmpty()) {
-            whereClause.append(" AND (LOWER(u_client.name) LIKE LOWER(:query) " +
-                "OR LOWER(v.model) LIKE LOWER(:query) " +
-                "OR LOWER(v.brand) LIKE LOWER(:query) " +
-                "OR r.vehicle_plate LIKE UPPER(:query))");
+            // search_text holds client name, vehicle model, brand and plate in lower case (trigram indexed)
+            whereClause.append(" AND r.search_text ILIKE :query ESCAPE '\\'");
         }
         if (cpf != null && !cpf.trim().isEmpty()) {
             whereClause.append(" AND r.client_user_cpf = :cpf");
         }
+        if (plate != null && !plate.trim().isEmpty()) {
+            whereClause.append(" AND r.vehicle_plate = :plate");
+        }
         return whereClause.toString();
     }
 
-    private DatabaseClient.GenericExecuteSpec bindWhereClauseParameters(DatabaseClient.GenericExecuteSpec spec, ReservationStatus status, String query, String cpf) {
+    private DatabaseClient.GenericExecuteSpec bindWhereClauseParameters(DatabaseClient.GenericExecuteSpec spec, ReservationStatus status, String query, String cpf, String plate) {
         if (status != null) {
             spec = spec.bind("status", mapStatusToString(status));
         }
         if (query != null && !query.trim().isEmpty()) {
-            spec = spec.bind("query", "%" + query + "%");
+            spec = spec.bind("query", "%" + StringUtil.escapeLike(query) + "%");
         }
         if (cpf != null && !cpf.trim().isEmpty()) {
             spec = spec.bind("cpf", cpf);
         }
+        if (plate != null && !plate.trim().isEmpty()) {
+            spec = spec.bind("plate", plate);
+        }
         return spec;
     }
 
@@ -282,11 +429,20 @@ public class ReservationRepository extends BaseRepository<Reservation, Integer>
      * Saves a new reservation
      */
     public Mono<Reservation> save(Reservation reservation) {
+        return save(reservation, null);
+    }
+
+    /**
+     * Saves a new reservation together with its pricing snapshot (may be null)
+     */
+    public Mono<Reservation> save(Reservation reservation, AmountSnapshot amount) {
         DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
             INSERT INTO reservation (start_date, end_date, reservation_date, status,
-                                   promotion_code, client_user_cpf, employee_user_cpf, vehicle_plate)
+                                   promotion_code, client_user_cpf, employee_user_cpf, vehicle_plate,
+                                   rate_snapshot, discount_snapshot, total_amount)
             VALUES (:start_date, :end_date, :reservation_date, :status,
-                    :promotion_code, :client_user_cpf, :employee_user_cpf, :vehicle_plate)
+                    :promotion_code, :client_user_cpf, :employee_user_cpf, :vehicle_plate,
+                    :rate_snapshot, :discount_snapshot, :total_amount)
             RETURNING id
         """)
         .bind("start_date", reservation.startDate())
@@ -305,26 +461,174 @@ public class ReservationRepository extends BaseRepository<Reservation, Integer>
         } else {
             spec = spec.bindNull("employee_user_cpf", String.class);
         }
+        spec = bindAmountSnapshot(spec, amount);
         return spec
             .map(row -> row.get("id", Integer.class))
             .one()
             .map(id -> new Reservation(id, reservation.startDate(), reservation.endDate(),
                                      reservation.reservationDate(), reservation.status(),
                                      reservation.promotionCode(), reservation.clientUserCpf(),
-                                     reservation.employeeUserCpf(), reservation.vehiclePlate()));
+                                     reservation.employeeUserCpf(), reservation.vehiclePlate(), 0))
+            .onErrorMap(ReservationRepository::isOverlapViolation, ReservationRepository::toUnavailableVehicle);
+    }
+
+    /**
+     * Checks a set of new reservations in one query and reports the ones that cannot be inserted.
+     * Each problem is one of VEHICLE_NOT_FOUND, CLIENT_NOT_FOUND, EMPLOYEE_NOT_FOUND,
+     * PROMOTION_NOT_FOUND, VEHICLE_UNAVAILABLE (overlaps an active reservation) or VEHICLE_HELD
+     * (overlaps a live hold of another client).
+     *
+     * @param reservations the reservations to check
+     * @return A Flux of {Integer position in the list, String problem} for the rejected reservations only.
+     */
+    public Flux<Object[]> findBatchProblems(List<Reservation> reservations) {
+        return databaseClient.sql("""
+            SELECT position, problem FROM (
+                SELECT k.position - 1 AS position,
+                       CASE
+                           WHEN NOT EXISTS (SELECT 1 FROM vehicle v WHERE v.plate = k.vehicle_plate)
+                               THEN 'VEHICLE_NOT_FOUND'
+                           WHEN NOT EXISTS (SELECT 1 FROM client c WHERE c.user_cpf = k.client_user_cpf)
+                               THEN 'CLIENT_NOT_FOUND'
+                           WHEN k.employee_user_cpf IS NOT NULL
+                                AND NOT EXISTS (SELECT 1 FROM employee e WHERE e.user_cpf = k.employee_user_cpf)
+                               THEN 'EMPLOYEE_NOT_FOUND'
+                           WHEN k.promotion_code IS NOT NULL
+                                AND NOT EXISTS (SELECT 1 FROM promotion p WHERE p.code = k.promotion_code)
+                               THEN 'PROMOTION_NOT_FOUND'
+                           WHEN EXISTS (
+                               SELECT 1 FROM reservation r
+                               WHERE r.vehicle_plate = k.vehicle_plate
+                                 AND r.status IN ('PENDENTE', 'CONFIRMADA', 'EM_ANDAMENTO')
+                                 AND tsrange(r.start_date, r.end_date, '[]') && tsrange(k.start_date, k.end_date, '[]')
+                           ) THEN 'VEHICLE_UNAVAILABLE'
+                           WHEN EXISTS (
+                               SELECT 1 FROM reservation_hold h
+                               WHERE h.vehicle_plate = k.vehicle_plate
+                                 AND h.expires_at > :now
+                                 AND h.start_date <= k.end_date AND h.end_date >= k.start_date
+                                 AND h.client_user_cpf <> k.client_user_cpf
+                           ) THEN 'VEHICLE_HELD'
+                       END AS problem
+                FROM unnest(CAST(:vehicle_plates AS VARCHAR[]), CAST(:start_dates AS TIMESTAMP[]),
+                            CAST(:end_dates AS TIMESTAMP[]), CAST(:client_user_cpfs AS VARCHAR[]),
+                            CAST(:employee_user_cpfs AS VARCHAR[]), CAST(:promotion_codes AS INT[]))
+                     WITH ORDINALITY AS k(vehicle_plate, start_date, end_date, client_user_cpf,
+                                          employee_user_cpf, promotion_code, position)
+            ) checked
+            WHERE problem IS NOT NULL
+        """)
+        .bind("vehicle_plates", reservations.stream().map(Reservation::vehiclePlate).toArray(String[]::new))
+        .bind("start_dates", reservations.stream().map(Reservation::startDate).toArray(LocalDateTime[]::new))
+        .bind("end_dates", reservations.stream().map(Reservation::endDate).toArray(LocalDateTime[]::new))
+        .bind("client_user_cpfs", reservations.stream().map(Reservation::clientUserCpf).toArray(String[]::new))
+        .bind("employee_user_cpfs", reservations.stream().map(Reservation::employeeUserCpf).toArray(String[]::new))
+        .bind("promotion_codes", reservations.stream().map(Reservation::promotionCode).toArray(Integer[]::new))
+        .bind("now", LocalDateTime.now())
+        .map(row -> new Object[]{
+            row.get("position", Long.class).intValue(),
+            row.get("problem", String.class)
+        })
+        .all();
+    }
+
+    /**
+     * Saves several new reservations, with their pricing snapshots (same order), in a single multi-row INSERT.
+     * Ids are drawn from the sequence per input position (WITH ORDINALITY) before inserting, so every row is
+     * matched back to its position. A row that would overlap an active reservation committed concurrently
+     * is skipped (ON CONFLICT ON CONSTRAINT reservation_vehicle_period_excl DO NOTHING) instead of failing the
+     * batch; any other constraint violation still fails the statement.
+     *
+     * @return the reservations in input order, with their new id, or with a null id when the row was skipped
+     */
+    public Flux<Reservation> saveAll(List<Reservation> reservations, List<AmountSnapshot> amounts) {
+        if (reservations.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql("""
+            WITH input AS (
+                SELECT nextval(pg_get_serial_sequence('reservation', 'id')) AS id, i.*
+                FROM unnest(CAST(:start_dates AS TIMESTAMP[]), CAST(:end_dates AS TIMESTAMP[]),
+                            CAST(:reservation_dates AS TIMESTAMP[]), CAST(:statuses AS VARCHAR[]),
+                            CAST(:promotion_codes AS INT[]), CAST(:client_user_cpfs AS VARCHAR[]),
+                            CAST(:employee_user_cpfs AS VARCHAR[]), CAST(:vehicle_plates AS VARCHAR[]),
+                            CAST(:rate_snapshots AS NUMERIC[]), CAST(:discount_snapshots AS NUMERIC[]),
+                            CAST(:total_amounts AS NUMERIC[]))
+                     WITH ORDINALITY AS i(start_date, end_date, reservation_date, status,
+                                          promotion_code, client_user_cpf, employee_user_cpf, vehicle_plate,
+                                          rate_snapshot, discount_snapshot, total_amount, ord)
+            ),
+            inserted AS (
+                INSERT INTO reservation (id, start_date, end_date, reservation_date, status,
+                                       promotion_code, client_user_cpf, employee_user_cpf, vehicle_plate,
+                                       rate_snapshot, discount_snapshot, total_amount)
+                SELECT id, start_date, end_date, reservation_date, status,
+                       promotion_code, client_user_cpf, employee_user_cpf, vehicle_plate,
+                       rate_snapshot, discount_snapshot, total_amount
+                FROM input
+                ORDER BY ord
+                ON CONFLICT ON CONSTRAINT reservation_vehicle_period_excl DO NOTHING
+                RETURNING id
+            )
+            SELECT input.ord, inserted.id
+            FROM inserted JOIN input ON input.id = inserted.id
+        """)
+        .bind("start_dates", reservations.stream().map(Reservation::startDate).toArray(LocalDateTime[]::new))
+        .bind("end_dates", reservations.stream().map(Reservation::endDate).toArray(LocalDateTime[]::new))
+        .bind("reservation_dates", reservations.stream().map(Reservation::reservationDate).toArray(LocalDateTime[]::new))
+        .bind("statuses", reservations.stream().map(reservation -> mapStatusToString(reservation.status())).toArray(String[]::new))
+        .bind("promotion_codes", reservations.stream().map(Reservation::promotionCode).toArray(Integer[]::new))
+        .bind("client_user_cpfs", reservations.stream().map(Reservation::clientUserCpf).toArray(String[]::new))
+        .bind("employee_user_cpfs", reservations.stream().map(Reservation::employeeUserCpf).toArray(String[]::new))
+        .bind("vehicle_plates", reservations.stream().map(Reservation::vehiclePlate).toArray(String[]::new))
+        .bind("rate_snapshots", amounts.stream().map(AmountSnapshot::dailyRate).toArray(BigDecimal[]::new))
+        .bind("discount_snapshots", amounts.stream().map(AmountSnapshot::discount).toArray(BigDecimal[]::new))
+        .bind("total_amounts", amounts.stream().map(AmountSnapshot::totalAmount).toArray(BigDecimal[]::new))
+        .map(row -> Map.entry(
+            row.get("ord", Long.class).intValue() - 1,
+            row.get("id", Integer.class)))
+        .all()
+        .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+        .flatMapMany(idsByPosition -> Flux.range(0, reservations.size())
+            .map(position -> {
+                Reservation reservation = reservations.get(position);
+                return new Reservation(
+                    idsByPosition.get(position),
+                    reservation.startDate(), reservation.endDate(), reservation.reservationDate(),
+                    reservation.status(), reservation.promotionCode(), reservation.clientUserCpf(),
+                    reservation.employeeUserCpf(), reservation.vehiclePlate(), 0);
+            }));
     }
 
     /**
      * Updates an existing reservation
      */
     public Mono<Reservation> update(Reservation reservation) {
-        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+        return update(reservation, null);
+    }
+
+    /**
+     * Updates an existing reservation and, when amount is not null, its pricing snapshot.
+     * The version is incremented; when the reservation carries a version the row is only
+     * updated if it still has that version (optimistic locking).
+     *
+     * @return the reservation with its new version, or empty if the row is gone or was changed concurrently
+     */
+    public Mono<Reservation> update(Reservation reservation, AmountSnapshot amount) {
+        String sql = """
             UPDATE reservation
             SET start_date = :start_date, end_date = :end_date, status = :status,
                 promotion_code = :promotion_code, employee_user_cpf = :employee_user_cpf,
-                vehicle_plate = :vehicle_plate
-            WHERE id = :id
-        """)
+                vehicle_plate = :vehicle_plate, version = version + 1
+        """;
+        if (amount != null) {
+            sql += ", rate_snapshot = :rate_snapshot, discount_snapshot = :discount_snapshot, total_amount = :total_amount";
+        }
+        sql += " WHERE id = :id";
+        if (reservation.version() != null) {
+            sql += " AND version = :version";
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql + " RETURNING version")
         .bind("id", reservation.id())
         .bind("start_date", reservation.startDate())
         .bind("end_date", reservation.endDate())
@@ -343,40 +647,358 @@ public class ReservationRepository extends BaseRepository<Reservation, Integer>
             spec = spec.bindNull("employee_user_cpf", String.class);
         }
 
+        if (amount != null) {
+            spec = bindAmountSnapshot(spec, amount);
+        }
+
+        if (reservation.version() != null) {
+            spec = spec.bind("version", reservation.version());
+        }
+
         return spec
-            .then()
-            .thenReturn(reservation);
+            .map(row -> row.get("version", Integer.class))
+            .one()
+            .map(reservation::withVersion)
+            .onErrorMap(ReservationRepository::isOverlapViolation, ReservationRepository::toUnavailableVehicle);
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindAmountSnapshot(DatabaseClient.GenericExecuteSpec spec, AmountSnapshot amount) {
+        if (amount == null) {
+            return spec.bindNull("rate_snapshot", BigDecimal.class)
+                .bindNull("discount_snapshot", BigDecimal.class)
+                .bindNull("total_amount", BigDecimal.class);
+        }
+        return spec.bind("rate_snapshot", amount.dailyRate())
+            .bind("discount_snapshot", amount.discount())
+            .bind("total_amount", amount.totalAmount());
     }
 
     /**
-     * Checks if a vehicle is available for the given date range
+     * Finds the persisted pricing snapshot of a reservation; empty when it was never priced
      */
-    public Mono<Boolean> isVehicleAvailable(String vehiclePlate, LocalDateTime startDate, LocalDateTime endDate, Integer excludeReservationId) {
-        String sql = """
-            SELECT COUNT(*)
+    public Mono<AmountSnapshot> findAmountSnapshotById(Integer id) {
+        return databaseClient.sql("""
+            SELECT rate_snapshot, discount_snapshot, total_amount
             FROM reservation
-            WHERE vehicle_plate = :vehicle_plate
-              AND status IN ('PENDENTE', 'CONFIRMADA', 'EM_ANDAMENTO')
-              AND (
-                (:start_date BETWEEN start_date AND end_date) OR
-                (:end_date BETWEEN start_date AND end_date) OR
-                (start_date BETWEEN :start_date AND :end_date) OR
-                (end_date BETWEEN :start_date AND :end_date)
-              )
-        """;
+            WHERE id = :id AND total_amount IS NOT NULL
+        """)
+        .bind("id", id)
+        .map(row -> new AmountSnapshot(
+            row.get("rate_snapshot", BigDecimal.class),
+            row.get("discount_snapshot", BigDecimal.class),
+            row.get("total_amount", BigDecimal.class)))
+        .one();
+    }
 
-        if (excludeReservationId != null) {
-            sql += " AND id != :exclude_id";
+    /**
+     * Checks whether an error was caused by the reservation_vehicle_period_excl constraint,
+     * i.e. an active reservation overlapping another one of the same vehicle
+     */
+    private static boolean isOverlapViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof R2dbcException r2dbcException
+                    && EXCLUSION_VIOLATION.equals(r2dbcException.getSqlState())) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
         }
+        return false;
+    }
+
+    private static Throwable toUnavailableVehicle(Throwable error) {
+        return new ValidationException("Vehicle is not available for the selected date range");
+    }
+
+    /**
+     * Finds, in one query, every vehicle together with the reservations (any status but cancelled)
+     * and maintenance (scheduled, in progress or performed) that touch the window [from, to).
+     * Each row is {plate, kind ('R' reservation, 'M' maintenance, null when the vehicle has none),
+     * start, end}, ordered by plate so callers can fold one vehicle at a time.
+     * Maintenance in progress without a performed date is considered to last until the end of the window.
+     */
+    public Flux<Object[]> findOccupancy(LocalDateTime from, LocalDateTime to) {
+        return databaseClient.sql("""
+            SELECT v.plate, o.kind, o.start_at, o.end_at
+            FROM vehicle v
+            LEFT JOIN (
+                SELECT r.vehicle_plate AS plate, 'R' AS kind, r.start_date AS start_at, r.end_date AS end_at
+                FROM reservation r
+                WHERE r.status <> 'CANCELADA'
+                  AND r.start_date < :to AND r.end_date >= :from
+                UNION ALL
+                SELECT m.vehicle_plate, 'M', m.scheduled_date,
+                       COALESCE(m.performed_date,
+                                CASE WHEN m.status = 'EM_ANDAMENTO' THEN :to ELSE m.scheduled_date END)
+                FROM maintenance m
+                WHERE m.status <> 'CANCELADA'
+                  AND m.scheduled_date < :to
+                  AND COALESCE(m.performed_date,
+                               CASE WHEN m.status = 'EM_ANDAMENTO' THEN :to ELSE m.scheduled_date END) >= :from
+            ) o ON o.plate = v.plate
+            ORDER BY v.plate, o.start_at
+        """)
+        .bind("from", from)
+        .bind("to", to)
+        .map(row -> new Object[]{
+            row.get("plate", String.class),
+            row.get("kind", String.class),
+            row.get("start_at", LocalDateTime.class),
+            row.get("end_at", LocalDateTime.class)
+        })
+        .all();
+    }
+
+    /**
+     * Takes a transaction-scoped advisory lock per vehicle plate (hashtext of the plate), waiting for
+     * other transactions that hold them. Serializes the availability check and the insert of
+     * reservations and holds of the same vehicle across instances. Plates are locked in sorted order,
+     * so concurrent transactions locking several plates cannot deadlock.
+     * Must run inside a transaction, the locks are released on commit or rollback.
+     */
+    public Mono<Void> lockVehiclePlates(Collection<String> plates) {
+        if (plates.isEmpty()) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("""
+            SELECT pg_advisory_xact_lock(hashtext(plate))
+            FROM (
+                SELECT DISTINCT plate
+                FROM unnest(CAST(:plates AS VARCHAR[])) AS plate
+                ORDER BY plate
+            ) plates
+        """)
+        .bind("plates", new TreeSet<>(plates).toArray(String[]::new))
+        .then();
+    }
+
+    /**
+     * Tries to take a transaction-scoped advisory lock; returns false if another session holds it.
+     * Must run inside a transaction, the lock is released on commit or rollback.
+     */
+    public Mono<Boolean> tryAdvisoryXactLock(long key) {
+        return databaseClient.sql("SELECT pg_try_advisory_xact_lock(:key)")
+            .bind("key", key)
+            .map(row -> row.get(0, Boolean.class))
+            .one();
+    }
+
+    /**
+     * Moves a batch of reservations whose start (or end) date has passed from one status to another.
+     * Rows locked by a concurrent writer are skipped and picked up by a later batch.
+     *
+     * @param byEndDate whether the due date is end_date rather than start_date
+     * @return {id, vehiclePlate, clientUserCpf, version} of each transitioned reservation
+     */
+    public Flux<Object[]> transitionDue(ReservationStatus from, ReservationStatus to, boolean byEndDate,
+                                        LocalDateTime now, int limit) {
+        String dueColumn = byEndDate ? "end_date" : "start_date";
+        return databaseClient.sql("""
+            WITH due AS (
+                SELECT id
+                FROM reservation
+                WHERE status = :from AND %1$s <= :now
+                ORDER BY %1$s, id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            UPDATE reservation r
+            SET status = :to, version = r.version + 1
+            FROM due
+            WHERE r.id = due.id
+            RETURNING r.id, r.vehicle_plate, r.client_user_cpf, r.version
+        """.formatted(dueColumn))
+        .bind("from", mapStatusToString(from))
+        .bind("to", mapStatusToString(to))
+        .bind("now", now)
+        .bind("limit", limit)
+        .map(row -> new Object[]{
+            row.get("id", Integer.class),
+            row.get("vehicle_plate", String.class),
+            row.get("client_user_cpf", String.class),
+            row.get("version", Integer.class)
+        })
+        .all();
+    }
+
+    /**
+     * Creates the archive partitions for the months of the finished reservations older than cutoff
+     */
+    public Mono<Void> ensureArchivePartitions(LocalDateTime cutoff) {
+        return databaseClient.sql("""
+            SELECT archive.ensure_reservation_partition(month)
+            FROM (
+                SELECT DISTINCT date_trunc('month', reservation_date) AS month
+                FROM reservation
+                WHERE status IN ('FINALIZADA', 'CANCELADA') AND reservation_date < :cutoff
+            ) months
+        """)
+        .bind("cutoff", cutoff)
+        .then();
+    }
+
+    /**
+     * Marks the current transaction as archiving, so the change feed trigger ignores its deletes.
+     * Must run inside a transaction, the setting is reset on commit or rollback.
+     */
+    public Mono<Void> markArchivingTransaction() {
+        return databaseClient.sql("SELECT set_config('sigac.archiving', 'on', true)")
+            .then();
+    }
+
+    /**
+     * Moves a batch of finished (FINALIZADA/CANCELADA) reservations older than cutoff, with their payments,
+     * to the archive schema in a single statement. Rows locked by a concurrent writer are skipped.
+     *
+     * @return {status, count} for each archived status and {null, amount} with the archived paid amount
+     */
+    public Flux<Object[]> archiveFinished(LocalDateTime cutoff, int limit) {
+        return databaseClient.sql("""
+            WITH picked AS (
+                SELECT id
+                FROM reservation
+                WHERE status IN ('FINALIZADA', 'CANCELADA') AND reservation_date < :cutoff
+                ORDER BY reservation_date, id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            ),
+            moved_payments AS (
+                DELETE FROM payment p USING picked
+                WHERE p.reservation_id = picked.id
+                RETURNING p.id, p.status, p.payment_date, p.payment_method, p.amount, p.reservation_id
+            ),
+            archived_payments AS (
+                INSERT INTO archive.payment (id, status, payment_date, payment_method, amount, reservation_id)
+                SELECT id, status, payment_date, payment_method, amount, reservation_id FROM moved_payments
+                RETURNING status, amount
+            ),
+            moved AS (
+                DELETE FROM reservation r USING picked
+                WHERE r.id = picked.id
+                RETURNING r.id, r.start_date, r.end_date, r.reservation_date, r.status, r.promotion_code,
+                          r.client_user_cpf, r.employee_user_cpf, r.vehicle_plate,
+                          r.rate_snapshot, r.discount_snapshot, r.total_amount, r.version
+            ),
+            archived AS (
+                INSERT INTO archive.reservation (id, start_date, end_date, reservation_date, status, promotion_code,
+                                                 client_user_cpf, employee_user_cpf, vehicle_plate,
+                                                 rate_snapshot, discount_snapshot, total_amount, version)
+                SELECT * FROM moved
+                RETURNING status
+            )
+            SELECT status, CAST(COUNT(*) AS NUMERIC) AS value FROM archived GROUP BY status
+            UNION ALL
+            SELECT NULL, COALESCE(SUM(amount), 0) FROM archived_payments WHERE status = 'PAID'
+        """)
+        .bind("cutoff", cutoff)
+        .bind("limit", limit)
+        .map(row -> new Object[]{
+            mapStatusFromString(row.get("status", String.class)),
+            row.get("value", BigDecimal.class)
+        })
+        .all();
+    }
+
+    /**
+     * Finds archived reservations with details, newest first.
+     * The reservation_date bounds let PostgreSQL scan only the archive partitions of the requested months.
+     */
+    public Flux<Object[]> findArchivedWithDetails(LocalDateTime from, LocalDateTime to, String cpf, String plate,
+                                                  int page, int size) {
+        String sql = buildDynamicQuery(DETAILS_SELECTION, "archive.reservation") +
+            buildArchiveWhereClause(cpf, plate) +
+            " ORDER BY r.reservation_date DESC, r.id DESC" +
+            createLimitOffset(page, size);
+        return bindArchiveParameters(databaseClient.sql(sql), from, to, cpf, plate)
+            .map(this::mapRowToReservationDetails)
+            .all();
+    }
+
+    /**
+     * Counts archived reservations within the reservation_date bounds
+     */
+    public Mono<Long> countArchived(LocalDateTime from, LocalDateTime to, String cpf, String plate) {
+        String sql = "SELECT COUNT(*) FROM archive.reservation r" + buildArchiveWhereClause(cpf, plate);
+        return bindArchiveParameters(databaseClient.sql(sql), from, to, cpf, plate)
+            .map(row -> row.get(0, Long.class))
+            .one();
+    }
+
+    private String buildArchiveWhereClause(String cpf, String plate) {
+        StringBuilder whereClause = new StringBuilder(" WHERE r.reservation_date >= :from AND r.reservation_date < :to");
+        if (cpf != null && !cpf.isBlank()) {
+            whereClause.append(" AND r.client_user_cpf = :cpf");
+        }
+        if (plate != null && !plate.isBlank()) {
+            whereClause.append(" AND r.vehicle_plate = :plate");
+        }
+        return whereClause.toString();
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindArchiveParameters(DatabaseClient.GenericExecuteSpec spec,
+                                                                    LocalDateTime from, LocalDateTime to,
+                                                                    String cpf, String plate) {
+        spec = spec.bind("from", from).bind("to", to);
+        if (cpf != null && !cpf.isBlank()) {
+            spec = spec.bind("cpf", cpf);
+        }
+        if (plate != null && !plate.isBlank()) {
+            spec = spec.bind("plate", plate);
+        }
+        return spec;
+    }
+
+    /**
+     * Checks if a vehicle is available for the given date range
+     */
+    public Mono<Boolean> isVehicleAvailable(String vehiclePlate, LocalDateTime startDate, LocalDateTime endDate, Integer excludeReservationId) {
+        return isVehicleAvailable(vehiclePlate, startDate, endDate, excludeReservationId, null);
+    }
+
+    /**
+     * Checks if a vehicle is available for the given date range, counting both active reservations
+     * and live availability holds. Holds placed by holdOwnerCpf (when not null) are ignored.
+     */
+    public Mono<Boolean> isVehicleAvailable(String vehiclePlate, LocalDateTime startDate, LocalDateTime endDate,
+                                            Integer excludeReservationId, String holdOwnerCpf) {
+        String sql = """
+            SELECT (
+                SELECT COUNT(*)
+                FROM reservation
+                WHERE vehicle_plate = :vehicle_plate
+                  AND status IN ('PENDENTE', 'CONFIRMADA', 'EM_ANDAMENTO')
+                  AND (
+                    (:start_date BETWEEN start_date AND end_date) OR
+                    (:end_date BETWEEN start_date AND end_date) OR
+                    (start_date BETWEEN :start_date AND :end_date) OR
+                    (end_date BETWEEN :start_date AND :end_date)
+                  )
+                  %s
+            ) + (
+                SELECT COUNT(*)
+                FROM reservation_hold
+                WHERE vehicle_plate = :vehicle_plate
+                  AND expires_at > :now
+                  AND start_date <= :end_date AND end_date >= :start_date
+                  %s
+            )
+        """.formatted(
+            excludeReservationId != null ? "AND id != :exclude_id" : "",
+            holdOwnerCpf != null ? "AND client_user_cpf != :hold_owner_cpf" : "");
 
         var query = databaseClient.sql(sql)
             .bind("vehicle_plate", vehiclePlate)
             .bind("start_date", startDate)
-            .bind("end_date", endDate);
+            .bind("end_date", endDate)
+            .bind("now", LocalDateTime.now());
 
         if (excludeReservationId != null) {
             query = query.bind("exclude_id", excludeReservationId);
         }
+        if (holdOwnerCpf != null) {
+            query = query.bind("hold_owner_cpf", holdOwnerCpf);
+        }
 
         return query.map(row -> row.get(0, Long.class))
             .first()
@@ -396,14 +1018,39 @@ public class ReservationRepository extends BaseRepository<Reservation, Integer>
             row.get("promotion_code", Integer.class),
             row.get("client_user_cpf", String.class),
             row.get("employee_user_cpf", String.class),
-            row.get("vehicle_plate", String.class)
+            row.get("vehicle_plate", String.class),
+            row.get("version", Integer.class)
         );
     }
 
     /**
-     * Maps string status from database to enum
+     * Maps a detailed reservation row (reservation joined with client, employee and vehicle) to an object array
      */
-    private ReservationStatus mapStatusFromString(String status) {
+    private Object[] mapRowToReservationDetails(io.r2dbc.spi.Row row, io.r2dbc.spi.RowMetadata metadata) {
+        return new Object[]{
+            row.get("id", Integer.class),
+            row.get("start_date", LocalDateTime.class),
+            row.get("end_date", LocalDateTime.class),
+            row.get("reservation_date", LocalDateTime.class),
+            mapStatusFromString(row.get("status", String.class)),
+            row.get("promotion_code", Integer.class),
+            row.get("client_user_cpf", String.class),
+            row.get("client_name", String.class),
+            row.get("employee_user_cpf", String.class),
+            row.get("employee_name", String.class),
+            row.get("vehicle_plate", String.class),
+            row.get("vehicle_model", String.class),
+            row.get("vehicle_brand", String.class),
+            row.get("total_amount", BigDecimal.class),
+            row.get("version", Integer.class)
+        };
+    }
+
+    /**
+     * Maps string status from database to enum.
+     * Also used to decode the status carried by reservation change notifications.
+     */
+    public ReservationStatus mapStatusFromString(String status) {
         if (status == null) return null;
         return switch (status) {
             case "PENDENTE" -> ReservationStatus.PENDING;
@@ -492,36 +1139,10 @@ public class ReservationRepository extends BaseRepository<Reservation, Integer>
      * @return A Flux of Object arrays representing the detailed reservations.
      */
     public Flux<Object[]> findLatestReservationsWithDetails(int limit) {
-        return databaseClient.sql("""
-            SELECT r.id, r.start_date, r.end_date, r.reservation_date, r.status,
-                   r.promotion_code, r.client_user_cpf, u_client.name as client_name,
-                   r.employee_user_cpf, u_employee.name as employee_name,
-                   r.vehicle_plate, v.model as vehicle_model, v.brand as vehicle_brand
-            FROM reservation r
-            LEFT JOIN client c ON r.client_user_cpf = c.user_cpf
-            LEFT JOIN users u_client ON c.user_cpf = u_client.cpf
-            LEFT JOIN employee e ON r.employee_user_cpf = e.user_cpf
-            LEFT JOIN users u_employee ON e.user_cpf = u_employee.cpf
-            LEFT JOIN vehicle v ON r.vehicle_plate = v.plate
-            ORDER BY r.reservation_date DESC
-            LIMIT :limit
-        """)
+        return databaseClient.sql(buildDynamicQuery(DETAILS_SELECTION) +
+            " ORDER BY r.reservation_date DESC, r.id DESC LIMIT :limit")
         .bind("limit", limit)
-        .map((row, metadata) -> new Object[]{
-            row.get("id", Integer.class),
-            row.get("start_date", LocalDateTime.class),
-            row.get("end_date", LocalDateTime.class),
-            row.get("reservation_date", LocalDateTime.class),
-            mapStatusFromString(row.get("status", String.class)),
-            row.get("promotion_code", Integer.class),
-            row.get("client_user_cpf", String.class),
-            row.get("client_name", String.class),
-            row.get("employee_user_cpf", String.class),
-            row.get("employee_name", String.class),
-            row.get("vehicle_plate", String.class),
-            row.get("vehicle_model", String.class),
-            row.get("vehicle_brand", String.class)
-        })
+        .map(this::mapRowToReservationDetails)
         .all();
     }
 
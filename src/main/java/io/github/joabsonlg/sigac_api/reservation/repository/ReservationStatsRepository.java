@@ -0,0 +1,124 @@
+package io.github.joabsonlg.sigac_api.reservation.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Repository for the reservation_stats read model used by the reservation report.
+ * Metrics are 'total', 'status:<ReservationStatus name>' and 'revenue', which include archived reservations,
+ * plus 'archived:status:<ReservationStatus name>' and 'archived:revenue', the part of them moved to the archive.
+ *
+ * Every metric is striped over several (metric, shard) rows so concurrent writers rarely contend on one row;
+ * its value is the sum of its shards. Increments take the stats advisory lock in shared mode and the
+ * recompute takes it exclusively, so a recompute never interleaves with an uncommitted increment.
+ */
+@Repository
+public class ReservationStatsRepository {
+
+    static final long STATS_LOCK_KEY = 0x5349_4741_4303L;
+
+    private final DatabaseClient databaseClient;
+    private final int shards;
+
+    public ReservationStatsRepository(DatabaseClient databaseClient,
+                                      @Value("${sigac.reservation-stats.shards:8}") int shards) {
+        this.databaseClient = databaseClient;
+        this.shards = Math.max(1, shards);
+    }
+
+    /**
+     * Reads every metric in a single query
+     */
+    public Mono<Map<String, BigDecimal>> findAll() {
+        return databaseClient.sql("SELECT metric, SUM(value) AS value FROM reservation_stats GROUP BY metric")
+            .map(row -> Map.entry(row.get("metric", String.class), row.get("value", BigDecimal.class)))
+            .all()
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    /**
+     * Adds the given deltas to their metrics, creating missing metrics.
+     * All deltas go to one randomly picked shard and the rows are written in metric order,
+     * so two transactions touching the same metrics always lock them in the same order.
+     * Must run inside the writer's transaction, which holds the shared stats lock until it ends.
+     */
+    public Mono<Void> increment(Map<String, ? extends Number> deltas) {
+        if (deltas.isEmpty()) {
+            return Mono.empty();
+        }
+        Map<String, Number> sorted = new TreeMap<>(deltas);
+        return databaseClient.sql("""
+            WITH stats_lock AS (
+                SELECT pg_advisory_xact_lock_shared(:lock_key)
+            )
+            INSERT INTO reservation_stats (metric, shard, value, updated_at)
+            SELECT metric, :shard, delta, now()
+            FROM unnest(CAST(:metrics AS VARCHAR[]), CAST(:deltas AS NUMERIC[])) AS d(metric, delta), stats_lock
+            ORDER BY metric
+            ON CONFLICT (metric, shard) DO UPDATE
+            SET value = reservation_stats.value + EXCLUDED.value, updated_at = EXCLUDED.updated_at
+        """)
+        .bind("lock_key", STATS_LOCK_KEY)
+        .bind("shard", (short) ThreadLocalRandom.current().nextInt(shards))
+        .bind("metrics", sorted.keySet().toArray(String[]::new))
+        .bind("deltas", sorted.values().stream()
+            .map(delta -> delta instanceof BigDecimal decimal ? decimal : BigDecimal.valueOf(delta.longValue()))
+            .toArray(BigDecimal[]::new))
+        .then();
+    }
+
+    /**
+     * Takes the stats lock exclusively for the current transaction, waiting for the transactions
+     * that incremented a metric to end and holding off new increments until this one ends.
+     */
+    public Mono<Void> lockExclusively() {
+        return databaseClient.sql("SELECT pg_advisory_xact_lock(:lock_key)")
+            .bind("lock_key", STATS_LOCK_KEY)
+            .then();
+    }
+
+    /**
+     * Recomputes every metric from the reservation and payment tables into shard 0 and clears the
+     * other shards of the recomputed metrics.
+     * Archived reservations are added from the archived:* metrics kept by the archive job,
+     * so the refresh never scans the archive.
+     * Must run in a transaction after lockExclusively, so no increment is counted twice or lost.
+     */
+    public Mono<Void> recompute() {
+        return databaseClient.sql("""
+            WITH archived AS (
+                SELECT metric, SUM(value) AS value FROM reservation_stats WHERE metric LIKE 'archived:%' GROUP BY metric
+            ),
+            computed AS (
+                SELECT 'total' AS metric,
+                       COUNT(*) + COALESCE((SELECT SUM(value) FROM archived WHERE metric LIKE 'archived:status:%'), 0) AS value
+                FROM reservation
+                UNION ALL
+                SELECT 'status:' || s.name,
+                       COUNT(r.id) + COALESCE((SELECT value FROM archived WHERE metric = 'archived:status:' || s.name), 0)
+                FROM (VALUES ('PENDENTE', 'PENDING'), ('CONFIRMADA', 'CONFIRMED'), ('EM_ANDAMENTO', 'IN_PROGRESS'),
+                             ('FINALIZADA', 'COMPLETED'), ('CANCELADA', 'CANCELLED')) AS s(status, name)
+                LEFT JOIN reservation r ON r.status = s.status
+                GROUP BY s.name
+                UNION ALL
+                SELECT 'revenue', COALESCE(SUM(amount), 0) + COALESCE((SELECT value FROM archived WHERE metric = 'archived:revenue'), 0)
+                FROM payment WHERE status = 'PAID'
+            ),
+            cleared AS (
+                DELETE FROM reservation_stats
+                WHERE shard <> 0 AND metric IN (SELECT metric FROM computed)
+            )
+            INSERT INTO reservation_stats (metric, shard, value, updated_at)
+            SELECT metric, 0, value, now() FROM computed
+            ON CONFLICT (metric, shard) DO UPDATE SET value = EXCLUDED.value, updated_at = EXCLUDED.updated_at
+        """)
+        .then();
+    }
+}
@@ -3,6 +3,7 @@ package io.github.joabsonlg.sigac_api.reservation.validator;
 import io.github.joabsonlg.sigac_api.common.exception.ValidationException;
 import io.github.joabsonlg.sigac_api.common.validator.CommonValidator;
 import io.github.joabsonlg.sigac_api.reservation.dto.CreateReservationDTO;
+import io.github.joabsonlg.sigac_api.reservation.dto.CreateReservationHoldDTO;
 import io.github.joabsonlg.sigac_api.reservation.dto.UpdateReservationDTO;
 import io.github.joabsonlg.sigac_api.reservation.enumeration.ReservationStatus;
 import org.springframework.stereotype.Component;
@@ -44,6 +45,26 @@ public class ReservationValidator {
         });
     }
 
+    /**
+     * Validates data when placing an availability hold.
+     */
+    public Mono<Void> validateCreateHold(CreateReservationHoldDTO dto) {
+        return Mono.fromRunnable(() -> {
+            validateRequired(dto.startDate(), "Start date");
+            validateRequired(dto.endDate(), "End date");
+            validateRequired(dto.clientUserCpf(), "Client CPF");
+            validateRequired(dto.vehiclePlate(), "Vehicle plate");
+
+            commonValidator.validateCpf(dto.clientUserCpf(), "Client CPF");
+            validateDateRange(dto.startDate(), dto.endDate());
+            validateVehiclePlate(dto.vehiclePlate());
+
+            if (dto.ttlSeconds() != null && dto.ttlSeconds() <= 0) {
+                throw new ValidationException("TTL must be greater than zero");
+            }
+        });
+    }
+
     /**
      * Validates data when updating a reservation.
      */
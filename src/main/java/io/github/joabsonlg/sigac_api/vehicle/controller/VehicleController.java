@@ -11,11 +11,13 @@ import io.github.joabsonlg.sigac_api.vehicle.dto.VehicleReportDTO;
 import io.github.joabsonlg.sigac_api.vehicle.enumeration.VehicleStatus;
 import io.github.joabsonlg.sigac_api.vehicle.handler.VehicleHandler;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
 
 /**
  * Controller que expõe endpoints REST para gerenciamento de veículos.
@@ -68,6 +70,18 @@ public class VehicleController extends BaseController<VehicleDTO, String> {
                 }));
     }
 
+    /**
+     * Lista os veículos disponíveis para reserva em um período
+     */
+    @GetMapping("/available")
+    public Mono<ResponseEntity<ApiResponse<PageResponse<VehicleDTO>>>> getAvailableVehicles(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) Double maxRate) {
+        return okList(vehicleHandler.getAvailable(start, end, brand, maxRate));
+    }
+
     /**
      * Busca veículo pelo número da placa
      */
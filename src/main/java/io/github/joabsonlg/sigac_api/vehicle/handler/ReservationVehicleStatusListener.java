@@ -0,0 +1,66 @@
+package io.github.joabsonlg.sigac_api.vehicle.handler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.joabsonlg.sigac_api.event.enumeration.DomainEventType;
+import io.github.joabsonlg.sigac_api.event.handler.DomainEventListener;
+import io.github.joabsonlg.sigac_api.event.handler.OutboxHandler;
+import io.github.joabsonlg.sigac_api.event.model.DomainEvent;
+import io.github.joabsonlg.sigac_api.reservation.enumeration.ReservationStatus;
+import io.github.joabsonlg.sigac_api.vehicle.enumeration.VehicleStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+/**
+ * Atualiza o status do veículo quando o status de uma reserva muda.
+ * Recebe os eventos RESERVATION_STATUS_CHANGED do outbox, fora da transação da reserva:
+ * reserva em andamento deixa o veículo INDISPONIVEL, qualquer outro status o deixa DISPONIVEL.
+ * Eventos com vehicleStatusApplied (transições automáticas do ReservationLifecycleHandler) são
+ * ignorados: o veículo já foi atualizado em lote, e o VEHICLE_STATUS_CHANGED registrado, na
+ * transação da reserva.
+ */
+@Component
+public class ReservationVehicleStatusListener implements DomainEventListener {
+
+    private final VehicleHandler vehicleHandler;
+    private final OutboxHandler outboxHandler;
+
+    public ReservationVehicleStatusListener(VehicleHandler vehicleHandler, OutboxHandler outboxHandler) {
+        this.vehicleHandler = vehicleHandler;
+        this.outboxHandler = outboxHandler;
+    }
+
+    @Override
+    public boolean supports(DomainEventType type) {
+        return type == DomainEventType.RESERVATION_STATUS_CHANGED;
+    }
+
+    /**
+     * Aplica o novo status ao veículo e registra o evento VEHICLE_STATUS_CHANGED.
+     * Reaplicar o mesmo evento deixa o veículo no mesmo status.
+     *
+     * @param event evento de mudança de status da reserva
+     * @return Mono vazio ao finalizar
+     */
+    @Override
+    @Transactional
+    public Mono<Void> onEvent(DomainEvent event) {
+        return Mono.fromCallable(() -> outboxHandler.readPayload(event))
+                .filter(payload -> !payload.path("vehicleStatusApplied").asBoolean(false))
+                .flatMap(payload -> {
+                    String plate = payload.path("vehiclePlate").asText();
+                    VehicleStatus newStatus = vehicleStatusFor(payload);
+                    return vehicleHandler.updateVehicleStatus(plate, newStatus)
+                            .then(outboxHandler.append(DomainEventType.VEHICLE_STATUS_CHANGED, plate,
+                                    OutboxHandler.payload(
+                                        "vehiclePlate", plate,
+                                        "status", newStatus,
+                                        "reservationId", payload.path("reservationId").asInt())));
+                });
+    }
+
+    private static VehicleStatus vehicleStatusFor(JsonNode payload) {
+        ReservationStatus newStatus = ReservationStatus.valueOf(payload.path("newStatus").asText());
+        return newStatus == ReservationStatus.IN_PROGRESS ? VehicleStatus.INDISPONIVEL : VehicleStatus.DISPONIVEL;
+    }
+}
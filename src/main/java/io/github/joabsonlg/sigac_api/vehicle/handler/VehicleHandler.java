@@ -5,7 +5,9 @@ import io.github.joabsonlg.sigac_api.common.exception.ConflictException;
 import io.github.joabsonlg.sigac_api.common.exception.ResourceNotFoundException;
 import io.github.joabsonlg.sigac_api.common.response.ErrorResponse;
 import io.github.joabsonlg.sigac_api.common.response.PageResponse;
+import io.github.joabsonlg.sigac_api.dailyRate.dto.DailyRateDTO;
 import io.github.joabsonlg.sigac_api.dailyRate.dto.DailyRateInputDTO;
+import io.github.joabsonlg.sigac_api.dailyRate.dto.PlateInstant;
 import io.github.joabsonlg.sigac_api.dailyRate.handler.DailyRateHandler;
 import io.github.joabsonlg.sigac_api.dailyRate.repository.DailyRateRepository;
 import io.github.joabsonlg.sigac_api.reservation.repository.ReservationRepository;
@@ -33,6 +35,7 @@ import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -96,12 +99,7 @@ public class VehicleHandler extends BaseHandler<Vehicle, VehicleDTO, String> {
      * @return Flux com DTOs de veículos
      */
     public Flux<VehicleDTO> getAll(VehicleStatus status) {
-        return vehicleRepository.findAll(status)
-                .flatMap(vehicle ->
-                        dailyRateHandler.getMostRecentByVehiclePlate(vehicle.plate())
-                                .map(dailyRate -> toDto(vehicle, dailyRate.amount()))
-                                .defaultIfEmpty(toDto(vehicle, null))
-                );
+        return withCurrentDailyRates(vehicleRepository.findAll(status));
     }
 
     /**
@@ -112,18 +110,29 @@ public class VehicleHandler extends BaseHandler<Vehicle, VehicleDTO, String> {
      * @return Mono com resposta paginada
      */
     public Mono<PageResponse<VehicleDTO>> getAllPaginated(int page, int size, VehicleStatus status) {
-        Flux<VehicleDTO> vehiclesWithAmount = vehicleRepository.findWithPagination(page, size, status)
-                .flatMap(vehicle ->
-                        dailyRateHandler.getMostRecentByVehiclePlate(vehicle.plate())
-                                .map(dailyRate -> toDto(vehicle, dailyRate.amount()))
-                                .defaultIfEmpty(toDto(vehicle, null))
-                );
+        Flux<VehicleDTO> vehiclesWithAmount = withCurrentDailyRates(vehicleRepository.findWithPagination(page, size, status));
 
         Mono<Long> totalElements = vehicleRepository.countAll(status);
 
         return createPageResponse(vehiclesWithAmount, page, size, totalElements);
     }
 
+    /**
+     * Retorna os veículos livres para reserva em todo o período, com a diária atual.
+     * Uma única consulta substitui a verificação de disponibilidade placa a placa.
+     *
+     * @param start   início do período
+     * @param end     fim do período
+     * @param brand   filtro opcional por marca
+     * @param maxRate filtro opcional pelo valor máximo da diária
+     * @return Flux com DTOs dos veículos disponíveis
+     */
+    public Flux<VehicleDTO> getAvailable(LocalDateTime start, LocalDateTime end, String brand, Double maxRate) {
+        return vehicleValidator.validateAvailabilitySearch(start, end, maxRate)
+                .thenMany(vehicleRepository.findAvailable(start, end, brand, maxRate))
+                .map(row -> toDto((Vehicle) row[0], (Double) row[1]));
+    }
+
     /**
      * Generates a comprehensive report of vehicles.
      *
@@ -188,11 +197,31 @@ public class VehicleHandler extends BaseHandler<Vehicle, VehicleDTO, String> {
     public Mono<VehicleDTO> getById(String plate) {
         return vehicleRepository.findById(plate)
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("Veículo", plate)))
-                .flatMap(vehicle ->
-                        dailyRateHandler.getMostRecentByVehiclePlate(plate)
-                                .map(dailyRate -> toDto(vehicle, dailyRate.amount()))
-                                .defaultIfEmpty(toDto(vehicle, null))
-                );
+                .flatMapMany(vehicle -> withCurrentDailyRates(Flux.just(vehicle)))
+                .single();
+    }
+
+    /**
+     * Converte os veículos em DTOs com a diária vigente no momento, consultada em lote
+     * para todos os veículos de uma vez. A ordem dos veículos é mantida.
+     *
+     * @param vehicles veículos a converter
+     * @return fluxo de DTOs com o valor da diária, nulo quando o veículo não tem diária vigente
+     */
+    private Flux<VehicleDTO> withCurrentDailyRates(Flux<Vehicle> vehicles) {
+        return vehicles.collectList()
+                .flatMapMany(list -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    List<PlateInstant> keys = list.stream()
+                            .map(vehicle -> new PlateInstant(vehicle.plate(), now))
+                            .toList();
+                    return dailyRateHandler.getRatesAt(keys)
+                            .flatMapMany(rates -> Flux.fromIterable(list)
+                                    .map(vehicle -> {
+                                        DailyRateDTO dailyRate = rates.get(new PlateInstant(vehicle.plate(), now));
+                                        return toDto(vehicle, dailyRate != null ? dailyRate.amount() : null);
+                                    }));
+                });
     }
 
     /**
@@ -304,6 +333,17 @@ public class VehicleHandler extends BaseHandler<Vehicle, VehicleDTO, String> {
         return vehicleRepository.existsByPlate(plate);
     }
 
+    /**
+     * Atualiza o status de vários veículos com uma única instrução, sem carregá-los antes.
+     *
+     * @param plates placas dos veículos
+     * @param newStatus novo status dos veículos
+     * @return Mono com a quantidade de veículos atualizados
+     */
+    public Mono<Long> updateVehicleStatuses(Collection<String> plates, VehicleStatus newStatus) {
+        return vehicleRepository.updateStatusByPlates(plates, newStatus);
+    }
+
     /**
      * Atualiza o status de um veículo.
      *
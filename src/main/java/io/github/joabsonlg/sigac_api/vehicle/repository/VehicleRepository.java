@@ -8,6 +8,8 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -57,6 +59,79 @@ public class VehicleRepository extends BaseRepository<Vehicle, String> {
                 .all();
     }
 
+    /**
+     * Finds vehicles that can be booked for the whole period, with the daily rate in force now
+     * (future-dated rates are ignored).
+     * A single query excludes vehicles in maintenance, vehicles with an active reservation or a
+     * live availability hold overlapping the period and vehicles with maintenance in progress or
+     * scheduled inside it.
+     * Returns arrays of {Vehicle, Double dailyRate}.
+     */
+    public Flux<Object[]> findAvailable(LocalDateTime start, LocalDateTime end, String brand, Double maxRate) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT v.plate, v.year, v.model, v.brand, v.status, v.image_url, dr.amount AS daily_rate
+                FROM vehicle v
+                LEFT JOIN LATERAL (
+                    SELECT amount
+                    FROM daily_rate
+                    WHERE vehicle_plate = v.plate
+                      AND date_time <= :now
+                    ORDER BY date_time DESC, id DESC
+                    LIMIT 1
+                ) dr ON TRUE
+                WHERE v.status <> 'MANUTENCAO'
+                  AND NOT EXISTS (
+                    SELECT 1 FROM reservation r
+                    WHERE r.vehicle_plate = v.plate
+                      AND r.status IN ('PENDENTE', 'CONFIRMADA', 'EM_ANDAMENTO')
+                      AND tsrange(r.start_date, r.end_date, '[]') && tsrange(:start, :end, '[]')
+                  )
+                  AND NOT EXISTS (
+                    SELECT 1 FROM reservation_hold h
+                    WHERE h.vehicle_plate = v.plate
+                      AND h.expires_at > :now
+                      AND h.start_date <= :end AND h.end_date >= :start
+                  )
+                  AND NOT EXISTS (
+                    SELECT 1 FROM maintenance m
+                    WHERE m.vehicle_plate = v.plate
+                      AND (m.status = 'EM_ANDAMENTO'
+                           OR (m.status = 'AGENDADA' AND m.scheduled_date BETWEEN :start AND :end))
+                  )
+            """);
+        if (brand != null && !brand.isBlank()) {
+            sql.append(" AND LOWER(v.brand) = LOWER(:brand)");
+        }
+        if (maxRate != null) {
+            sql.append(" AND dr.amount <= :max_rate");
+        }
+        sql.append(" ORDER BY dr.amount NULLS LAST, v.plate");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("start", start)
+                .bind("end", end)
+                .bind("now", LocalDateTime.now());
+        if (brand != null && !brand.isBlank()) {
+            spec = spec.bind("brand", brand.trim());
+        }
+        if (maxRate != null) {
+            spec = spec.bind("max_rate", maxRate);
+        }
+
+        return spec.map((row, metadata) -> new Object[]{
+                        new Vehicle(
+                                row.get("plate", String.class),
+                                row.get("year", Integer.class),
+                                row.get("model", String.class),
+                                row.get("brand", String.class),
+                                VehicleStatus.valueOf(row.get("status", String.class)),
+                                row.get("image_url", String.class)
+                        ),
+                        row.get("daily_rate", Double.class)
+                })
+                .all();
+    }
+
     /**
      * Finds vehicle by plate.
      */
@@ -146,6 +221,26 @@ public class VehicleRepository extends BaseRepository<Vehicle, String> {
                 .thenReturn(vehicle);
     }
 
+    /**
+     * Atualiza, em uma única instrução, o status de vários veículos.
+     *
+     * @return quantidade de veículos atualizados
+     */
+    public Mono<Long> updateStatusByPlates(Collection<String> plates, VehicleStatus status) {
+        if (plates.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return databaseClient.sql("""
+                UPDATE vehicle
+                SET status = :status
+                WHERE plate = ANY(CAST(:plates AS VARCHAR[]))
+            """)
+                .bind("status", status.name())
+                .bind("plates", plates.toArray(String[]::new))
+                .fetch()
+                .rowsUpdated();
+    }
+
     /**
      * Checks if a vehicle exists by plate.
      */
@@ -162,6 +257,18 @@ public class VehicleRepository extends BaseRepository<Vehicle, String> {
                 .defaultIfEmpty(false);
     }
 
+    /**
+     * Returns which of the given plates belong to registered vehicles, with a single query.
+     */
+    public Flux<String> findExistingPlates(Collection<String> plates) {
+        return databaseClient.sql("""
+            SELECT plate FROM vehicle WHERE plate = ANY(CAST(:plates AS VARCHAR[]))
+        """)
+                .bind("plates", plates.toArray(String[]::new))
+                .map((row, metadata) -> row.get("plate", String.class))
+                .all();
+    }
+
     /**
      * Deletes a vehicle by plate.
      */
@@ -8,6 +8,8 @@ import io.github.joabsonlg.sigac_api.vehicle.enumeration.VehicleStatus;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+
 /**
  * Validator para operações relacionadas a veículos.
  * Estende funcionalidades do CommonValidator com validações específicas para veículos.
@@ -73,6 +75,25 @@ public class VehicleValidator {
         });
     }
 
+    /**
+     * Valida o período e os filtros da busca de veículos disponíveis.
+     */
+    public Mono<Void> validateAvailabilitySearch(LocalDateTime start, LocalDateTime end, Double maxRate) {
+        return Mono.fromRunnable(() -> {
+            if (start == null || end == null) {
+                throw new ValidationException("Data de início e data de fim são obrigatórias");
+            }
+
+            if (!start.isBefore(end)) {
+                throw new ValidationException("Data de início deve ser anterior à data de fim");
+            }
+
+            if (maxRate != null && maxRate < 0) {
+                throw new ValidationException("Valor máximo da diária não pode ser negativo");
+            }
+        });
+    }
+
     /**
      * Valida a placa do veículo.
      */
@@ -0,0 +1,21 @@
+-- Responses of POST requests sent with an Idempotency-Key header.
+-- IdempotencyFilter claims a row (status_code NULL) before running the handler and
+-- stores the response once it completes, so a retry with the same key, from the same
+-- principal and on the same endpoint, replays it instead of creating duplicates.
+-- Rows are kept until expires_at and purged by IdempotencyStore.
+
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    principal       VARCHAR(45)  NOT NULL,
+    method          VARCHAR(10)  NOT NULL,
+    path            VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    status_code     INT,
+    content_type    VARCHAR(255),
+    response_body   BYTEA,
+    created_at      TIMESTAMP    NOT NULL DEFAULT now(),
+    expires_at      TIMESTAMP    NOT NULL,
+    PRIMARY KEY (principal, method, path, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_expires_at
+    ON idempotency_key (expires_at);
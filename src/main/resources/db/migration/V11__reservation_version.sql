@@ -0,0 +1,7 @@
+-- Optimistic locking for reservations.
+-- Every update increments version and is conditioned on the version that was read
+-- (UPDATE ... WHERE id = :id AND version = :version), so concurrent edits are detected
+-- without row locks. The API exposes it as the ETag of GET /api/reservations/{id}
+-- and checks If-Match on PUT/PATCH.
+
+ALTER TABLE reservation ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0;
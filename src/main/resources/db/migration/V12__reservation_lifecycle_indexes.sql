@@ -0,0 +1,9 @@
+-- Partial indexes backing the reservation lifecycle sweep, which looks up
+-- confirmed reservations whose start date has passed and in-progress
+-- reservations whose end date has passed, oldest first.
+
+CREATE INDEX IF NOT EXISTS idx_reservation_confirmed_start
+    ON reservation (start_date, id) WHERE status = 'CONFIRMADA';
+
+CREATE INDEX IF NOT EXISTS idx_reservation_in_progress_end
+    ON reservation (end_date, id) WHERE status = 'EM_ANDAMENTO';
@@ -0,0 +1,25 @@
+-- Transactional outbox of domain events (reservation, payment and vehicle changes).
+-- Rows are inserted in the same transaction as the change they describe and delivered
+-- afterwards by OutboxRelay, which leases batches by moving available_at forward and
+-- sets published_at once every in-process listener has handled the event. Events that
+-- keep failing are closed (published_at set) with last_error after the maximum number
+-- of attempts. Published rows are purged after the retention period.
+
+CREATE TABLE IF NOT EXISTS event_outbox (
+    id             BIGSERIAL   PRIMARY KEY,
+    aggregate_type VARCHAR(30) NOT NULL,
+    aggregate_id   VARCHAR(45) NOT NULL,
+    event_type     VARCHAR(50) NOT NULL,
+    payload        TEXT        NOT NULL,
+    created_at     TIMESTAMP   NOT NULL DEFAULT now(),
+    available_at   TIMESTAMP   NOT NULL DEFAULT now(),
+    attempts       INT         NOT NULL DEFAULT 0,
+    published_at   TIMESTAMP,
+    last_error     TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_event_outbox_unpublished
+    ON event_outbox (id) WHERE published_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_event_outbox_published_at
+    ON event_outbox (published_at) WHERE published_at IS NOT NULL;
@@ -0,0 +1,32 @@
+-- Change feed of the reservation table.
+-- Every insert, update and delete publishes a small JSON document on the
+-- reservation_changes channel; ReservationChangeFeed LISTENs on it and pushes the
+-- changes to GET /api/reservations/stream. Notifications are delivered on commit,
+-- so rolled-back changes are never published.
+
+CREATE OR REPLACE FUNCTION notify_reservation_change() RETURNS trigger AS $$
+DECLARE
+    changed reservation%ROWTYPE;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        changed := OLD;
+    ELSE
+        changed := NEW;
+    END IF;
+    PERFORM pg_notify('reservation_changes', json_build_object(
+        'op', TG_OP,
+        'id', changed.id,
+        'status', changed.status,
+        'vehiclePlate', changed.vehicle_plate,
+        'clientUserCpf', changed.client_user_cpf,
+        'version', changed.version
+    )::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS reservation_change_notify ON reservation;
+
+CREATE TRIGGER reservation_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON reservation
+    FOR EACH ROW EXECUTE FUNCTION notify_reservation_change();
@@ -0,0 +1,93 @@
+-- Archive of finished reservations, range-partitioned by reservation_date (one
+-- partition per month) in the archive schema.
+--
+-- The live reservation table stays unpartitioned: a partitioned table needs the
+-- partition key in its primary key, which would break the payment.reservation_id
+-- foreign key and the reservation_vehicle_period_excl exclusion constraint (V3).
+-- Instead, ReservationArchiveHandler moves FINALIZADA/CANCELADA reservations older
+-- than the retention period, with their payments, into archive.reservation and
+-- archive.payment. The live table then only holds recent and active bookings, and
+-- archive reads bounded by reservation_date touch only the matching partitions.
+-- Old partitions can be detached (ALTER TABLE archive.reservation DETACH PARTITION ...)
+-- and dropped or dumped without affecting the application.
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+CREATE TABLE IF NOT EXISTS archive.reservation (
+    id                INT           NOT NULL,
+    start_date        TIMESTAMP,
+    end_date          TIMESTAMP,
+    reservation_date  TIMESTAMP     NOT NULL,
+    status            VARCHAR(45),
+    promotion_code    INT,
+    client_user_cpf   VARCHAR(45),
+    employee_user_cpf VARCHAR(45),
+    vehicle_plate     VARCHAR(45),
+    rate_snapshot     DECIMAL(10, 2),
+    discount_snapshot DECIMAL(5, 4),
+    total_amount      DECIMAL(12, 2),
+    version           INT           NOT NULL DEFAULT 0,
+    archived_at       TIMESTAMP     NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, reservation_date)
+) PARTITION BY RANGE (reservation_date);
+
+CREATE INDEX IF NOT EXISTS idx_archive_reservation_client_date
+    ON archive.reservation (client_user_cpf, reservation_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_archive_reservation_vehicle_date
+    ON archive.reservation (vehicle_plate, reservation_date DESC);
+
+CREATE TABLE IF NOT EXISTS archive.payment (
+    id             INT PRIMARY KEY,
+    status         VARCHAR(45),
+    payment_date   TIMESTAMP,
+    payment_method VARCHAR(45),
+    amount         DECIMAL(10, 2),
+    reservation_id INT,
+    archived_at    TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_archive_payment_reservation
+    ON archive.payment (reservation_id);
+
+-- Creates the monthly partition holding the given instant, if it does not exist yet
+CREATE OR REPLACE FUNCTION archive.ensure_reservation_partition(p_instant TIMESTAMP)
+RETURNS VOID
+LANGUAGE plpgsql AS $$
+DECLARE
+    month_start TIMESTAMP := date_trunc('month', p_instant);
+    partition_name TEXT := format('reservation_%s', to_char(month_start, 'YYYY_MM'));
+BEGIN
+    IF to_regclass('archive.' || partition_name) IS NULL THEN
+        EXECUTE format(
+            'CREATE TABLE archive.%I PARTITION OF archive.reservation FOR VALUES FROM (%L) TO (%L)',
+            partition_name, month_start, month_start + INTERVAL '1 month');
+    END IF;
+END
+$$;
+
+-- The archive job moves rows out of reservation with DELETE; those are not changes
+-- the reservation change feed (V14) should publish.
+CREATE OR REPLACE FUNCTION notify_reservation_change() RETURNS trigger AS $$
+DECLARE
+    changed reservation%ROWTYPE;
+BEGIN
+    IF current_setting('sigac.archiving', true) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'DELETE' THEN
+        changed := OLD;
+    ELSE
+        changed := NEW;
+    END IF;
+    PERFORM pg_notify('reservation_changes', json_build_object(
+        'op', TG_OP,
+        'id', changed.id,
+        'status', changed.status,
+        'vehiclePlate', changed.vehicle_plate,
+        'clientUserCpf', changed.client_user_cpf,
+        'version', changed.version
+    )::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
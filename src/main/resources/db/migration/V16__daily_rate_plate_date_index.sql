@@ -0,0 +1,6 @@
+-- Index backing the point-in-time daily rate lookups ("latest rate of a vehicle
+-- at or before a date") and the per-plate rate history loads, which previously
+-- scanned the whole daily_rate table.
+
+CREATE INDEX IF NOT EXISTS idx_daily_rate_plate_date
+    ON daily_rate (vehicle_plate, date_time, id);
@@ -0,0 +1,19 @@
+-- Striped counters for the reservation_stats read model.
+-- Each metric is spread over several rows (metric, shard); a write adds its
+-- deltas to one shard picked at random, so concurrent reservation writes
+-- rarely wait on the same row lock. Readers sum the shards of each metric.
+-- The existing rows become shard 0.
+
+ALTER TABLE reservation_stats ADD COLUMN IF NOT EXISTS shard SMALLINT NOT NULL DEFAULT 0;
+
+DO $$
+BEGIN
+    IF EXISTS (
+        SELECT 1 FROM pg_constraint
+        WHERE conname = 'reservation_stats_pkey' AND cardinality(conkey) = 1
+    ) THEN
+        ALTER TABLE reservation_stats DROP CONSTRAINT reservation_stats_pkey;
+        ALTER TABLE reservation_stats ADD CONSTRAINT reservation_stats_pkey PRIMARY KEY (metric, shard);
+    END IF;
+END
+$$;
@@ -0,0 +1,23 @@
+-- Dead-lettered outbox events get their own timestamp instead of a published_at.
+-- Before this script an event given up after the maximum number of attempts was
+-- closed by setting published_at (with last_error), so it was counted as delivered
+-- and purged with the published rows. Those rows are moved to dead_lettered_at;
+-- they are kept for inspection and no longer count as pending or published.
+--
+-- The relay also delivers the events of an aggregate in order: an event is only
+-- leased when no earlier event of the same aggregate is still undelivered. The
+-- partial index below serves that lookup.
+
+ALTER TABLE event_outbox ADD COLUMN IF NOT EXISTS dead_lettered_at TIMESTAMP;
+
+UPDATE event_outbox
+SET dead_lettered_at = published_at, published_at = NULL
+WHERE published_at IS NOT NULL AND last_error IS NOT NULL AND dead_lettered_at IS NULL;
+
+DROP INDEX IF EXISTS idx_event_outbox_unpublished;
+
+CREATE INDEX IF NOT EXISTS idx_event_outbox_pending
+    ON event_outbox (id) WHERE published_at IS NULL AND dead_lettered_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_event_outbox_pending_aggregate
+    ON event_outbox (aggregate_type, aggregate_id, id) WHERE published_at IS NULL AND dead_lettered_at IS NULL;
@@ -0,0 +1,54 @@
+-- Cross-node invalidation of the pricing caches.
+-- Every write to daily_rate publishes the affected vehicle plate, and every write to
+-- promotion the promotion code, on the price_changes channel. PriceChangeListener
+-- LISTENs on it on every node and invalidates the rate timeline of the plate (or bumps
+-- the promotion version), so quotes are not served from prices changed elsewhere.
+-- Notifications are delivered on commit, and identical payloads within one transaction
+-- are delivered once, so a bulk import publishes each plate a single time.
+
+CREATE OR REPLACE FUNCTION notify_daily_rate_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM pg_notify('price_changes', json_build_object(
+            'table', 'daily_rate',
+            'vehiclePlate', OLD.vehicle_plate
+        )::text);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM pg_notify('price_changes', json_build_object(
+            'table', 'daily_rate',
+            'vehiclePlate', NEW.vehicle_plate
+        )::text);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION notify_promotion_change() RETURNS trigger AS $$
+DECLARE
+    changed promotion%ROWTYPE;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        changed := OLD;
+    ELSE
+        changed := NEW;
+    END IF;
+    PERFORM pg_notify('price_changes', json_build_object(
+        'table', 'promotion',
+        'code', changed.code
+    )::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS daily_rate_change_notify ON daily_rate;
+
+CREATE TRIGGER daily_rate_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON daily_rate
+    FOR EACH ROW EXECUTE FUNCTION notify_daily_rate_change();
+
+DROP TRIGGER IF EXISTS promotion_change_notify ON promotion;
+
+CREATE TRIGGER promotion_change_notify
+    AFTER INSERT OR UPDATE OR DELETE ON promotion
+    FOR EACH ROW EXECUTE FUNCTION notify_promotion_change();
@@ -0,0 +1,9 @@
+-- Indexes backing the client and vehicle reservation lookups
+-- (/api/reservations/client/{cpf} and /api/reservations/vehicle/{plate}).
+-- Both queries filter by equality and order by reservation_date DESC.
+
+CREATE INDEX IF NOT EXISTS idx_reservation_client_cpf_date
+    ON reservation (client_user_cpf, reservation_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_reservation_vehicle_plate_date
+    ON reservation (vehicle_plate, reservation_date DESC);
@@ -0,0 +1,26 @@
+-- Database-enforced no-double-booking: two active reservations (PENDENTE,
+-- CONFIRMADA, EM_ANDAMENTO) of the same vehicle may not overlap in time.
+-- Bounds are inclusive ('[]'), matching the BETWEEN-based availability check.
+-- Violations raise SQLSTATE 23P01 (exclusion_violation), which
+-- ReservationRepository translates into a ValidationException.
+--
+-- Fails if the existing data already contains overlapping active bookings;
+-- resolve them before applying.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_constraint WHERE conname = 'reservation_vehicle_period_excl'
+    ) THEN
+        ALTER TABLE reservation
+            ADD CONSTRAINT reservation_vehicle_period_excl
+            EXCLUDE USING gist (
+                vehicle_plate WITH =,
+                tsrange(start_date, end_date, '[]') WITH &&
+            )
+            WHERE (status IN ('PENDENTE', 'CONFIRMADA', 'EM_ANDAMENTO'));
+    END IF;
+END
+$$;
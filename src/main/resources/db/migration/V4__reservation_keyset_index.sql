@@ -0,0 +1,6 @@
+-- Index backing keyset pagination of GET /api/reservations?after=<cursor>,
+-- which seeks with (reservation_date, id) < (:after_date, :after_id)
+-- and orders by reservation_date DESC, id DESC.
+
+CREATE INDEX IF NOT EXISTS idx_reservation_date_id
+    ON reservation (reservation_date DESC, id DESC);
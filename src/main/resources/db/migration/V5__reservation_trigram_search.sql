@@ -0,0 +1,75 @@
+-- Trigram-indexed reservation search.
+-- reservation.search_text denormalizes the searchable fields (client name,
+-- vehicle model, vehicle brand, plate) in lower case so the listing filter and
+-- GET /api/reservations/search hit a single GIN (gin_trgm_ops) index instead of
+-- scanning LOWER(...) LIKE '%q%' across joins. Triggers keep it current when a
+-- reservation, a user name or a vehicle model/brand changes.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE reservation ADD COLUMN IF NOT EXISTS search_text TEXT;
+
+CREATE OR REPLACE FUNCTION reservation_search_text(p_client_cpf VARCHAR, p_vehicle_plate VARCHAR)
+RETURNS TEXT
+LANGUAGE sql STABLE AS $$
+    SELECT lower(concat_ws(E'\n',
+        (SELECT u.name FROM users u WHERE u.cpf = p_client_cpf),
+        (SELECT v.model FROM vehicle v WHERE v.plate = p_vehicle_plate),
+        (SELECT v.brand FROM vehicle v WHERE v.plate = p_vehicle_plate),
+        p_vehicle_plate))
+$$;
+
+CREATE OR REPLACE FUNCTION reservation_search_text_on_write()
+RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_text := reservation_search_text(NEW.client_user_cpf, NEW.vehicle_plate);
+    RETURN NEW;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION reservation_search_text_on_user_change()
+RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE reservation
+    SET search_text = reservation_search_text(client_user_cpf, vehicle_plate)
+    WHERE client_user_cpf = NEW.cpf;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION reservation_search_text_on_vehicle_change()
+RETURNS TRIGGER
+LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE reservation
+    SET search_text = reservation_search_text(client_user_cpf, vehicle_plate)
+    WHERE vehicle_plate = NEW.plate;
+    RETURN NULL;
+END
+$$;
+
+DROP TRIGGER IF EXISTS trg_reservation_search_text ON reservation;
+CREATE TRIGGER trg_reservation_search_text
+    BEFORE INSERT OR UPDATE OF client_user_cpf, vehicle_plate ON reservation
+    FOR EACH ROW EXECUTE FUNCTION reservation_search_text_on_write();
+
+DROP TRIGGER IF EXISTS trg_users_reservation_search_text ON users;
+CREATE TRIGGER trg_users_reservation_search_text
+    AFTER UPDATE OF name ON users
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name)
+    EXECUTE FUNCTION reservation_search_text_on_user_change();
+
+DROP TRIGGER IF EXISTS trg_vehicle_reservation_search_text ON vehicle;
+CREATE TRIGGER trg_vehicle_reservation_search_text
+    AFTER UPDATE OF model, brand ON vehicle
+    FOR EACH ROW WHEN (OLD.model IS DISTINCT FROM NEW.model OR OLD.brand IS DISTINCT FROM NEW.brand)
+    EXECUTE FUNCTION reservation_search_text_on_vehicle_change();
+
+UPDATE reservation
+SET search_text = reservation_search_text(client_user_cpf, vehicle_plate)
+WHERE search_text IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_reservation_search_text_trgm
+    ON reservation USING gin (search_text gin_trgm_ops);
@@ -0,0 +1,7 @@
+-- Index backing the maintenance anti-join of GET /api/vehicles/available,
+-- which looks up in-progress or scheduled maintenance per vehicle.
+-- The reservation side of that query is served by the GiST index of
+-- reservation_vehicle_period_excl (V3).
+
+CREATE INDEX IF NOT EXISTS idx_maintenance_vehicle_status_date
+    ON maintenance (vehicle_plate, status, scheduled_date);
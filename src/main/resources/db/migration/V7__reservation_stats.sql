@@ -0,0 +1,23 @@
+-- Reporting read model for GET /api/reservations/report.
+-- One row per metric: 'total', 'status:<ReservationStatus name>' and 'revenue'.
+-- Status counts are adjusted in the same transaction as reservation writes;
+-- ReservationStatsHandler periodically reconciles every metric.
+
+CREATE TABLE IF NOT EXISTS reservation_stats
+(
+    metric     VARCHAR(45) PRIMARY KEY,
+    value      DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP      NOT NULL DEFAULT now()
+);
+
+INSERT INTO reservation_stats (metric, value)
+SELECT 'total', COUNT(*) FROM reservation
+UNION ALL
+SELECT 'status:' || s.name, COUNT(r.id)
+FROM (VALUES ('PENDENTE', 'PENDING'), ('CONFIRMADA', 'CONFIRMED'), ('EM_ANDAMENTO', 'IN_PROGRESS'),
+             ('FINALIZADA', 'COMPLETED'), ('CANCELADA', 'CANCELLED')) AS s(status, name)
+LEFT JOIN reservation r ON r.status = s.status
+GROUP BY s.name
+UNION ALL
+SELECT 'revenue', COALESCE(SUM(amount), 0) FROM payment WHERE status = 'PAID'
+ON CONFLICT (metric) DO UPDATE SET value = EXCLUDED.value, updated_at = now();
@@ -0,0 +1,54 @@
+-- Persists the reservation amount at write time.
+-- rate_snapshot is the daily rate in force at start_date, discount_snapshot
+-- the promotion discount as a fraction (0.15 = 15%) and total_amount the amount
+-- charged. ReservationHandler fills them on create/update; reads project them
+-- instead of re-pricing against the current daily_rate and promotion tables.
+--
+-- Existing rows are backfilled with the rules of PricingEngine: the period is
+-- split into 24-hour rental days counted from start_date, each day is charged
+-- the rate in force when it begins (nothing before the vehicle's first rate),
+-- the last day is prorated to the second, and amounts are rounded half up to
+-- the cent, once for the gross amount and once for the discount.
+-- The promotion counts under the rule the application applies when pricing
+-- (Promotion.isCurrentlyValid): it is ATIVA and the current time falls within
+-- its validity window.
+
+ALTER TABLE reservation ADD COLUMN IF NOT EXISTS rate_snapshot DECIMAL(10, 2);
+ALTER TABLE reservation ADD COLUMN IF NOT EXISTS discount_snapshot DECIMAL(5, 4);
+ALTER TABLE reservation ADD COLUMN IF NOT EXISTS total_amount DECIMAL(12, 2);
+
+UPDATE reservation r
+SET rate_snapshot     = priced.rate_cents / 100.0,
+    discount_snapshot = priced.discount_basis_points / 10000.0,
+    total_amount      = (priced.gross_cents - round(priced.gross_cents * priced.discount_basis_points / 10000.0)) / 100.0
+FROM (
+    SELECT r2.id,
+           COALESCE((
+               SELECT round(amount * 100)
+               FROM daily_rate
+               WHERE vehicle_plate = r2.vehicle_plate AND date_time <= r2.start_date
+               ORDER BY date_time DESC, id DESC
+               LIMIT 1
+           ), 0) AS rate_cents,
+           COALESCE(CASE
+                        WHEN p.status = 'ATIVA' AND LOCALTIMESTAMP BETWEEN p.start_date AND p.end_date
+                            THEN LEAST(GREATEST(p.discount_percentage, 0), 100) * 100
+                    END, 0) AS discount_basis_points,
+           COALESCE((
+               SELECT round(SUM(day_rate.cents
+                                * floor(EXTRACT(EPOCH FROM LEAST(d.day_start + INTERVAL '1 day', r2.end_date) - d.day_start)))
+                            / 86400.0)
+               FROM generate_series(r2.start_date, r2.end_date - INTERVAL '1 microsecond', INTERVAL '1 day') AS d(day_start)
+               JOIN LATERAL (
+                   SELECT round(amount * 100) AS cents
+                   FROM daily_rate
+                   WHERE vehicle_plate = r2.vehicle_plate AND date_time <= d.day_start
+                   ORDER BY date_time DESC, id DESC
+                   LIMIT 1
+               ) day_rate ON TRUE
+           ), 0) AS gross_cents
+    FROM reservation r2
+    LEFT JOIN promotion p ON p.code = r2.promotion_code
+    WHERE r2.total_amount IS NULL
+) priced
+WHERE r.id = priced.id;
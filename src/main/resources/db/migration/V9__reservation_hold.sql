@@ -0,0 +1,17 @@
+-- Short-lived availability holds placed by checkout flows between pricing and booking.
+-- Holds are kept in memory by ReservationHoldRegistry, which expires them with a timer
+-- wheel; this table mirrors them so they survive restarts and are visible to the
+-- availability query. Rows past expires_at are ignored and removed on expiry/warm-up.
+
+CREATE TABLE IF NOT EXISTS reservation_hold (
+    id              UUID PRIMARY KEY,
+    vehicle_plate   VARCHAR(45) NOT NULL REFERENCES vehicle (plate),
+    client_user_cpf VARCHAR(45) NOT NULL REFERENCES client (user_cpf),
+    start_date      TIMESTAMP   NOT NULL,
+    end_date        TIMESTAMP   NOT NULL,
+    created_at      TIMESTAMP   NOT NULL DEFAULT now(),
+    expires_at      TIMESTAMP   NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_reservation_hold_plate_expiry
+    ON reservation_hold (vehicle_plate, expires_at);
@@ -0,0 +1,52 @@
+package io.github.joabsonlg.sigac_api.common.util;
+
+import io.github.joabsonlg.sigac_api.common.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorUtilTest {
+
+	@Test
+	void decodesWhatWasEncoded() {
+		LocalDateTime timestamp = LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000);
+
+		CursorUtil.Keyset keyset = CursorUtil.decode(CursorUtil.encode(timestamp, 42));
+
+		assertEquals(timestamp, keyset.timestamp());
+		assertEquals(42, keyset.id());
+	}
+
+	@Test
+	void blankCursorMeansFirstPage() {
+		assertNull(CursorUtil.decode(null));
+		assertNull(CursorUtil.decode(""));
+		assertNull(CursorUtil.decode("   "));
+	}
+
+	@Test
+	void rejectsTamperedCursor() {
+		String cursor = CursorUtil.encode(LocalDateTime.of(2025, 3, 14, 9, 26), 42);
+		String tampered = cursor.substring(0, cursor.length() - 2) + "!!";
+
+		assertThrows(ValidationException.class, () -> CursorUtil.decode(tampered));
+	}
+
+	@Test
+	void rejectsCursorWithMalformedKeyset() {
+		assertThrows(ValidationException.class, () -> CursorUtil.decode(encodeRaw("2025-03-14T09:26|abc")));
+		assertThrows(ValidationException.class, () -> CursorUtil.decode(encodeRaw("yesterday|42")));
+		assertThrows(ValidationException.class, () -> CursorUtil.decode(encodeRaw("42")));
+	}
+
+	private static String encodeRaw(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
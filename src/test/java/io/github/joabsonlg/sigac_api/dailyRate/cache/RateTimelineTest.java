@@ -0,0 +1,61 @@
+package io.github.joabsonlg.sigac_api.dailyRate.cache;
+
+import io.github.joabsonlg.sigac_api.dailyRate.model.DailyRate;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateTimelineTest {
+
+	private static final String PLATE = "ABC1D23";
+
+	private static final LocalDateTime MARCH = LocalDateTime.of(2025, 3, 1, 0, 0);
+	private static final LocalDateTime APRIL = LocalDateTime.of(2025, 4, 1, 0, 0);
+	private static final LocalDateTime MAY = LocalDateTime.of(2025, 5, 1, 0, 0);
+
+	private final RateTimeline timeline = RateTimeline.of(PLATE, List.of(
+			new DailyRate(1L, 100.0, MARCH, PLATE),
+			new DailyRate(2L, 120.0, APRIL, PLATE),
+			new DailyRate(3L, 150.0, MAY, PLATE)
+	));
+
+	@Test
+	void rateDatedExactlyAtTheInstantIsInForce() {
+		assertEquals(2L, timeline.rateAt(APRIL).id());
+		assertEquals(120.0, timeline.rateAt(APRIL).amount());
+		assertEquals(1, timeline.floorIndex(APRIL));
+	}
+
+	@Test
+	void instantBetweenRatesUsesTheEarlierOne() {
+		assertEquals(1L, timeline.rateAt(APRIL.minusNanos(1_000)).id());
+		assertEquals(2L, timeline.rateAt(APRIL.plusDays(15)).id());
+		assertEquals(3L, timeline.rateAt(MAY.plusYears(1)).id());
+	}
+
+	@Test
+	void instantBeforeTheFirstRateHasNoRate() {
+		assertEquals(-1, timeline.floorIndex(MARCH.minusDays(1)));
+		assertNull(timeline.rateAt(MARCH.minusNanos(1_000)));
+	}
+
+	@Test
+	void sameDayDuplicatesResolveToTheHighestId() {
+		RateTimeline duplicated = RateTimeline.of(PLATE, List.of(
+				new DailyRate(1L, 100.0, MARCH, PLATE),
+				new DailyRate(4L, 110.0, APRIL, PLATE),
+				new DailyRate(7L, 130.0, APRIL, PLATE),
+				new DailyRate(9L, 125.0, APRIL, PLATE)
+		));
+
+		assertEquals(9L, duplicated.rateAt(APRIL).id());
+		assertEquals(125.0, duplicated.rateAt(APRIL.plusDays(3)).amount());
+		assertEquals(9L, duplicated.latest().id());
+		assertEquals(1L, duplicated.rateAt(APRIL.minusDays(1)).id());
+	}
+
+}
@@ -0,0 +1,88 @@
+package io.github.joabsonlg.sigac_api.reservation.pricing;
+
+import io.github.joabsonlg.sigac_api.dailyRate.cache.RateTimeline;
+import io.github.joabsonlg.sigac_api.dailyRate.model.DailyRate;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PricingEngineTest {
+
+	private static final String PLATE = "ABC1D23";
+
+	private static final LocalDateTime MARCH_1 = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+	@Test
+	void chargesEveryRentalDayAtTheDailyRate() {
+		RateTimeline timeline = timeline(rate(1L, 100.00, MARCH_1));
+
+		assertEquals(10_000L, PricingEngine.price(timeline, MARCH_1, MARCH_1.plusDays(1), 0.0));
+		assertEquals(30_000L, PricingEngine.price(timeline, MARCH_1, MARCH_1.plusDays(3), 0.0));
+		// Rental days are counted from the start, not from midnight
+		assertEquals(20_000L, PricingEngine.price(timeline, MARCH_1.plusHours(18), MARCH_1.plusDays(2).plusHours(18), 0.0));
+	}
+
+	@Test
+	void rateChangeTakesEffectFromTheNextRentalDay() {
+		RateTimeline timeline = timeline(
+				rate(1L, 100.00, MARCH_1),
+				rate(2L, 150.00, MARCH_1.plusDays(1).plusHours(12)));
+
+		// Day 1 and day 2 begin before the change, day 3 after it
+		assertEquals(35_000L, PricingEngine.price(timeline, MARCH_1, MARCH_1.plusDays(3), 0.0));
+		// A change exactly at the start of a rental day applies to that day
+		assertEquals(25_000L, PricingEngine.price(timeline, MARCH_1.plusHours(12), MARCH_1.plusDays(2).plusHours(12), 0.0));
+	}
+
+	@Test
+	void daysBeforeTheFirstRateAreFree() {
+		RateTimeline timeline = timeline(rate(1L, 100.00, MARCH_1.plusDays(1)));
+
+		assertEquals(10_000L, PricingEngine.price(timeline, MARCH_1, MARCH_1.plusDays(2), 0.0));
+		assertEquals(0L, PricingEngine.price(timeline, MARCH_1, MARCH_1.plusDays(1), 0.0));
+	}
+
+	@Test
+	void lastDayIsProratedToTheSecond() {
+		RateTimeline timeline = timeline(rate(1L, 100.00, MARCH_1));
+
+		assertEquals(12_500L, PricingEngine.price(timeline, MARCH_1, MARCH_1.plusDays(1).plusHours(6), 0.0));
+		assertEquals(5_000L, PricingEngine.price(timeline, MARCH_1, MARCH_1.plusHours(12), 0.0));
+		// Fractions of a second are not charged
+		assertEquals(5_000L, PricingEngine.price(timeline, MARCH_1, MARCH_1.plusHours(12).plusNanos(999_000), 0.0));
+	}
+
+	@Test
+	void roundsHalfUpToTheCent() {
+		RateTimeline timeline = timeline(rate(1L, 1.00, MARCH_1));
+
+		// 100 cents x 432 s / 86400 s = 0.5 cent
+		assertEquals(1L, PricingEngine.price(timeline, MARCH_1, MARCH_1.plusSeconds(432), 0.0));
+		assertEquals(0L, PricingEngine.price(timeline, MARCH_1, MARCH_1.plusSeconds(431), 0.0));
+		// 15% of 999 cents = 149.85 cents
+		assertEquals(849L, PricingEngine.applyDiscount(999L, 1_500L));
+		// 5% of 10 cents = 0.5 cent
+		assertEquals(9L, PricingEngine.applyDiscount(10L, 500L));
+	}
+
+	@Test
+	void appliesThePromotionDiscount() {
+		RateTimeline timeline = timeline(rate(1L, 100.00, MARCH_1));
+
+		assertEquals(25_500L, PricingEngine.price(timeline, MARCH_1, MARCH_1.plusDays(3), 0.15));
+		assertEquals(0L, PricingEngine.price(timeline, MARCH_1, MARCH_1.plusDays(3), 1.5));
+		assertEquals(30_000L, PricingEngine.price(timeline, MARCH_1, MARCH_1.plusDays(3), -0.1));
+	}
+
+	private static RateTimeline timeline(DailyRate... rates) {
+		return RateTimeline.of(PLATE, List.of(rates));
+	}
+
+	private static DailyRate rate(long id, double amount, LocalDateTime dateTime) {
+		return new DailyRate(id, amount, dateTime, PLATE);
+	}
+
+}